@@ -0,0 +1,72 @@
+package academy.benchmark;
+
+import academy.model.LogFields;
+import academy.model.PercentileMode;
+import academy.model.ResourceCountMode;
+import academy.service.NginxLogParser;
+import academy.stats.StatsCollector;
+import academy.stats.StatsOptions;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Lines per second added to a fresh {@link StatsCollector} */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(CollectBenchmark.LINES)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CollectBenchmark {
+    static final int LINES = 100_000;
+
+    @Param({"exact", "approx"})
+    private String percentiles;
+
+    @Param({"exact", "approx"})
+    private String resourceCounts;
+
+    @Param({"100", "100000"})
+    private int resources;
+
+    @Param({"30"})
+    private int days;
+
+    private StatsOptions options;
+    private LogFields[] fields;
+
+    @Setup
+    public void setUp() {
+        options = StatsOptions.builder()
+                .percentileMode(PercentileMode.fromName(percentiles))
+                .resourceCountMode(ResourceCountMode.fromName(resourceCounts))
+                .build();
+
+        NginxLogParser parser = new NginxLogParser();
+        LogLineGenerator generator = new LogLineGenerator(42, resources, days, LINES);
+        fields = new LogFields[LINES];
+        for (int i = 0; i < LINES; i++) {
+            fields[i] = parser.tryProcessLine(generator.nextLine()).orElseThrow();
+        }
+    }
+
+    @Benchmark
+    public StatsCollector collect() {
+        StatsCollector collector = new StatsCollector(null, null, options);
+        for (LogFields field : fields) {
+            collector.collect(field);
+        }
+        return collector;
+    }
+}
@@ -0,0 +1,67 @@
+package academy.benchmark;
+
+import academy.export.ILogsExporter;
+import academy.export.LogExporterFactory;
+import academy.service.NginxLogParser;
+import academy.stats.StatsCollector;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Time to render a report of {@code days} days of generated logs from the collector, JSON is streamed */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExportBenchmark {
+    private static final int LINES = 100_000;
+
+    @Param({"json", "markdown", "adoc"})
+    private String format;
+
+    @Param({"365"})
+    private int days;
+
+    private ILogsExporter exporter;
+    private StatsCollector collector;
+    private Path output;
+
+    @Setup
+    public void setUp() throws IOException {
+        exporter = new LogExporterFactory().createLogExporter(format);
+
+        NginxLogParser parser = new NginxLogParser();
+        LogLineGenerator generator = new LogLineGenerator(42, 1000, days, LINES);
+        collector = new StatsCollector(null, null);
+        for (int i = 0; i < LINES; i++) {
+            parser.tryProcessLine(generator.nextLine()).ifPresent(collector::collect);
+        }
+        output = Files.createTempFile("export_benchmark", "." + format);
+    }
+
+    @TearDown
+    public void deleteOutput() throws IOException {
+        Files.deleteIfExists(output);
+    }
+
+    /** Exporters overwrite the file, only the CLI refuses existing outputs */
+    @Benchmark
+    public void export() throws IOException {
+        exporter.export(output.toString(), collector);
+    }
+}
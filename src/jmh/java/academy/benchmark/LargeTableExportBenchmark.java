@@ -0,0 +1,86 @@
+package academy.benchmark;
+
+import academy.export.ILogsExporter;
+import academy.export.LogExporterFactory;
+import academy.model.ResourceData;
+import academy.model.ResourceResponseTime;
+import academy.model.ResponseTimeInSeconds;
+import academy.stats.Stats;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Time to render a report whose resource tables have {@code rows} rows, as with a large {@code --top} */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LargeTableExportBenchmark {
+    @Param({"markdown", "adoc"})
+    private String format;
+
+    @Param({"100000"})
+    private int rows;
+
+    private ILogsExporter exporter;
+    private Stats stats;
+    private Path output;
+
+    @Setup
+    public void setUp() throws IOException {
+        exporter = new LogExporterFactory().createLogExporter(format);
+
+        Random random = new Random(42);
+        List<ResourceData> resources = new ArrayList<>(rows);
+        List<ResourceResponseTime> times = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            String resource = "/downloads/product_" + i + "?session=" + Long.toHexString(random.nextLong());
+            resources.add(new ResourceData(resource, rows - i));
+
+            ResponseTimeInSeconds time = new ResponseTimeInSeconds();
+            time.count = rows - i;
+            time.average = random.nextInt(5000) / 1000.0;
+            time.p50 = time.average / 2;
+            time.p90 = time.average;
+            time.p99 = time.average * 2;
+            time.max = time.average * 3;
+            times.add(new ResourceResponseTime(resource, time));
+        }
+
+        stats = new Stats();
+        stats.getFiles().add("access.log");
+        stats.setTotalRequestsCount(rows);
+        stats.setResources(resources);
+        stats.setRequestTime(times.getFirst().requestTime());
+        stats.setResourceResponseTimes(times);
+        output = Files.createTempFile("large_table_benchmark", "." + format);
+    }
+
+    @TearDown
+    public void deleteOutput() throws IOException {
+        Files.deleteIfExists(output);
+    }
+
+    @Benchmark
+    public void export() throws IOException {
+        exporter.export(output.toString(), stats);
+    }
+}
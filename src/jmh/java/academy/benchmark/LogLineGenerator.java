@@ -0,0 +1,76 @@
+package academy.benchmark;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Generates synthetic lines in the combined log format. Resources are picked from {@code resourceCount} distinct paths
+ * with a skewed distribution, statuses follow a typical mix of successes, redirects and errors, and timestamps move
+ * forward through {@code daySpread} days.
+ */
+public class LogLineGenerator {
+    private static final DateTimeFormatter TIME_FORMAT =
+            DateTimeFormatter.ofPattern("dd/MMM/yyyy:HH:mm:ss Z", Locale.ENGLISH);
+    private static final LocalDateTime START = LocalDateTime.of(2024, 10, 1, 0, 0);
+
+    private static final String[] METHODS = {"GET", "GET", "GET", "GET", "POST", "HEAD"};
+    private static final String[] PROTOCOLS = {"HTTP/1.1", "HTTP/1.1", "HTTP/1.1", "HTTP/2.0", "HTTP/1.0"};
+    private static final int[] STATUSES = {200, 200, 200, 200, 200, 200, 200, 304, 304, 301, 206, 404, 404, 403, 500};
+    private static final String[] USER_AGENTS = {
+        "Mozilla/5.0 (X11; Linux x86_64; rv:131.0) Gecko/20100101 Firefox/131.0",
+        "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/130.0 Safari/537.36",
+        "Debian APT-HTTP/1.3 (1.0.1ubuntu2)",
+        "curl/8.5.0"
+    };
+
+    private final Random random;
+    private final int resourceCount;
+    private final long secondsPerLine;
+    private long second;
+
+    /**
+     * @param seed random seed, equal seeds give equal lines.
+     * @param resourceCount number of distinct requested resources.
+     * @param daySpread number of days the lines cover.
+     * @param lineCount number of lines to be generated, used to spread them over the days.
+     */
+    public LogLineGenerator(long seed, int resourceCount, int daySpread, int lineCount) {
+        this.random = new Random(seed);
+        this.resourceCount = resourceCount;
+        this.secondsPerLine = Math.max(1, daySpread * 86_400L / Math.max(1, lineCount));
+    }
+
+    public String nextLine() {
+        second += random.nextLong(secondsPerLine * 2);
+        String time = START.plusSeconds(second).atOffset(ZoneOffset.UTC).format(TIME_FORMAT);
+
+        // squaring a uniform value makes low resource numbers more popular
+        double skew = random.nextDouble();
+        int resource = (int) (skew * skew * resourceCount);
+
+        return "%d.%d.%d.%d - - [%s] \"%s /downloads/product_%d %s\" %d %d \"-\" \"%s\""
+                .formatted(
+                        random.nextInt(223) + 1,
+                        random.nextInt(256),
+                        random.nextInt(256),
+                        random.nextInt(256),
+                        time,
+                        METHODS[random.nextInt(METHODS.length)],
+                        resource,
+                        PROTOCOLS[random.nextInt(PROTOCOLS.length)],
+                        STATUSES[random.nextInt(STATUSES.length)],
+                        random.nextInt(10) == 0 ? 0 : (long) Math.exp(random.nextGaussian() * 2 + 8),
+                        USER_AGENTS[random.nextInt(USER_AGENTS.length)]);
+    }
+
+    public String[] lines(int count) {
+        String[] lines = new String[count];
+        for (int i = 0; i < count; i++) {
+            lines[i] = nextLine();
+        }
+        return lines;
+    }
+}
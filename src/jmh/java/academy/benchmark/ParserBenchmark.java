@@ -0,0 +1,77 @@
+package academy.benchmark;
+
+import academy.model.DateRange;
+import academy.service.ILogParser;
+import academy.service.LogFormat;
+import academy.service.LogFormatParser;
+import academy.service.LogParserFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Parsed lines per second of every line parser, from {@link String} and from UTF-8 bytes. {@code combined} is the
+ * {@link LogFormatParser} of the compiled {@code combined} format, the same lines as the other parsers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(ParserBenchmark.LINES)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParserBenchmark {
+    static final int LINES = 10_000;
+
+    @Param({"regex", "tokenizer", "combined"})
+    private String parser;
+
+    @Param({"1000"})
+    private int resources;
+
+    @Param({"30"})
+    private int days;
+
+    private ILogParser logParser;
+    private String[] lines;
+    private byte[][] bytes;
+
+    @Setup
+    public void setUp() {
+        LogParserFactory factory = new LogParserFactory();
+        logParser = parser.equals("combined")
+                ? factory.createLogParser(LogFormat.compile(parser), DateRange.ALL)
+                : factory.createLogParser(parser);
+        lines = new LogLineGenerator(42, resources, days, LINES).lines(LINES);
+        bytes = new byte[LINES][];
+        for (int i = 0; i < LINES; i++) {
+            bytes[i] = lines[i].getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Benchmark
+    public void parseStrings(Blackhole blackhole) {
+        for (String line : lines) {
+            blackhole.consume(logParser.tryProcessLine(line));
+        }
+    }
+
+    @Benchmark
+    public void parseBytes(Blackhole blackhole) {
+        for (byte[] line : bytes) {
+            blackhole.consume(logParser.tryProcessLine(line, 0, line.length));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package academy.benchmark;
+
+import academy.stats.ExactPercentiles;
+import academy.stats.IPercentileEstimator;
+import academy.stats.LogHistogram;
+import academy.stats.MetricsCalculator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Time to add {@code size} response sizes and compute p95 with every percentile implementation */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PercentileBenchmark {
+    @Param({"1000000"})
+    private int size;
+
+    private double[] values;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        values = new double[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = random.nextInt(10) == 0 ? 0 : (long) Math.exp(random.nextGaussian() * 2 + 8);
+        }
+    }
+
+    @Benchmark
+    public double sortedList() {
+        List<Double> list = new ArrayList<>();
+        for (double value : values) {
+            list.add(value);
+        }
+        return MetricsCalculator.calculatePercentile(list, 95);
+    }
+
+    @Benchmark
+    public double exact() {
+        return percentile(new ExactPercentiles());
+    }
+
+    @Benchmark
+    public double histogram() {
+        return percentile(new LogHistogram());
+    }
+
+    private double percentile(IPercentileEstimator estimator) {
+        for (double value : values) {
+            estimator.add(value);
+        }
+        return estimator.getPercentile(95);
+    }
+}
@@ -0,0 +1,76 @@
+package academy.benchmark;
+
+import academy.model.LogFields;
+import academy.model.PercentileMode;
+import academy.model.ResourceCountMode;
+import academy.service.NginxLogTokenizer;
+import academy.stats.StatsCollector;
+import academy.stats.StatsOptions;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Lines per second added to a long-lived {@link StatsCollector} that has already seen every resource, status, date and
+ * protocol, the state of a collector in the middle of a large log. Run with {@code -prof gc}: {@code gc.alloc.rate.norm}
+ * should be 0 B/op. Percentiles are approximate, exact ones keep every size and grow their array.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(SteadyStateCollectBenchmark.LINES)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SteadyStateCollectBenchmark {
+    static final int LINES = 100_000;
+
+    @Param({"exact", "approx"})
+    private String resourceCounts;
+
+    @Param({"1000"})
+    private int resources;
+
+    @Param({"30"})
+    private int days;
+
+    private StatsCollector collector;
+    private LogFields[] fields;
+
+    @Setup
+    public void setUp() {
+        collector = new StatsCollector(
+                null,
+                null,
+                StatsOptions.builder()
+                        .percentileMode(PercentileMode.APPROXIMATE)
+                        .resourceCountMode(ResourceCountMode.fromName(resourceCounts))
+                        .build());
+
+        NginxLogTokenizer tokenizer = new NginxLogTokenizer();
+        LogLineGenerator generator = new LogLineGenerator(42, resources, days, LINES);
+        fields = new LogFields[LINES];
+        for (int i = 0; i < LINES; i++) {
+            fields[i] = tokenizer.tryProcessLine(generator.nextLine()).orElseThrow();
+            collector.collect(fields[i]);
+        }
+    }
+
+    @Benchmark
+    public StatsCollector collect() {
+        for (LogFields field : fields) {
+            collector.collect(field);
+        }
+        return collector;
+    }
+}
@@ -1,10 +1,21 @@
 package academy;
 
+import academy.checkpoint.Checkpoint;
 import academy.export.LogExporterFactory;
+import academy.model.PercentileMode;
+import academy.model.ReaderMode;
+import academy.model.ResourceCountMode;
+import academy.model.SeriesInterval;
 import academy.service.ArgumentsValidator;
 import academy.service.ExitCode;
+import academy.service.LogFormat;
+import academy.service.LogParserFactory;
 import academy.stats.StatsCollector;
+import academy.stats.StatsOptions;
 import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.concurrent.Callable;
 import org.apache.logging.log4j.LogManager;
@@ -38,24 +49,226 @@ public class Application implements Callable<Integer> {
     @Option(names = {"--to"})
     private LocalDate to;
 
+    @Option(
+            names = {"--parser"},
+            defaultValue = "regex",
+            description = "Line parser: regex or tokenizer")
+    private String parser;
+
+    @Option(
+            names = {"--log-format"},
+            description = "nginx log_format of the lines, or combined; replaces --parser")
+    private String logFormat;
+
+    @Option(
+            names = {"--threads"},
+            defaultValue = "1",
+            description = "Number of threads parsing a single local file")
+    private int threads;
+
+    @Option(
+            names = {"--file-threads"},
+            defaultValue = "1",
+            description = "Number of local files processed concurrently")
+    private int fileThreads;
+
+    @Option(
+            names = {"--connections"},
+            defaultValue = "" + ReaderOptions.DEFAULT_CONNECTIONS,
+            description = "Number of remote logs downloaded and parsed concurrently")
+    private int connections;
+
+    @Option(
+            names = {"--pipeline-workers"},
+            defaultValue = "0",
+            description = "Number of parser workers in the staged read/parse/aggregate pipeline, 0 disables it")
+    private int pipelineWorkers;
+
+    @Option(
+            names = {"--reader"},
+            defaultValue = "scanner",
+            description = "Local file reader: scanner or mmap")
+    private String readerMode;
+
+    @Option(
+            names = {"--sorted"},
+            description = "Local logs are in time order, only the part within --from and --to is read")
+    private boolean sorted;
+
+    @Option(
+            names = {"--index-dir"},
+            description = "Directory of columnar indexes of local files, later runs read indexes instead of logs")
+    private String indexDirectory;
+
+    @Option(
+            names = {"--checkpoint"},
+            description = "File keeping per-file offsets and aggregates, only appended lines are parsed on later runs")
+    private String checkpoint;
+
+    @Option(
+            names = {"--follow"},
+            description = "Keep reading appended lines and refresh the report on an interval")
+    private boolean follow;
+
+    @Option(
+            names = {"--follow-interval"},
+            defaultValue = "10",
+            description = "Seconds between report refreshes in follow mode")
+    private int followInterval;
+
+    @Option(
+            names = {"--percentiles"},
+            defaultValue = "exact",
+            description = "Percentile calculation: exact or approx")
+    private String percentileMode;
+
+    @Option(
+            names = {"--top"},
+            defaultValue = "10",
+            description = "Number of most requested resources, hosts and clients in the report")
+    private int topResources;
+
+    @Option(
+            names = {"--resource-counts"},
+            defaultValue = "exact",
+            description = "Requests per resource: exact or approx")
+    private String resourceCountMode;
+
+    @Option(
+            names = {"--resource-count-error"},
+            defaultValue = "0.0001",
+            description = "Overestimation bound of approx resource counts, relative to the number of requests")
+    private double resourceCountError;
+
+    @Option(
+            names = {"--clients"},
+            description = "Report top clients by requests and by bytes and the number of unique clients")
+    private boolean clients;
+
+    @Option(
+            names = {"--series"},
+            description = "Throughput series of requests, bytes and server errors per minute or hour")
+    private String seriesInterval;
+
+    @Option(
+            names = {"--compact"},
+            description = "Write JSON without indentation and line breaks")
+    private boolean compact;
+
     private StatsCollector statsCollector;
 
+    private boolean isIncremental() {
+        return checkpoint != null || follow;
+    }
+
     private void validateUserInput() {
-        ArgumentsValidator.validateOutput(output);
+        ArgumentsValidator.validateOutput(output, isIncremental());
         ArgumentsValidator.validateFormat(format);
         ArgumentsValidator.validateDates(from, to);
         ArgumentsValidator.validateFormatExtension(format, output);
+        ArgumentsValidator.validateParserMode(parser);
+        if (logFormat != null) {
+            ArgumentsValidator.validateLogFormat(logFormat);
+        }
+        ArgumentsValidator.validateThreads(threads);
+        ArgumentsValidator.validateThreads(fileThreads);
+        ArgumentsValidator.validateThreads(connections);
+        ArgumentsValidator.validatePipelineWorkers(pipelineWorkers);
+        ArgumentsValidator.validateFollowInterval(followInterval);
+        ArgumentsValidator.validateTopResources(topResources);
+        ArgumentsValidator.validateResourceCountError(resourceCountError);
+        if (indexDirectory != null) {
+            ArgumentsValidator.validateIndexDirectory(indexDirectory);
+        }
+        if (isIncremental() && ArgumentsValidator.isRemotePath(path)) {
+            throw new IllegalArgumentException("Incremental reading is supported only for local files");
+        }
+    }
+
+    private ReaderOptions createReaderOptions() {
+        // indexes keep client addresses for later runs with --clients
+        LogParserFactory parserFactory = new LogParserFactory(clients || indexDirectory != null);
+        LogFormat compiledFormat = logFormat == null ? null : LogFormat.compile(logFormat);
+
+        return ReaderOptions.builder()
+                .parserFactory(range -> compiledFormat != null
+                        ? parserFactory.createLogParser(compiledFormat, range)
+                        : parserFactory.createLogParser(parser, range))
+                .lineFormat(getLineFormat())
+                .threads(threads)
+                .fileThreads(fileThreads)
+                .connections(connections)
+                .pipelineWorkers(pipelineWorkers)
+                .readerMode(ReaderMode.fromName(readerMode))
+                .sorted(sorted)
+                .indexDirectory(indexDirectory == null ? null : Path.of(indexDirectory))
+                .build();
+    }
+
+    /** @return {@code --log-format} if given, otherwise {@code --parser}, see {@link ReaderOptions#getLineFormat()} */
+    private String getLineFormat() {
+        return logFormat != null ? logFormat : parser;
     }
 
-    private boolean isUrl(String path) {
-        return path.startsWith("http");
+    private StatsOptions createStatsOptions() {
+        return StatsOptions.builder()
+                .percentileMode(PercentileMode.fromName(percentileMode))
+                .resourceCountMode(ResourceCountMode.fromName(resourceCountMode))
+                .resourceCountError(resourceCountError)
+                .topResources(topResources)
+                .clients(clients)
+                .seriesInterval(seriesInterval == null ? null : SeriesInterval.fromName(seriesInterval))
+                .build();
+    }
+
+    /**
+     * Parses what has been appended since the checkpoint and exports the report. In follow mode repeats it every
+     * {@code followInterval} seconds until the process is stopped, keeping the progress in memory if there is no
+     * checkpoint file. A rotation may briefly leave the path without files, or move a file between the glob and the
+     * read, so in follow mode such a pass is retried on the next interval instead of ending the process.
+     */
+    private void processIncrementally() throws IOException, InterruptedException {
+        StatsOptions statsOptions = createStatsOptions();
+        ReaderOptions readerOptions = createReaderOptions();
+        Path checkpointFile = checkpoint == null ? null : Path.of(checkpoint);
+        Checkpoint progress = checkpointFile == null
+                ? new Checkpoint(from, to, statsOptions, getLineFormat())
+                : Checkpoint.load(checkpointFile, from, to, statsOptions, getLineFormat());
+
+        while (true) {
+            statsCollector = new StatsCollector(from, to, statsOptions);
+            try {
+                new LogsReader(statsCollector, readerOptions).processIncrementally(path, progress);
+            } catch (IllegalArgumentException e) {
+                if (!follow || !isRotating(e)) {
+                    throw e;
+                }
+                LOGGER.warn("Files of {} are being rotated, retrying in {} seconds", path, followInterval);
+                Thread.sleep(Duration.ofSeconds(followInterval));
+                continue;
+            }
+            exportStats();
+
+            if (checkpointFile != null) {
+                progress.save(checkpointFile);
+            }
+            if (!follow) {
+                return;
+            }
+            Thread.sleep(Duration.ofSeconds(followInterval));
+        }
+    }
+
+    /** @return {@code true} if the pass failed because files of the path were missing while being rotated */
+    private boolean isRotating(IllegalArgumentException e) {
+        return !ArgumentsValidator.matchesFiles(path) || e.getCause() instanceof NoSuchFileException;
     }
 
     private void exportStats() {
         LogExporterFactory fabric = new LogExporterFactory();
-        var exporter = fabric.createLogExporter(format);
+        var exporter = fabric.createLogExporter(format, compact);
         try {
-            exporter.export(output, statsCollector.getStats());
+            exporter.export(output, statsCollector);
         } catch (IOException e) {
             throw new IllegalArgumentException("Failed to export log stats - " + e.getMessage());
         }
@@ -86,18 +299,24 @@ public class Application implements Callable<Integer> {
 
         try {
             validateUserInput();
-            statsCollector = new StatsCollector(from, to);
-            LogsReader reader = new LogsReader(statsCollector);
 
-            if (isUrl(path)) {
-                LOGGER.info("Processing remote files");
-                reader.processRemoteFiles(path);
+            if (isIncremental()) {
+                LOGGER.info("Processing appended lines of local files");
+                processIncrementally();
             } else {
-                LOGGER.info("Processing local files");
-                reader.processLocalFiles(path);
-            }
+                statsCollector = new StatsCollector(from, to, createStatsOptions());
+                LogsReader reader = new LogsReader(statsCollector, createReaderOptions());
 
-            exportStats();
+                if (ArgumentsValidator.isRemotePath(path)) {
+                    LOGGER.info("Processing remote files");
+                    reader.processRemoteFiles(path);
+                } else {
+                    LOGGER.info("Processing local files");
+                    reader.processLocalFiles(path);
+                }
+
+                exportStats();
+            }
         } catch (IllegalArgumentException e) {
             LOGGER.error("Got invalid arguments - {}", e.getMessage());
             return ExitCode.INVALID_ARGUMENTS.getCode();
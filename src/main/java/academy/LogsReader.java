@@ -1,51 +1,129 @@
 package academy;
 
+import academy.checkpoint.Checkpoint;
+import academy.index.LogIndex;
+import academy.index.LogIndexWriter;
+import academy.model.DateRange;
+import academy.model.LogFields;
+import academy.model.ReaderMode;
+import academy.pipeline.LogPipeline;
+import academy.pipeline.PipelineMetrics;
 import academy.service.ArgumentsValidator;
-import academy.service.NginxLogParser;
+import academy.service.BackgroundGzipInputStream;
+import academy.service.ByteLineReader;
+import academy.service.FileChunk;
+import academy.service.ILineReader;
+import academy.service.ILogParser;
+import academy.service.MappedLineReader;
 import academy.service.RemoteLogReader;
+import academy.service.SortedRangeLocator;
 import academy.stats.StatsCollector;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 import java.util.Scanner;
-import java.util.stream.Stream;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 public class LogsReader {
     private static final Logger LOGGER = LogManager.getLogger(LogsReader.class);
 
-    private final NginxLogParser parser;
+    private final ReaderOptions options;
+    private final ILogParser parser;
     private final StatsCollector statsCollector;
+    private final List<PipelineMetrics> pipelineMetrics = new CopyOnWriteArrayList<>();
 
     public LogsReader(StatsCollector statsCollector) {
+        this(statsCollector, ReaderOptions.builder().build());
+    }
+
+    public LogsReader(StatsCollector statsCollector, ReaderOptions options) {
         this.statsCollector = statsCollector;
-        parser = new NginxLogParser();
+        this.options = options;
+        parser = createParser();
+    }
+
+    /** @return parser that rejects lines of dates {@link #statsCollector} does not collect before parsing them */
+    private ILogParser createParser() {
+        return options.getParserFactory().apply(statsCollector.getDateRange());
+    }
+
+    /** @return counters of every file processed by {@link LogPipeline}, in completion order */
+    public List<PipelineMetrics> getPipelineMetrics() {
+        return List.copyOf(pipelineMetrics);
     }
 
     /**
-     * Processes deleted log files with lazy reading.
+     * Processes deleted log files with lazy reading, see {@link RemoteLogReader} for compression and resuming. Several
+     * URLs are downloaded and parsed concurrently when {@link ReaderOptions#getConnections()} allows it, sharing one
+     * HTTP client, and merged in the order they are listed.
      *
-     * @param path path to the deleted resource.
+     * @param path URL, comma-separated URLs or a URL manifest, see {@link ArgumentsValidator#getValidUrls(String)}.
      * @throws IllegalArgumentException any caught error is thrown as {@link IllegalArgumentException}, including for
      *     testing convenience.
      */
     public void processRemoteFiles(String path) {
-        RemoteLogReader reader = new RemoteLogReader();
-        statsCollector.addFile(path);
+        processRemoteFiles(ArgumentsValidator.getValidUrls(path), new RemoteLogReader());
+    }
 
-        try (Stream<String> lines = reader.getStreamOfData(path)) {
-            lines.forEach(line -> parser.tryProcessLine(line).ifPresent(statsCollector::collect));
+    void processRemoteFiles(List<String> urls, RemoteLogReader reader) {
+        try {
+            if (options.getConnections() > 1 && urls.size() > 1) {
+                processConcurrently(
+                        urls,
+                        options.getConnections(),
+                        (url, target, urlParser) -> processRemoteFile(reader, url, target, urlParser));
+            } else {
+                for (String url : urls) {
+                    processRemoteFile(reader, url, statsCollector, parser);
+                }
+            }
+        } catch (Exception e) {
+            Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+            LOGGER.error("Failed to read remote resources because - {}", cause.getMessage());
+            throw cause instanceof IllegalArgumentException illegal
+                    ? illegal
+                    : new IllegalArgumentException("Failed to read remote resources: " + urls, cause);
+        }
+    }
 
+    private void processRemoteFile(RemoteLogReader reader, String url, StatsCollector target, ILogParser urlParser) {
+        target.addFile(url);
+
+        try {
+            reader.readLines(url, (buffer, start, end) -> urlParser
+                    .tryProcessLine(buffer, start, end)
+                    .ifPresent(target::collect));
         } catch (Exception e) {
-            LOGGER.error("Failed to read remote resource {} because - {}", path, e.getMessage());
-            throw new IllegalArgumentException("Failed to read remote resource: " + path, e);
+            LOGGER.error("Failed to read remote resource {} because - {}", url, e.getMessage());
+            throw new IllegalArgumentException("Failed to read remote resource: " + url, e);
         }
     }
 
     /**
-     * Processes the input stream line by line using {@link Scanner}, allowing only one line to be stored in memory at
-     * each step.
+     * Processes local files, lines of dates outside the range of the collector are rejected by their date before they
+     * are parsed. With a single thread and {@link ReaderMode#SCANNER} every file is read line by line using
+     * {@link Scanner}, allowing only one line to be stored in memory at each step, otherwise lines are read as bytes,
+     * see {@link #processInChunks(File, StatsCollector)}, which is also used for {@link ReaderOptions#isSorted()}
+     * files. Files starting with the gzip magic bytes are decompressed on a separate thread by
+     * {@link BackgroundGzipInputStream} and always read with {@link Scanner}, compressed data cannot be split into
+     * chunks. Several files are processed concurrently when {@link ReaderOptions#getFileThreads()} allows it, see
+     * {@link #processConcurrently(List, int, InputProcessor)}. With {@link ReaderOptions#getIndexDirectory()} files are
+     * read from their columnar indexes, see {@link #processIndexed(File, boolean, StatsCollector)}.
      *
      * @param path path/glob pattern to the file(s)
      * @throws IllegalArgumentException any caught error is thrown as {@link IllegalArgumentException}, including for
@@ -54,24 +132,282 @@ public class LogsReader {
     public void processLocalFiles(String path) {
         var inputFiles = ArgumentsValidator.getValidFiles(path);
 
-        for (File inputFile : inputFiles) {
-            statsCollector.addFile(inputFile.getName());
+        try {
+            if (options.getFileThreads() > 1 && inputFiles.size() > 1) {
+                processConcurrently(inputFiles, options.getFileThreads(), this::processFile);
+            } else {
+                for (File inputFile : inputFiles) {
+                    processFile(inputFile, statsCollector, parser);
+                }
+            }
+        } catch (Exception e) {
+            LOGGER.error("Failed to read all files - {}", e.getMessage());
+            throw new IllegalArgumentException("Failed to read local files: " + path, e);
+        }
+    }
+
+    /**
+     * Processes only what has been appended to local files since {@code checkpoint}, and updates it. Every file starts
+     * from the aggregate and the offset saved for it, found by file identity so that rotated files keep their progress.
+     * A file shorter than its saved offset, or whose first bytes no longer match the saved fingerprint, has been
+     * replaced and is read from the start, like a file that is not in the checkpoint. Only complete lines are parsed, a
+     * line that is still being written is left for the next run. Gzip files cannot be appended to and are read again
+     * whenever their size changes.
+     *
+     * <p>Files are read one by one, the new parts are usually small.
+     *
+     * @param path path/glob pattern to the file(s)
+     * @param checkpoint progress of the previous run, replaced with the progress of this one.
+     * @throws IllegalArgumentException any caught error is thrown as {@link IllegalArgumentException}
+     */
+    public void processIncrementally(String path, Checkpoint checkpoint) {
+        var inputFiles = ArgumentsValidator.getValidFiles(path);
+        List<Checkpoint.Entry> entries = new ArrayList<>();
+
+        try {
+            for (File inputFile : inputFiles) {
+                Checkpoint.Entry entry = processAppended(inputFile, checkpoint);
+                entries.add(entry);
+
+                StatsCollector partial = statsCollector.fork();
+                partial.getAggregate().merge(entry.aggregate());
+                statsCollector.addFile(inputFile.getName());
+                statsCollector.merge(partial);
+            }
+        } catch (Exception e) {
+            LOGGER.error("Failed to read all files - {}", e.getMessage());
+            throw new IllegalArgumentException("Failed to read local files: " + path, e);
+        }
+
+        checkpoint.replaceAll(entries);
+    }
 
-            try (var inputStream = Files.newInputStream(inputFile.toPath());
-                    Scanner scanner = new Scanner(inputStream, StandardCharsets.UTF_8)) {
+    private Checkpoint.Entry processAppended(File inputFile, Checkpoint checkpoint) throws IOException {
+        Path file = inputFile.toPath();
+        String fileKey = Checkpoint.fileKey(file);
+        long size = Files.size(file);
+        boolean gzip = BackgroundGzipInputStream.isGzip(file);
 
-                while (scanner.hasNextLine()) {
-                    String line = scanner.nextLine();
-                    parser.tryProcessLine(line).ifPresent(statsCollector::collect);
-                }
+        Optional<Checkpoint.Entry> previous =
+                checkpoint.find(fileKey).filter(entry -> gzip ? entry.offset() == size : entry.offset() <= size);
+        if (previous.isPresent()
+                && previous.get().fingerprint()
+                        != Checkpoint.fingerprint(file, previous.get().offset())) {
+            LOGGER.info("{} is not the file of the checkpoint, reading it from the start", inputFile.getName());
+            previous = Optional.empty();
+        }
+        if (previous.isPresent() && previous.get().offset() == size) {
+            LOGGER.info("{} has not changed since the checkpoint", inputFile.getName());
+            return new Checkpoint.Entry(
+                    file.toAbsolutePath().toString(),
+                    fileKey,
+                    previous.get().fingerprint(),
+                    size,
+                    previous.get().aggregate());
+        }
+
+        StatsCollector partial = statsCollector.fork();
+        previous.ifPresent(entry -> partial.getAggregate().merge(entry.aggregate()));
+        long start = previous.map(Checkpoint.Entry::offset).orElse(0L);
+
+        long end;
+        if (gzip) {
+            try (var inputStream = new BackgroundGzipInputStream(file)) {
+                processWithScanner(inputStream, partial::collect, parser);
+            }
+            end = size;
+        } else {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                end = FileChunk.lastLineEnd(channel, start, size);
+                createLineReader().readLines(channel, start, end, (buffer, lineStart, lineEnd) -> parser.tryProcessLine(
+                                buffer, lineStart, lineEnd)
+                        .ifPresent(partial::collect));
+            }
+        }
+
+        LOGGER.info("{}: parsed bytes {} to {} of {}", inputFile.getName(), start, end, size);
+        return new Checkpoint.Entry(
+                file.toAbsolutePath().toString(),
+                fileKey,
+                Checkpoint.fingerprint(file, end),
+                end,
+                partial.getAggregate());
+    }
+
+    /** Processes a single input into {@code target} using {@code inputParser} */
+    @FunctionalInterface
+    private interface InputProcessor<T> {
+        void process(T input, StatsCollector target, ILogParser inputParser) throws Exception;
+    }
+
+    /**
+     * Processes every input on a bounded pool into its own partial {@link StatsCollector}. Partials are merged in the
+     * order of {@code inputs}, so the result, including the order of files, is the same as in a sequential run.
+     */
+    private <T> void processConcurrently(List<T> inputs, int threads, InputProcessor<T> processor)
+            throws InterruptedException, ExecutionException {
+        int poolSize = Math.min(threads, inputs.size());
+        LOGGER.info("Processing {} inputs on {} threads", inputs.size(), poolSize);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(poolSize)) {
+            List<Future<StatsCollector>> partials = inputs.stream()
+                    .map(input -> executor.submit(() -> {
+                        StatsCollector partial = statsCollector.fork();
+                        processor.process(input, partial, createParser());
+                        return partial;
+                    }))
+                    .toList();
+
+            for (Future<StatsCollector> partial : partials) {
+                statsCollector.merge(partial.get());
+            }
+        }
+    }
+
+    private void processFile(File inputFile, StatsCollector target, ILogParser fileParser)
+            throws IOException, InterruptedException, ExecutionException {
+        target.addFile(inputFile.getName());
+
+        boolean gzip = BackgroundGzipInputStream.isGzip(inputFile.toPath());
+
+        if (options.getIndexDirectory() != null) {
+            processIndexed(inputFile, gzip, target);
+        } else if (options.getPipelineWorkers() > 0) {
+            try (InputStream inputStream = gzip
+                    ? new BackgroundGzipInputStream(inputFile.toPath())
+                    : Files.newInputStream(inputFile.toPath())) {
+                processInPipeline(inputFile, inputStream, target);
+            }
+        } else if (gzip) {
+            try (var inputStream = new BackgroundGzipInputStream(inputFile.toPath())) {
+                processWithScanner(inputStream, target::collect, fileParser);
+            }
+        } else if (options.getThreads() == 1 && options.getReaderMode() == ReaderMode.SCANNER && !options.isSorted()) {
+            try (var inputStream = Files.newInputStream(inputFile.toPath())) {
+                processWithScanner(inputStream, target::collect, fileParser);
+            }
+        } else {
+            processInChunks(inputFile, target);
+        }
+    }
+
+    private void processWithScanner(InputStream inputStream, Consumer<LogFields> target, ILogParser fileParser)
+            throws IOException {
+        try (Scanner scanner = new Scanner(inputStream, StandardCharsets.UTF_8)) {
+
+            while (scanner.hasNextLine()) {
+                String line = scanner.nextLine();
+                fileParser.tryProcessLine(line).ifPresent(target);
+            }
+
+            if (scanner.ioException() != null) {
+                throw scanner.ioException();
+            }
+        }
+    }
+
+    /**
+     * Collects the file from its {@link LogIndex} in {@link ReaderOptions#getIndexDirectory()}, reading only the days
+     * {@code target} accepts. If there is no index for the current state of the file, the file is parsed once in full
+     * to build it, collecting the entries on the way.
+     */
+    private void processIndexed(File inputFile, boolean gzip, StatsCollector target) throws IOException {
+        Path file = inputFile.toPath();
+        long size = Files.size(file);
+        long modified = LogIndex.lastModified(file);
+        Path indexFile = options.getIndexDirectory()
+                .resolve("%s-%08x.idx"
+                        .formatted(
+                                inputFile.getName(),
+                                file.toAbsolutePath().toString().hashCode()));
+
+        Optional<LogIndex> index = LogIndex.open(indexFile, size, modified, options.getLineFormat());
+        if (index.isPresent()) {
+            index.get().replay(target);
+            return;
+        }
 
-                if (scanner.ioException() != null) {
-                    throw scanner.ioException();
+        LOGGER.info("Building index {} of {}", indexFile, inputFile.getName());
+        ILogParser fileParser = options.getParserFactory().apply(DateRange.ALL);
+        try (LogIndexWriter writer = new LogIndexWriter(indexFile, size, modified, options.getLineFormat())) {
+            Consumer<LogFields> collector = fields -> {
+                writer.add(fields);
+                target.collect(fields);
+            };
+
+            if (gzip) {
+                try (var inputStream = new BackgroundGzipInputStream(file)) {
+                    processWithScanner(inputStream, collector, fileParser);
+                }
+            } else {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    createLineReader().readLines(channel, 0, channel.size(), (buffer, start, end) -> fileParser
+                            .tryProcessLine(buffer, start, end)
+                            .ifPresent(collector));
                 }
-            } catch (Exception e) {
-                LOGGER.error("Failed to read all files - {}", e.getMessage());
-                throw new IllegalArgumentException("Failed to read local files: " + path, e);
             }
+            writer.finish();
         }
     }
+
+    private void processInPipeline(File inputFile, InputStream inputStream, StatsCollector target)
+            throws IOException, InterruptedException {
+        LogPipeline pipeline = new LogPipeline(this::createParser, options.getPipelineWorkers());
+        PipelineMetrics metrics = pipeline.process(inputStream, target);
+
+        LOGGER.info("Pipeline for {}: {}", inputFile.getName(), metrics);
+        pipelineMetrics.add(metrics);
+    }
+
+    /**
+     * Splits the file into byte ranges aligned to line starts and parses every range on its own thread into a partial
+     * {@link StatsCollector}. Partials are merged in file order once all ranges are done. With
+     * {@link ReaderOptions#isSorted()} only the part of the file holding the collected dates is split.
+     */
+    private void processInChunks(File inputFile, StatsCollector target)
+            throws IOException, InterruptedException, ExecutionException {
+        try (FileChannel channel = FileChannel.open(inputFile.toPath(), StandardOpenOption.READ);
+                ExecutorService executor = Executors.newFixedThreadPool(options.getThreads())) {
+
+            DateRange range = target.getDateRange();
+            FileChunk part = options.isSorted() && !range.isUnbounded()
+                    ? SortedRangeLocator.locate(channel, range)
+                    : new FileChunk(0, channel.size());
+            List<FileChunk> chunks = FileChunk.split(channel, part, options.getThreads());
+            LOGGER.info(
+                    "Processing bytes {} to {} of {} in {} chunks",
+                    part.start(),
+                    part.end(),
+                    inputFile.getName(),
+                    chunks.size());
+
+            List<Future<StatsCollector>> partials = chunks.stream()
+                    .map(chunk -> executor.submit(() -> processChunk(channel, chunk, target)))
+                    .toList();
+
+            for (Future<StatsCollector> partial : partials) {
+                target.merge(partial.get());
+            }
+        }
+    }
+
+    private StatsCollector processChunk(FileChannel channel, FileChunk chunk, StatsCollector target)
+            throws IOException {
+        StatsCollector partial = target.fork();
+        ILogParser chunkParser = createParser();
+
+        createLineReader().readLines(channel, chunk.start(), chunk.end(), (buffer, start, end) -> chunkParser
+                .tryProcessLine(buffer, start, end)
+                .ifPresent(partial::collect));
+
+        return partial;
+    }
+
+    /** @return reader of {@link ReaderOptions#getReaderMode()}, used by every local read path */
+    ILineReader createLineReader() {
+        return switch (options.getReaderMode()) {
+            case SCANNER -> new ByteLineReader();
+            case MMAP -> new MappedLineReader();
+        };
+    }
 }
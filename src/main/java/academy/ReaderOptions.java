@@ -0,0 +1,64 @@
+package academy;
+
+import academy.model.DateRange;
+import academy.model.ParserMode;
+import academy.model.ReaderMode;
+import academy.service.ILogParser;
+import academy.service.NginxLogParser;
+import java.nio.file.Path;
+import java.util.function.Function;
+import lombok.Builder;
+import lombok.Getter;
+
+/** Settings of {@link LogsReader} */
+@Getter
+@Builder
+public class ReaderOptions {
+    /** Default of {@link #connections}, also the default of {@code --connections} */
+    public static final int DEFAULT_CONNECTIONS = 4;
+
+    /**
+     * Creates a parser of the collected dates for every thread, parsers keep per-thread caches. Indexes are built with
+     * parsers of {@link DateRange#ALL}.
+     */
+    @Builder.Default
+    private final Function<DateRange, ILogParser> parserFactory = NginxLogParser::new;
+
+    /**
+     * The {@code log_format} or the parser mode {@link #parserFactory} parses lines with. Indexes and checkpoints
+     * record it, and are not reused with another one.
+     */
+    @Builder.Default
+    private final String lineFormat = ParserMode.REGEX.getName();
+
+    /** Number of threads parsing a single local file, {@code 1} reads it sequentially */
+    @Builder.Default
+    private final int threads = 1;
+
+    /** Number of local files processed concurrently, {@code 1} processes them one by one */
+    @Builder.Default
+    private final int fileThreads = 1;
+
+    /** Number of remote logs downloaded and parsed concurrently, {@code 1} fetches them one by one */
+    @Builder.Default
+    private final int connections = DEFAULT_CONNECTIONS;
+
+    /** Number of parser workers of {@link academy.pipeline.LogPipeline}, {@code 0} does not use the pipeline */
+    @Builder.Default
+    private final int pipelineWorkers = 0;
+
+    /** Directory of {@link academy.index.LogIndex} files of local logs, {@code null} parses the logs every time */
+    @Builder.Default
+    private final Path indexDirectory = null;
+
+    /**
+     * Whether local logs are written in time order, so that only the part holding the collected dates is read, see
+     * {@link academy.service.SortedRangeLocator}. Gzip files, the pipeline and indexes read whole files regardless.
+     */
+    @Builder.Default
+    private final boolean sorted = false;
+
+    /** How local files are read */
+    @Builder.Default
+    private final ReaderMode readerMode = ReaderMode.SCANNER;
+}
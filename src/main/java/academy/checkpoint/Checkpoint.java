@@ -0,0 +1,217 @@
+package academy.checkpoint;
+
+import academy.stats.StatsAggregate;
+import academy.stats.StatsOptions;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.zip.CRC32C;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Progress of incremental runs over append-only logs: for every file its identity, a fingerprint of its first bytes,
+ * the offset after the last complete line that has been parsed and the aggregate of everything before that offset.
+ *
+ * <p>Aggregates depend on the date range, the line format and the statistics settings, so a checkpoint saved with other
+ * settings is ignored and every file is read from the start again. Entries are looked up by file identity rather than
+ * by name, so a rotated log keeps its progress under its new name. File systems reuse the inodes of deleted files, so
+ * the fingerprint tells a new file with a reused inode from the file the entry was saved for.
+ */
+public class Checkpoint {
+    private static final Logger LOGGER = LogManager.getLogger(Checkpoint.class);
+
+    private static final int MAGIC = 0x4E4C4350;
+    private static final int VERSION = 12;
+
+    /** Number of leading bytes of a file covered by {@link #fingerprint(Path, long)} */
+    static final int FINGERPRINT_BYTES = 1024;
+
+    /**
+     * Progress of a single file.
+     *
+     * @param path absolute path the file had when the entry was saved.
+     * @param fileKey identity of the file that survives renames, see {@link #fileKey(Path)}.
+     * @param fingerprint checksum of the first bytes of the file, see {@link #fingerprint(Path, long)}.
+     * @param offset number of bytes that have been parsed.
+     * @param aggregate statistics of the lines before {@code offset}, without file names.
+     */
+    public record Entry(String path, String fileKey, long fingerprint, long offset, StatsAggregate aggregate) {}
+
+    private final LocalDate from;
+    private final LocalDate to;
+    private final StatsOptions options;
+    private final String lineFormat;
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    /**
+     * Creates an empty checkpoint.
+     *
+     * @param from lower time limit of the aggregates, {@code null} if there is none.
+     * @param to upper time limit of the aggregates, {@code null} if there is none.
+     * @param options settings of the aggregates.
+     * @param lineFormat format the lines are parsed with, see {@link academy.ReaderOptions#getLineFormat()}.
+     */
+    public Checkpoint(LocalDate from, LocalDate to, StatsOptions options, String lineFormat) {
+        this.from = Objects.requireNonNullElse(from, LocalDate.MIN);
+        this.to = Objects.requireNonNullElse(to, LocalDate.MAX);
+        this.options = options;
+        this.lineFormat = lineFormat;
+    }
+
+    /**
+     * Loads a checkpoint saved by {@link #save(Path)}.
+     *
+     * @return saved checkpoint, or an empty one if the file does not exist, is not readable or was saved with other
+     *     settings.
+     */
+    public static Checkpoint load(Path file, LocalDate from, LocalDate to, StatsOptions options, String lineFormat) {
+        Checkpoint checkpoint = new Checkpoint(from, to, options, lineFormat);
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                LOGGER.warn("Ignoring checkpoint {} of an unknown format", file);
+                return checkpoint;
+            }
+            if (!checkpoint.hasSettings(input)) {
+                LOGGER.warn("Ignoring checkpoint {} saved with other dates, line format or statistics settings", file);
+                return checkpoint;
+            }
+
+            int count = input.readInt();
+            for (int i = 0; i < count; i++) {
+                Entry entry = new Entry(
+                        input.readUTF(),
+                        input.readUTF(),
+                        input.readLong(),
+                        input.readLong(),
+                        StatsAggregate.readFrom(input, options));
+                checkpoint.entries.put(entry.fileKey(), entry);
+            }
+        } catch (NoSuchFileException e) {
+            LOGGER.info("No checkpoint at {}, reading all files from the start", file);
+            return checkpoint;
+        } catch (IOException e) {
+            LOGGER.warn("Ignoring unreadable checkpoint {} - {}", file, e.getMessage());
+            return new Checkpoint(from, to, options, lineFormat);
+        }
+
+        LOGGER.info("Loaded checkpoint {} with {} files", file, checkpoint.entries.size());
+        return checkpoint;
+    }
+
+    private boolean hasSettings(DataInputStream input) throws IOException {
+        return input.readLong() == from.toEpochDay()
+                && input.readLong() == to.toEpochDay()
+                && input.readUTF().equals(lineFormat)
+                && input.readUTF().equals(options.getPercentileMode().getName())
+                && input.readDouble() == options.getRelativeAccuracy()
+                && input.readUTF().equals(options.getResourceCountMode().getName())
+                && input.readDouble() == options.getResourceCountError()
+                && input.readInt() == options.getTopResources()
+                && input.readBoolean() == options.isClients()
+                && input.readUTF().equals(seriesIntervalName());
+    }
+
+    private String seriesIntervalName() {
+        return options.getSeriesInterval() == null
+                ? ""
+                : options.getSeriesInterval().getName();
+    }
+
+    /**
+     * Writes the checkpoint to a temporary file next to {@code file} and moves it in place, so an interrupted run
+     * leaves the previous checkpoint intact.
+     */
+    public void save(Path file) throws IOException {
+        Path absolute = file.toAbsolutePath();
+        Path temporary = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+
+        try (DataOutputStream output =
+                new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeLong(from.toEpochDay());
+            output.writeLong(to.toEpochDay());
+            output.writeUTF(lineFormat);
+            output.writeUTF(options.getPercentileMode().getName());
+            output.writeDouble(options.getRelativeAccuracy());
+            output.writeUTF(options.getResourceCountMode().getName());
+            output.writeDouble(options.getResourceCountError());
+            output.writeInt(options.getTopResources());
+            output.writeBoolean(options.isClients());
+            output.writeUTF(seriesIntervalName());
+
+            output.writeInt(entries.size());
+            for (Entry entry : entries.values()) {
+                output.writeUTF(entry.path());
+                output.writeUTF(entry.fileKey());
+                output.writeLong(entry.fingerprint());
+                output.writeLong(entry.offset());
+                entry.aggregate().writeTo(output);
+            }
+        }
+
+        Files.move(temporary, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** @return progress of the file with the given identity */
+    public Optional<Entry> find(String fileKey) {
+        return Optional.ofNullable(entries.get(fileKey));
+    }
+
+    /** Replaces all entries, files that are no longer matched are forgotten */
+    public void replaceAll(List<Entry> current) {
+        entries.clear();
+        current.forEach(entry -> entries.put(entry.fileKey(), entry));
+    }
+
+    public List<Entry> getEntries() {
+        return Collections.unmodifiableList(new ArrayList<>(entries.values()));
+    }
+
+    /**
+     * @return device and inode of the file where the file system provides them, otherwise its absolute path, so the
+     *     identity of a file only survives renames on such file systems.
+     */
+    public static String fileKey(Path file) throws IOException {
+        Object key = Files.readAttributes(file, BasicFileAttributes.class).fileKey();
+        return key != null ? key.toString() : file.toAbsolutePath().toString();
+    }
+
+    /**
+     * @param offset number of bytes of the file that have been parsed, the fingerprint never covers more.
+     * @return CRC32C of the first {@value #FINGERPRINT_BYTES} bytes of the file, or of its first {@code offset} bytes
+     *     if there are fewer, so that it does not change while the file is appended to.
+     */
+    public static long fingerprint(Path file, long offset) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(FINGERPRINT_BYTES, offset));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // reads until the buffer is full or the file ends
+            }
+        }
+
+        CRC32C checksum = new CRC32C();
+        checksum.update(buffer.flip());
+        return checksum.getValue();
+    }
+}
@@ -1,64 +1,137 @@
 package academy.export;
 
+import academy.model.ClientData;
+import academy.model.ResourceData;
+import academy.model.ResourceResponseTime;
+import academy.model.ResponseCode;
+import academy.model.ResponseTimeInSeconds;
 import academy.stats.Stats;
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.Writer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 
+/** Writes a listing block per statistic, line by line straight into the file */
 public class AdocExporter implements ILogsExporter {
-    private void addGeneralInfo(StringBuilder document, Stats stats) {
+    private void addGeneralInfo(Writer document, Stats stats) throws IOException {
         document.append("---- General Information ----\n")
                 .append("Files: ")
                 .append(String.join(", ", stats.getFiles()))
                 .append("\n")
                 .append("Total Requests: ")
-                .append(stats.getTotalRequestsCount())
+                .append(String.valueOf(stats.getTotalRequestsCount()))
                 .append("\n")
                 .append("Average Response Size: ")
-                .append(stats.getResponseSizeInBytes().average)
+                .append(String.valueOf(stats.getResponseSizeInBytes().average))
                 .append("b\n")
                 .append("Max Response Size: ")
-                .append(stats.getResponseSizeInBytes().max)
+                .append(String.valueOf(stats.getResponseSizeInBytes().max))
                 .append("b\n")
                 .append("95th Percentile Size: ")
-                .append(stats.getResponseSizeInBytes().p95)
+                .append(String.valueOf(stats.getResponseSizeInBytes().p95))
                 .append("b\n\n");
     }
 
-    private void addResources(StringBuilder document, Stats stats) {
+    private void addResources(Writer document, Stats stats) throws IOException {
         if (!stats.getResources().isEmpty()) {
             document.append("---- Requested Resources ----\n");
-            stats.getResources().forEach(r -> document.append("- ")
-                    .append(r.resource())
-                    .append(": ")
-                    .append(r.totalRequestsCount())
-                    .append(" requests\n"));
+            for (ResourceData r : stats.getResources()) {
+                document.append("- ")
+                        .append(r.resource())
+                        .append(": ")
+                        .append(String.valueOf(r.totalRequestsCount()))
+                        .append(" requests\n");
+            }
             document.append("\n");
         }
     }
 
-    private void addResponseCodes(StringBuilder document, Stats stats) {
+    private void addResponseCodes(Writer document, Stats stats) throws IOException {
         if (!stats.getResponseCodes().isEmpty()) {
             document.append("---- Status Codes ----\n");
-            stats.getResponseCodes().forEach(c -> document.append("- ")
-                    .append(c.code())
-                    .append(": ")
-                    .append(c.totalResponsesCount())
-                    .append(" responses\n"));
+            for (ResponseCode c : stats.getResponseCodes()) {
+                document.append("- ")
+                        .append(String.valueOf(c.code()))
+                        .append(": ")
+                        .append(String.valueOf(c.totalResponsesCount()))
+                        .append(" responses\n");
+            }
         }
     }
 
-    @Override
-    public void export(String filename, Stats stats) throws IOException {
-        StringBuilder document = new StringBuilder();
+    private void addResponseTimes(Writer document, Stats stats) throws IOException {
+        if (stats.getRequestTime() != null || stats.getUpstreamResponseTime() != null) {
+            document.append("\n---- Response Times ----\n");
+            if (stats.getRequestTime() != null) {
+                addResponseTime(document, "Request Time", stats.getRequestTime());
+            }
+            if (stats.getUpstreamResponseTime() != null) {
+                addResponseTime(document, "Upstream Response Time", stats.getUpstreamResponseTime());
+            }
+        }
+        if (stats.getResourceResponseTimes() != null
+                && !stats.getResourceResponseTimes().isEmpty()) {
+            document.append("\n---- Resource Response Times ----\n");
+            for (ResourceResponseTime r : stats.getResourceResponseTimes()) {
+                addResponseTime(document, r.resource(), r.requestTime());
+            }
+        }
+    }
 
-        addGeneralInfo(document, stats);
-        addResources(document, stats);
-        addResponseCodes(document, stats);
+    private void addClients(Writer document, Stats stats) throws IOException {
+        if (stats.getClientsByRequests() != null) {
+            document.append("\n---- Clients ----\n")
+                    .append("Unique Clients (estimate): ")
+                    .append(String.valueOf(stats.getUniqueClients()))
+                    .append("\n");
+            document.append("\n---- Top Clients by Requests ----\n");
+            for (ClientData c : stats.getClientsByRequests()) {
+                addClient(document, c);
+            }
+            document.append("\n---- Top Clients by Bytes ----\n");
+            for (ClientData c : stats.getClientsByBytes()) {
+                addClient(document, c);
+            }
+        }
+    }
 
-        try (BufferedWriter writer = Files.newBufferedWriter(Path.of(filename))) {
-            writer.write(document.toString());
+    private void addClient(Writer document, ClientData client) throws IOException {
+        document.append("- ")
+                .append(client.address())
+                .append(": ")
+                .append(String.valueOf(client.totalRequestsCount()))
+                .append(" requests, ")
+                .append(String.valueOf(client.totalBytesSent()))
+                .append("b\n");
+    }
+
+    private void addResponseTime(Writer document, String name, ResponseTimeInSeconds time) throws IOException {
+        document.append("- ")
+                .append(name)
+                .append(": ")
+                .append(String.valueOf(time.count))
+                .append(" requests, average ")
+                .append(String.valueOf(time.average))
+                .append("s, p50 ")
+                .append(String.valueOf(time.p50))
+                .append("s, p90 ")
+                .append(String.valueOf(time.p90))
+                .append("s, p99 ")
+                .append(String.valueOf(time.p99))
+                .append("s, max ")
+                .append(String.valueOf(time.max))
+                .append("s\n");
+    }
+
+    @Override
+    public void export(String filename, Stats stats) throws IOException {
+        try (BufferedWriter document = Files.newBufferedWriter(Path.of(filename))) {
+            addGeneralInfo(document, stats);
+            addResources(document, stats);
+            addResponseCodes(document, stats);
+            addResponseTimes(document, stats);
+            addClients(document, stats);
         }
     }
 }
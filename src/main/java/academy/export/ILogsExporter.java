@@ -1,9 +1,15 @@
 package academy.export;
 
 import academy.stats.Stats;
+import academy.stats.StatsCollector;
 import java.io.IOException;
 
 /** Export logs to file */
 public interface ILogsExporter {
     void export(String filename, Stats stats) throws IOException;
+
+    /** Exports everything collected so far, through {@link StatsCollector#getStats()} unless overridden */
+    default void export(String filename, StatsCollector collector) throws IOException {
+        export(filename, collector.getStats());
+    }
 }
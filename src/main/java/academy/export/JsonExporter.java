@@ -1,24 +1,50 @@
 package academy.export;
 
 import academy.stats.Stats;
+import academy.stats.StatsCollector;
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
 import java.nio.file.Path;
 
+/**
+ * Exports statistics as JSON, pretty-printed unless compact. Statistics of a collector are streamed through a
+ * {@link JsonGenerator} by {@link StatsCollector#writeJson(JsonGenerator)}, so long series and top lists are never
+ * copied into a {@link Stats} first; both paths write the same document.
+ */
 public class JsonExporter implements ILogsExporter {
     private final ObjectMapper mapper;
+    private final boolean compact;
 
     public JsonExporter() {
+        this(false);
+    }
+
+    /** @param compact whether the output is written without indentation and line breaks */
+    public JsonExporter(boolean compact) {
         mapper = new ObjectMapper();
         mapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
         mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        this.compact = compact;
     }
 
     @Override
     public void export(String filename, Stats stats) throws IOException {
-        mapper.writerWithDefaultPrettyPrinter().writeValue(Path.of(filename).toFile(), stats);
+        (compact ? mapper.writer() : mapper.writerWithDefaultPrettyPrinter())
+                .writeValue(Path.of(filename).toFile(), stats);
+    }
+
+    @Override
+    public void export(String filename, StatsCollector collector) throws IOException {
+        try (JsonGenerator generator = mapper.createGenerator(Path.of(filename).toFile(), JsonEncoding.UTF8)) {
+            if (!compact) {
+                generator.useDefaultPrettyPrinter();
+            }
+            collector.writeJson(generator);
+        }
     }
 }
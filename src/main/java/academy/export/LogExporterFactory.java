@@ -6,13 +6,18 @@ import java.util.Arrays;
 public class LogExporterFactory {
 
     public ILogsExporter createLogExporter(String formatString) {
+        return createLogExporter(formatString, false);
+    }
+
+    /** @param compact whether JSON is written without indentation, other formats ignore it */
+    public ILogsExporter createLogExporter(String formatString, boolean compact) {
         ExportFormat format = Arrays.stream(ExportFormat.values())
                 .filter(e -> e.getName().equalsIgnoreCase(formatString))
                 .findFirst()
                 .orElseThrow(() -> new IllegalArgumentException("Unknown format: " + formatString));
 
         return switch (format) {
-            case JSON -> new JsonExporter();
+            case JSON -> new JsonExporter(compact);
             case MARKDOWN -> new MarkdownExporter();
             case ADOC -> new AdocExporter();
         };
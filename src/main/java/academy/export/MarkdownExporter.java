@@ -1,94 +1,169 @@
 package academy.export;
 
+import academy.model.ClientData;
+import academy.model.ResourceData;
+import academy.model.ResourceResponseTime;
+import academy.model.ResponseCode;
+import academy.model.ResponseTimeInSeconds;
 import academy.stats.Stats;
 import java.io.BufferedWriter;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
-import org.commonmark.Extension;
-import org.commonmark.ext.gfm.tables.TablesExtension;
-import org.commonmark.node.*;
-import org.commonmark.parser.Parser;
-import org.commonmark.renderer.markdown.MarkdownRenderer;
 
+/**
+ * Writes a section of GitHub-flavored Markdown tables per statistic, row by row straight into the file.
+ *
+ * <p>Tables are written the way CommonMark renders them, without padding and with {@code :---} style alignment rows.
+ * Cell text is escaped like the renderer escapes plain text, plus {@code |}, so values are shown literally and cannot
+ * start markup or split a row.
+ */
 public class MarkdownExporter implements ILogsExporter {
+    /** Characters escaped with a backslash in cells */
+    private static final String ESCAPED = "\\`*_[]<>&|";
 
-    private final MarkdownRenderer renderer;
-    private final Parser parser;
-
-    public MarkdownExporter() {
-        List<Extension> extensions = List.of(TablesExtension.create());
-        renderer = MarkdownRenderer.builder().extensions(extensions).build();
-        parser = Parser.builder().extensions(extensions).build();
-    }
+    /** Header of time tables after the name column */
+    private static final String TIME_COLUMNS = "Count|Average|p50|p90|p99|Max|\n|:---|---:|---:|---:|---:|---:|---:|\n";
 
     @Override
     public void export(String filename, Stats stats) throws IOException {
-        Document document = new Document();
+        try (BufferedWriter writer = Files.newBufferedWriter(Path.of(filename))) {
+            writeGeneralInfo(writer, stats);
+            writeResources(writer, stats);
+            writeResponseCodes(writer, stats);
+            if (stats.getRequestTime() != null || stats.getUpstreamResponseTime() != null) {
+                writeResponseTimes(writer, stats);
+            }
+            if (stats.getResourceResponseTimes() != null
+                    && !stats.getResourceResponseTimes().isEmpty()) {
+                writeResourceResponseTimes(writer, stats);
+            }
+            if (stats.getClientsByRequests() != null) {
+                writeClients(writer, "Top Clients by Requests", stats.getClientsByRequests());
+                writeClients(writer, "Top Clients by Bytes", stats.getClientsByBytes());
+            }
+        }
+    }
+
+    /**
+     * Starts a section with its heading and table header, every section but the first is preceded by a blank line.
+     *
+     * @param header header and alignment rows of the table.
+     */
+    private void startSection(BufferedWriter writer, String title, String header, boolean first) throws IOException {
+        if (!first) {
+            writer.write('\n');
+        }
+        writer.write("#### ");
+        writer.write(title);
+        writer.write("\n\n");
+        writer.write(header);
+    }
 
-        addSection(document, "General Information", createGeneralInfoTable(stats));
-        addSection(document, "Requested Resources", createResourcesTable(stats));
-        addSection(document, "Response Codes", createResponseCodesTable(stats));
+    private void endSection(BufferedWriter writer) throws IOException {
+        writer.write('\n');
+    }
 
-        try (BufferedWriter writer = Files.newBufferedWriter(Path.of(filename))) {
-            writer.write(renderer.render(document));
+    private void writeRow(BufferedWriter writer, String... cells) throws IOException {
+        for (String cell : cells) {
+            writer.write('|');
+            writeEscaped(writer, cell);
         }
+        writer.write("|\n");
     }
 
-    private void addSection(Document document, String title, String table) {
-        Heading heading = new Heading();
-        heading.setLevel(4);
-        heading.appendChild(new Text(title));
-        document.appendChild(heading);
+    private void writeEscaped(BufferedWriter writer, String text) throws IOException {
+        int runStart = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (ESCAPED.indexOf(text.charAt(i)) >= 0) {
+                writer.write(text, runStart, i - runStart);
+                writer.write('\\');
+                runStart = i;
+            }
+        }
+        writer.write(text, runStart, text.length() - runStart);
+    }
 
-        document.appendChild(parser.parse(table));
-        document.appendChild(new Paragraph());
+    private void writeGeneralInfo(BufferedWriter writer, Stats stats) throws IOException {
+        startSection(writer, "General Information", "|Metric|Value|\n|:---|:---|\n", true);
+        writeRow(writer, "Files", String.join(", ", stats.getFiles()));
+        writeRow(writer, "Total Requests", String.valueOf(stats.getTotalRequestsCount()));
+        writeRow(writer, "Average Response Size", formatBytes(stats.getResponseSizeInBytes().average));
+        writeRow(writer, "95th Percentile Response Size", formatBytes(stats.getResponseSizeInBytes().p95));
+        writeRow(writer, "Max Response Size", formatBytes(stats.getResponseSizeInBytes().max));
+        if (stats.getUniqueClients() != null) {
+            writeRow(writer, "Unique Clients (estimate)", String.valueOf(stats.getUniqueClients()));
+        }
+        endSection(writer);
     }
 
-    private String createGeneralInfoTable(Stats stats) {
-        return """
-            | Metric                       | Value      |%n\
-            |:-----------------------------|:-----------|%n\
-            | Files                        | %s         |%n\
-            | Total Requests               | %d         |%n\
-            | Average Response Size        | %s         |%n\
-            | 95th Percentile Response Size| %s         |%n\
-            | Max Response Size            | %s         |%n\
-            """
-                .formatted(
-                        String.join(", ", stats.getFiles()),
-                        stats.getTotalRequestsCount(),
-                        formatBytes(stats.getResponseSizeInBytes().average),
-                        formatBytes(stats.getResponseSizeInBytes().p95),
-                        formatBytes(stats.getResponseSizeInBytes().max));
+    private void writeResources(BufferedWriter writer, Stats stats) throws IOException {
+        startSection(writer, "Requested Resources", "|Resource|Request Count|\n|:---|:---|\n", false);
+        for (ResourceData resource : stats.getResources()) {
+            writeRow(writer, resource.resource(), String.valueOf(resource.totalRequestsCount()));
+        }
+        endSection(writer);
     }
 
-    private String createResourcesTable(Stats stats) {
-        StringBuilder table = new StringBuilder(
-                """
-                | Resource | Request Count |
-                |:---------|:--------------|
-                """);
+    private void writeResponseCodes(BufferedWriter writer, Stats stats) throws IOException {
+        startSection(writer, "Response Codes", "|Code|Description|Count|\n|:---:|:---|---:|\n", false);
+        for (ResponseCode code : stats.getResponseCodes()) {
+            writeRow(
+                    writer,
+                    String.valueOf(code.code()),
+                    getHttpStatusDescription(code.code()),
+                    String.valueOf(code.totalResponsesCount()));
+        }
+        endSection(writer);
+    }
 
-        stats.getResources()
-                .forEach(r -> table.append("| %s | %d |%n".formatted(r.resource(), r.totalRequestsCount())));
+    private void writeClients(BufferedWriter writer, String title, List<ClientData> clients) throws IOException {
+        startSection(writer, title, "|Client|Requests|Bytes|\n|:---|---:|---:|\n", false);
+        for (ClientData client : clients) {
+            writeRow(
+                    writer,
+                    client.address(),
+                    String.valueOf(client.totalRequestsCount()),
+                    formatBytes(client.totalBytesSent()));
+        }
+        endSection(writer);
+    }
 
-        return table.toString();
+    private void writeResponseTimes(BufferedWriter writer, Stats stats) throws IOException {
+        startSection(writer, "Response Times", "|Time|" + TIME_COLUMNS, false);
+        if (stats.getRequestTime() != null) {
+            writeResponseTimeRow(writer, "Request Time", stats.getRequestTime());
+        }
+        if (stats.getUpstreamResponseTime() != null) {
+            writeResponseTimeRow(writer, "Upstream Response Time", stats.getUpstreamResponseTime());
+        }
+        endSection(writer);
     }
 
-    private String createResponseCodesTable(Stats stats) {
-        StringBuilder table = new StringBuilder(
-                """
-                | Code | Description | Count |
-                |:----:|:------------|------:|
-                """);
+    private void writeResourceResponseTimes(BufferedWriter writer, Stats stats) throws IOException {
+        startSection(writer, "Resource Response Times", "|Resource|" + TIME_COLUMNS, false);
+        for (ResourceResponseTime resource : stats.getResourceResponseTimes()) {
+            writeResponseTimeRow(writer, resource.resource(), resource.requestTime());
+        }
+        endSection(writer);
+    }
 
-        stats.getResponseCodes()
-                .forEach(c -> table.append("| %d | %s | %d |%n"
-                        .formatted(c.code(), getHttpStatusDescription(c.code()), c.totalResponsesCount())));
+    private void writeResponseTimeRow(BufferedWriter writer, String name, ResponseTimeInSeconds time)
+            throws IOException {
+        writeRow(
+                writer,
+                name,
+                String.valueOf(time.count),
+                formatSeconds(time.average),
+                formatSeconds(time.p50),
+                formatSeconds(time.p90),
+                formatSeconds(time.p99),
+                formatSeconds(time.max));
+    }
 
-        return table.toString();
+    private String formatSeconds(double seconds) {
+        return seconds < 1 ? String.format("%.0f ms", seconds * 1000) : String.format("%.3f s", seconds);
     }
 
     private String formatBytes(double bytes) {
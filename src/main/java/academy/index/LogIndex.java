@@ -0,0 +1,247 @@
+package academy.index;
+
+import academy.model.LogFields;
+import academy.stats.StatsCollector;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Columnar cache of the parsed fields of a log that the statistics use, built by {@link LogIndexWriter}.
+ *
+ * <p>Entries are stored in blocks of a single day, every block keeps its columns one after another: status, resource,
+ * protocol, host and client address ids into the dictionaries of the index, then response sizes, request times and
+ * upstream response times, and finally the instants in epoch seconds. The footer holds the dictionaries and the block
+ * index, so {@link #replay(StatsCollector)} reads only blocks of the days the collector accepts and never touches the
+ * raw log.
+ *
+ * <pre>
+ * header   magic, version, source size, source modification time, line format
+ * blocks   int[rows] statuses, int[rows] resources, int[rows] protocols, int[rows] hosts, int[rows] clients,
+ *          double[rows] sizes, double[rows] request times, double[rows] upstream response times,
+ *          long[rows] epoch seconds
+ * footer   resources, protocols, hosts, clients, statuses, (day, rows, offset) of every block
+ * trailer  footer offset, magic
+ * </pre>
+ */
+public class LogIndex {
+    private static final Logger LOGGER = LogManager.getLogger(LogIndex.class);
+
+    static final int MAGIC = 0x4E4C4958;
+    static final int VERSION = 5;
+    static final int HEADER_SIZE = 3 * Integer.BYTES + 2 * Long.BYTES;
+    static final int BLOCK_ROWS = 64 * 1024;
+    static final int ROW_SIZE = 5 * Integer.BYTES + 3 * Double.BYTES + Long.BYTES;
+    static final int NO_PROTOCOL = -1;
+    static final int NO_HOST = -1;
+    static final int NO_CLIENT = -1;
+
+    private static final int TRAILER_SIZE = Long.BYTES + Integer.BYTES;
+
+    /**
+     * Entries of a single day.
+     *
+     * @param epochDay day of all entries of the block.
+     * @param rows number of entries.
+     * @param offset position of the first column in the index file.
+     */
+    record Block(long epochDay, int rows, long offset) {}
+
+    private final Path file;
+    private final String[] resources;
+    private final String[] protocols;
+    private final String[] hosts;
+    private final String[] clients;
+    private final int[] statuses;
+    private final List<Block> blocks;
+
+    private LogIndex(
+            Path file,
+            String[] resources,
+            String[] protocols,
+            String[] hosts,
+            String[] clients,
+            int[] statuses,
+            List<Block> blocks) {
+        this.file = file;
+        this.resources = resources;
+        this.protocols = protocols;
+        this.hosts = hosts;
+        this.clients = clients;
+        this.statuses = statuses;
+        this.blocks = blocks;
+    }
+
+    /**
+     * Opens the index if it has been built from the current state of the log.
+     *
+     * @param file index file.
+     * @param sourceSize current size of the indexed log.
+     * @param sourceModified current modification time of the indexed log in milliseconds.
+     * @param lineFormat format the lines are parsed with, see {@link academy.ReaderOptions#getLineFormat()}.
+     * @return index, or nothing if it does not exist, is damaged, is older than the log or was built with another line
+     *     format.
+     */
+    public static Optional<LogIndex> open(Path file, long sourceSize, long sourceModified, String lineFormat) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE + TRAILER_SIZE) {
+                return Optional.empty();
+            }
+
+            ByteBuffer header = read(channel, 0, HEADER_SIZE);
+            if (header.getInt() != MAGIC
+                    || header.getInt() != VERSION
+                    || header.getLong() != sourceSize
+                    || header.getLong() != sourceModified) {
+                LOGGER.info("Index {} is outdated", file);
+                return Optional.empty();
+            }
+            byte[] expectedFormat = lineFormat.getBytes(StandardCharsets.UTF_8);
+            int formatLength = header.getInt();
+            if (formatLength != expectedFormat.length
+                    || formatLength > size - HEADER_SIZE
+                    || !read(channel, HEADER_SIZE, formatLength).equals(ByteBuffer.wrap(expectedFormat))) {
+                LOGGER.info("Index {} was built with another line format", file);
+                return Optional.empty();
+            }
+
+            ByteBuffer trailer = read(channel, size - TRAILER_SIZE, TRAILER_SIZE);
+            long footerOffset = trailer.getLong();
+            if (trailer.getInt() != MAGIC || footerOffset < HEADER_SIZE || footerOffset > size - TRAILER_SIZE) {
+                LOGGER.warn("Index {} is damaged", file);
+                return Optional.empty();
+            }
+
+            ByteBuffer footer = read(channel, footerOffset, (int) (size - TRAILER_SIZE - footerOffset));
+            String[] resources = readDictionary(footer);
+            String[] protocols = readDictionary(footer);
+            String[] hosts = readDictionary(footer);
+            String[] clients = readDictionary(footer);
+            int[] statuses = new int[footer.getInt()];
+            for (int i = 0; i < statuses.length; i++) {
+                statuses[i] = footer.getInt();
+            }
+
+            int blockCount = footer.getInt();
+            List<Block> blocks = new ArrayList<>(blockCount);
+            for (int i = 0; i < blockCount; i++) {
+                blocks.add(new Block(footer.getLong(), footer.getInt(), footer.getLong()));
+            }
+            return Optional.of(new LogIndex(file, resources, protocols, hosts, clients, statuses, blocks));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Index {} is unreadable - {}", file, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Collects all indexed entries of the days {@code target} accepts, blocks of other days are skipped unread.
+     *
+     * @return number of entries read.
+     */
+    public long replay(StatsCollector target) throws IOException {
+        long entries = 0;
+        int blocksRead = 0;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            for (Block block : blocks) {
+                LocalDate day = LocalDate.ofEpochDay(block.epochDay());
+                if (!target.isWithinRange(day)) {
+                    continue;
+                }
+
+                replayBlock(read(channel, block.offset(), block.rows() * ROW_SIZE), block.rows(), day, target);
+                entries += block.rows();
+                blocksRead++;
+            }
+        }
+
+        LOGGER.info("Read {} of {} blocks of {}", blocksRead, blocks.size(), file.getFileName());
+        return entries;
+    }
+
+    private void replayBlock(ByteBuffer columns, int rows, LocalDate day, StatsCollector target) {
+        int statusColumn = 0;
+        int resourceColumn = rows * Integer.BYTES;
+        int protocolColumn = 2 * rows * Integer.BYTES;
+        int hostColumn = 3 * rows * Integer.BYTES;
+        int clientColumn = 4 * rows * Integer.BYTES;
+        int sizeColumn = 5 * rows * Integer.BYTES;
+        int requestTimeColumn = sizeColumn + rows * Double.BYTES;
+        int upstreamTimeColumn = requestTimeColumn + rows * Double.BYTES;
+        int epochSecondColumn = upstreamTimeColumn + rows * Double.BYTES;
+
+        for (int i = 0; i < rows; i++) {
+            int protocol = columns.getInt(protocolColumn + i * Integer.BYTES);
+            int host = columns.getInt(hostColumn + i * Integer.BYTES);
+            int client = columns.getInt(clientColumn + i * Integer.BYTES);
+            target.collect(new LogFields(
+                    client == NO_CLIENT ? null : clients[client],
+                    null,
+                    day,
+                    null,
+                    statuses[columns.getInt(statusColumn + i * Integer.BYTES)],
+                    columns.getDouble(sizeColumn + i * Double.BYTES),
+                    null,
+                    null,
+                    resources[columns.getInt(resourceColumn + i * Integer.BYTES)],
+                    protocol == NO_PROTOCOL ? null : protocols[protocol],
+                    columns.getDouble(requestTimeColumn + i * Double.BYTES),
+                    columns.getDouble(upstreamTimeColumn + i * Double.BYTES),
+                    host == NO_HOST ? null : hosts[host],
+                    columns.getLong(epochSecondColumn + i * Long.BYTES)));
+        }
+    }
+
+    List<Block> getBlocks() {
+        return Collections.unmodifiableList(blocks);
+    }
+
+    /** @return modification time of the file in milliseconds, recorded in the index to detect changes */
+    public static long lastModified(Path file) throws IOException {
+        return Files.getLastModifiedTime(file).toMillis();
+    }
+
+    static void writeString(DataOutput output, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String[] readDictionary(ByteBuffer footer) {
+        String[] dictionary = new String[footer.getInt()];
+        for (int i = 0; i < dictionary.length; i++) {
+            byte[] bytes = new byte[footer.getInt()];
+            footer.get(bytes);
+            dictionary[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return dictionary;
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of index at " + (position + buffer.position()));
+            }
+        }
+        return buffer.flip();
+    }
+}
@@ -0,0 +1,190 @@
+package academy.index;
+
+import academy.model.LogFields;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a {@link LogIndex} while the log is being parsed. Entries are buffered until the day changes or the block is
+ * full, so memory is bounded by one block and the dictionaries, whatever the size of the log.
+ *
+ * <p>The index replaces {@code target} only after {@link #finish()}, a writer closed without it leaves no file behind.
+ */
+public class LogIndexWriter implements AutoCloseable {
+    private final Path target;
+    private final Path temporary;
+    private final DataOutputStream output;
+
+    private final Map<String, Integer> resourceIds = new HashMap<>();
+    private final Map<String, Integer> protocolIds = new HashMap<>();
+    private final Map<String, Integer> hostIds = new HashMap<>();
+    private final Map<String, Integer> clientIds = new HashMap<>();
+    private final Map<Integer, Integer> statusIds = new HashMap<>();
+    private final List<LogIndex.Block> blocks = new ArrayList<>();
+    private long position;
+    private boolean finished;
+
+    private LocalDate blockDay;
+    private int rows;
+    private final int[] statuses = new int[LogIndex.BLOCK_ROWS];
+    private final int[] resources = new int[LogIndex.BLOCK_ROWS];
+    private final int[] protocols = new int[LogIndex.BLOCK_ROWS];
+    private final int[] hosts = new int[LogIndex.BLOCK_ROWS];
+    private final int[] clients = new int[LogIndex.BLOCK_ROWS];
+    private final double[] sizes = new double[LogIndex.BLOCK_ROWS];
+    private final double[] requestTimes = new double[LogIndex.BLOCK_ROWS];
+    private final double[] upstreamTimes = new double[LogIndex.BLOCK_ROWS];
+    private final long[] epochSeconds = new long[LogIndex.BLOCK_ROWS];
+
+    /**
+     * @param target index file, replaced only by {@link #finish()}.
+     * @param sourceSize size of the indexed log.
+     * @param sourceModified last modification time of the indexed log in milliseconds.
+     * @param lineFormat format the lines are parsed with, an index is only opened with the same one.
+     */
+    public LogIndexWriter(Path target, long sourceSize, long sourceModified, String lineFormat) throws IOException {
+        this.target = target.toAbsolutePath();
+        temporary = this.target.resolveSibling(this.target.getFileName() + ".tmp");
+        output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)));
+
+        output.writeInt(LogIndex.MAGIC);
+        output.writeInt(LogIndex.VERSION);
+        output.writeLong(sourceSize);
+        output.writeLong(sourceModified);
+        LogIndex.writeString(output, lineFormat);
+        position = output.size();
+    }
+
+    /**
+     * Adds a parsed entry, entries without a date are never counted and are skipped.
+     *
+     * @throws UncheckedIOException if a full block cannot be written, so that the writer can be used as a consumer.
+     */
+    public void add(LogFields fields) {
+        LocalDate day = fields.timeLocal();
+        if (day == null) {
+            return;
+        }
+        if (!day.equals(blockDay) || rows == LogIndex.BLOCK_ROWS) {
+            try {
+                flushBlock();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            blockDay = day;
+        }
+
+        statuses[rows] = statusIds.computeIfAbsent(fields.status(), status -> statusIds.size());
+        resources[rows] = resourceIds.computeIfAbsent(fields.requestResource(), resource -> resourceIds.size());
+        protocols[rows] = fields.requestProtocol() == null
+                ? LogIndex.NO_PROTOCOL
+                : protocolIds.computeIfAbsent(fields.requestProtocol(), protocol -> protocolIds.size());
+        hosts[rows] = fields.host() == null
+                ? LogIndex.NO_HOST
+                : hostIds.computeIfAbsent(fields.host(), host -> hostIds.size());
+        clients[rows] = fields.remoteAddress() == null
+                ? LogIndex.NO_CLIENT
+                : clientIds.computeIfAbsent(fields.remoteAddress(), client -> clientIds.size());
+        sizes[rows] = fields.bodyBytesSent();
+        requestTimes[rows] = fields.requestTime();
+        upstreamTimes[rows] = fields.upstreamResponseTime();
+        epochSeconds[rows] = fields.epochSecond();
+        rows++;
+    }
+
+    private void flushBlock() throws IOException {
+        if (rows == 0) {
+            return;
+        }
+
+        blocks.add(new LogIndex.Block(blockDay.toEpochDay(), rows, position));
+        for (int i = 0; i < rows; i++) {
+            output.writeInt(statuses[i]);
+        }
+        for (int i = 0; i < rows; i++) {
+            output.writeInt(resources[i]);
+        }
+        for (int i = 0; i < rows; i++) {
+            output.writeInt(protocols[i]);
+        }
+        for (int i = 0; i < rows; i++) {
+            output.writeInt(hosts[i]);
+        }
+        for (int i = 0; i < rows; i++) {
+            output.writeInt(clients[i]);
+        }
+        for (int i = 0; i < rows; i++) {
+            output.writeDouble(sizes[i]);
+        }
+        for (int i = 0; i < rows; i++) {
+            output.writeDouble(requestTimes[i]);
+        }
+        for (int i = 0; i < rows; i++) {
+            output.writeDouble(upstreamTimes[i]);
+        }
+        for (int i = 0; i < rows; i++) {
+            output.writeLong(epochSeconds[i]);
+        }
+        position += (long) rows * LogIndex.ROW_SIZE;
+        rows = 0;
+    }
+
+    /** Writes the dictionaries and the block index and moves the finished index in place */
+    public void finish() throws IOException {
+        try (output) {
+            flushBlock();
+            long footer = position;
+
+            writeDictionary(resourceIds);
+            writeDictionary(protocolIds);
+            writeDictionary(hostIds);
+            writeDictionary(clientIds);
+            int[] statusDictionary = new int[statusIds.size()];
+            statusIds.forEach((status, id) -> statusDictionary[id] = status);
+            output.writeInt(statusDictionary.length);
+            for (int status : statusDictionary) {
+                output.writeInt(status);
+            }
+
+            output.writeInt(blocks.size());
+            for (LogIndex.Block block : blocks) {
+                output.writeLong(block.epochDay());
+                output.writeInt(block.rows());
+                output.writeLong(block.offset());
+            }
+
+            output.writeLong(footer);
+            output.writeInt(LogIndex.MAGIC);
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        finished = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!finished) {
+            output.close();
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private void writeDictionary(Map<String, Integer> ids) throws IOException {
+        String[] dictionary = new String[ids.size()];
+        ids.forEach((value, id) -> dictionary[id] = value);
+
+        output.writeInt(dictionary.length);
+        for (String value : dictionary) {
+            LogIndex.writeString(output, value);
+        }
+    }
+}
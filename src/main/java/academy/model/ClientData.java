@@ -0,0 +1,10 @@
+package academy.model;
+
+/**
+ * Information about a client
+ *
+ * @param address IP address of the client, {@code $remote_addr}
+ * @param totalRequestsCount total number of requests of the client
+ * @param totalBytesSent total size of the responses to the client in bytes
+ */
+public record ClientData(String address, long totalRequestsCount, long totalBytesSent) {}
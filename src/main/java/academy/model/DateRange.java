@@ -0,0 +1,31 @@
+package academy.model;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Inclusive range of dates selected by {@code --from} and {@code --to}
+ *
+ * @param from first selected date, {@link LocalDate#MIN} if there is no lower limit
+ * @param to last selected date, {@link LocalDate#MAX} if there is no upper limit
+ */
+public record DateRange(LocalDate from, LocalDate to) {
+    public static final DateRange ALL = new DateRange(LocalDate.MIN, LocalDate.MAX);
+
+    /**
+     * @param from lower limit or {@code null}
+     * @param to upper limit or {@code null}
+     */
+    public static DateRange of(LocalDate from, LocalDate to) {
+        return new DateRange(
+                Objects.requireNonNullElse(from, LocalDate.MIN), Objects.requireNonNullElse(to, LocalDate.MAX));
+    }
+
+    public boolean contains(LocalDate date) {
+        return !date.isBefore(from) && !date.isAfter(to);
+    }
+
+    public boolean isUnbounded() {
+        return from.equals(LocalDate.MIN) && to.equals(LocalDate.MAX);
+    }
+}
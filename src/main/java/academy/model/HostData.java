@@ -0,0 +1,9 @@
+package academy.model;
+
+/**
+ * Information about a virtual host
+ *
+ * @param host value of {@code $host}
+ * @param totalRequestsCount total number of requests to the host
+ */
+public record HostData(String host, int totalRequestsCount) {}
@@ -7,7 +7,8 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public enum ImportFormat {
     TEXT(".txt"),
-    LOG(".log");
+    LOG(".log"),
+    GZIP(".gz");
 
     private final String extension;
 }
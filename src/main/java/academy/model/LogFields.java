@@ -9,6 +9,10 @@ import org.jetbrains.annotations.Nullable;
  * <p>Corresponds to the template: {@code $remote_addr - $remote_user [$time_local] “$request” $status $body_bytes_sent
  * “$http_referer” “$http_user_agent”}
  *
+ * <p>Parsers that skip fields unused by the statistics leave the raw strings ({@code remoteAddress},
+ * {@code remoteUser}, {@code request}, {@code httpReferer}, {@code httpUserAgent}) {@code null}. Fields of custom
+ * {@code log_format} lines that are not in the line are {@link Double#NaN} or {@code null}.
+ *
  * @param remoteAddress Client IP address
  * @param remoteUser Username for authentication
  * @param timeLocal Request time in local server time
@@ -17,18 +21,89 @@ import org.jetbrains.annotations.Nullable;
  * @param bodyBytesSent Response body size in bytes
  * @param httpReferer Request source URL
  * @param httpUserAgent Client User-Agent
+ * @param requestResource Requested resource taken from the request
+ * @param requestProtocol Protocol taken from the request
+ * @param requestTime {@code $request_time} in seconds
+ * @param upstreamResponseTime {@code $upstream_response_time} in seconds, summed over all upstreams tried
+ * @param host {@code $host}, the virtual host of the request
+ * @param epochSecond instant of {@code $time_local} in seconds since the epoch, {@link #NO_EPOCH_SECOND} if the parser
+ *     did not keep it
  */
 public record LogFields(
-        String remoteAddress,
-        String remoteUser,
+        @Nullable String remoteAddress,
+        @Nullable String remoteUser,
         LocalDate timeLocal,
-        String request,
+        @Nullable String request,
         int status,
         double bodyBytesSent,
-        String httpReferer,
-        String httpUserAgent,
+        @Nullable String httpReferer,
+        @Nullable String httpUserAgent,
         String requestResource,
-        @Nullable String requestProtocol) {
+        @Nullable String requestProtocol,
+        double requestTime,
+        double upstreamResponseTime,
+        @Nullable String host,
+        long epochSecond) {
+
+    public static final long NO_EPOCH_SECOND = Long.MIN_VALUE;
+
+    public LogFields(
+            @Nullable String remoteAddress,
+            @Nullable String remoteUser,
+            LocalDate timeLocal,
+            @Nullable String request,
+            int status,
+            double bodyBytesSent,
+            @Nullable String httpReferer,
+            @Nullable String httpUserAgent,
+            String requestResource,
+            @Nullable String requestProtocol,
+            double requestTime,
+            double upstreamResponseTime,
+            @Nullable String host) {
+        this(
+                remoteAddress,
+                remoteUser,
+                timeLocal,
+                request,
+                status,
+                bodyBytesSent,
+                httpReferer,
+                httpUserAgent,
+                requestResource,
+                requestProtocol,
+                requestTime,
+                upstreamResponseTime,
+                host,
+                NO_EPOCH_SECOND);
+    }
+
+    public LogFields(
+            @Nullable String remoteAddress,
+            @Nullable String remoteUser,
+            LocalDate timeLocal,
+            @Nullable String request,
+            int status,
+            double bodyBytesSent,
+            @Nullable String httpReferer,
+            @Nullable String httpUserAgent,
+            String requestResource,
+            @Nullable String requestProtocol) {
+        this(
+                remoteAddress,
+                remoteUser,
+                timeLocal,
+                request,
+                status,
+                bodyBytesSent,
+                httpReferer,
+                httpUserAgent,
+                requestResource,
+                requestProtocol,
+                Double.NaN,
+                Double.NaN,
+                null);
+    }
 
     public LogFields(
             String remoteAddress,
@@ -39,6 +114,28 @@ public record LogFields(
             double bodyBytesSent,
             String httpReferer,
             String httpUserAgent) {
+        this(
+                remoteAddress,
+                remoteUser,
+                timeLocal,
+                request,
+                status,
+                bodyBytesSent,
+                httpReferer,
+                httpUserAgent,
+                NO_EPOCH_SECOND);
+    }
+
+    public LogFields(
+            String remoteAddress,
+            String remoteUser,
+            LocalDate timeLocal,
+            String request,
+            int status,
+            double bodyBytesSent,
+            String httpReferer,
+            String httpUserAgent,
+            long epochSecond) {
         this(
                 remoteAddress,
                 remoteUser,
@@ -49,7 +146,11 @@ public record LogFields(
                 httpReferer,
                 httpUserAgent,
                 getRequestResource(request),
-                getRequestProtocol(request));
+                getRequestProtocol(request),
+                Double.NaN,
+                Double.NaN,
+                null,
+                epochSecond);
     }
 
     private static String getRequestResource(String request) {
@@ -0,0 +1,13 @@
+package academy.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum ParserMode {
+    REGEX("regex"),
+    TOKENIZER("tokenizer");
+
+    private final String name;
+}
@@ -0,0 +1,21 @@
+package academy.model;
+
+import java.util.Arrays;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum PercentileMode {
+    EXACT("exact"),
+    APPROXIMATE("approx");
+
+    private final String name;
+
+    public static PercentileMode fromName(String name) {
+        return Arrays.stream(values())
+                .filter(mode -> mode.getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Invalid percentile mode: " + name));
+    }
+}
@@ -0,0 +1,21 @@
+package academy.model;
+
+import java.util.Arrays;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum ReaderMode {
+    SCANNER("scanner"),
+    MMAP("mmap");
+
+    private final String name;
+
+    public static ReaderMode fromName(String name) {
+        return Arrays.stream(values())
+                .filter(mode -> mode.getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Invalid reader: " + name));
+    }
+}
@@ -0,0 +1,21 @@
+package academy.model;
+
+import java.util.Arrays;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum ResourceCountMode {
+    EXACT("exact"),
+    APPROXIMATE("approx");
+
+    private final String name;
+
+    public static ResourceCountMode fromName(String name) {
+        return Arrays.stream(values())
+                .filter(mode -> mode.getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Invalid resource count mode: " + name));
+    }
+}
@@ -0,0 +1,9 @@
+package academy.model;
+
+/**
+ * Request times of a specific resource
+ *
+ * @param resource resource name
+ * @param requestTime statistics on {@code $request_time} of the requests to the resource
+ */
+public record ResourceResponseTime(String resource, ResponseTimeInSeconds requestTime) {}
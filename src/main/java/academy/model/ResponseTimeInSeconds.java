@@ -0,0 +1,22 @@
+package academy.model;
+
+/**
+ * Statistics on request processing times in seconds, of the requests whose log line has the time
+ *
+ * <p>Contains the following metrics:
+ *
+ * <ul>
+ *   <li><b>count</b> - number of requests with the time
+ *   <li><b>average</b> - average time
+ *   <li><b>p50</b>, <b>p90</b>, <b>p99</b> - percentiles of time, within 1% of the exact ones
+ *   <li><b>max</b> - maximum time
+ * </ul>
+ */
+public class ResponseTimeInSeconds {
+    public long count;
+    public double average;
+    public double p50;
+    public double p90;
+    public double p99;
+    public double max;
+}
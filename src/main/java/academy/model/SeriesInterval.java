@@ -0,0 +1,22 @@
+package academy.model;
+
+import java.util.Arrays;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum SeriesInterval {
+    MINUTE("minute", 60),
+    HOUR("hour", 3600);
+
+    private final String name;
+    private final int seconds;
+
+    public static SeriesInterval fromName(String name) {
+        return Arrays.stream(values())
+                .filter(interval -> interval.getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Invalid series interval: " + name));
+    }
+}
@@ -0,0 +1,23 @@
+package academy.model;
+
+/**
+ * Requests, response bytes and server errors per interval, over consecutive intervals from the first to the last one
+ * with a request; intervals without requests are zeros
+ *
+ * <p>Contains the following metrics:
+ *
+ * <ul>
+ *   <li><b>start</b> - start of the first interval, an ISO-8601 instant in UTC
+ *   <li><b>intervalSeconds</b> - length of an interval
+ *   <li><b>requests</b> - number of requests in every interval
+ *   <li><b>bytes</b> - total response size in bytes in every interval
+ *   <li><b>errors</b> - number of responses with a 5xx status in every interval
+ * </ul>
+ */
+public class ThroughputSeries {
+    public String start;
+    public int intervalSeconds;
+    public int[] requests;
+    public long[] bytes;
+    public int[] errors;
+}
@@ -0,0 +1,253 @@
+package academy.pipeline;
+
+import academy.model.LogFields;
+import academy.service.ILogParser;
+import academy.stats.StatsCollector;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Processes a stream of log lines in three stages connected by bounded queues of batches:
+ *
+ * <ol>
+ *   <li>the reader thread reads blocks of raw bytes, every block ends at a line end;
+ *   <li>parser workers split blocks into lines and parse them, every worker with its own parser;
+ *   <li>the calling thread adds the parsed fields to the collector.
+ * </ol>
+ *
+ * <p>A full queue blocks the stage in front of it, so only a few batches per worker are in memory at any time. Lines
+ * end with {@code \n}, {@code \r\n} or {@code \r}, as in {@link academy.service.ByteLineReader}. Entries are aggregated
+ * in no particular order. The statistics do not depend on it, except approximate resource counts once the distinct
+ * resources outgrow the sketch, see {@link academy.stats.StatsAggregate}.
+ */
+public class LogPipeline {
+    private static final int DEFAULT_BLOCK_SIZE = 256 * 1024;
+    private static final int BATCHES_PER_WORKER = 2;
+    private static final long POLL_INTERVAL_MILLIS = 100;
+
+    private static final RawBatch END_OF_RAW = new RawBatch(new byte[0], 0);
+    private static final List<LogFields> END_OF_PARSED = new ArrayList<>(0);
+
+    private final Supplier<ILogParser> parserFactory;
+    private final int workers;
+    private final int blockSize;
+
+    public LogPipeline(Supplier<ILogParser> parserFactory, int workers) {
+        this(parserFactory, workers, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * @param parserFactory creates a parser for every worker.
+     * @param workers number of parser workers, must be positive.
+     * @param blockSize size of raw batches in bytes, longer lines get larger batches.
+     */
+    public LogPipeline(Supplier<ILogParser> parserFactory, int workers, int blockSize) {
+        this.parserFactory = parserFactory;
+        this.workers = workers;
+        this.blockSize = blockSize;
+    }
+
+    /** Bytes {@code data[0, length)} holding complete lines */
+    private record RawBatch(byte[] data, int length) {}
+
+    /**
+     * Reads all lines of {@code input} and collects them into {@code target}. The first failure of any stage stops the
+     * others and is rethrown.
+     *
+     * @return counters of this run.
+     */
+    public PipelineMetrics process(InputStream input, StatsCollector target) throws IOException, InterruptedException {
+        int capacity = workers * BATCHES_PER_WORKER;
+        BlockingQueue<RawBatch> raw = new ArrayBlockingQueue<>(capacity);
+        BlockingQueue<List<LogFields>> parsed = new ArrayBlockingQueue<>(capacity);
+        PipelineMetrics metrics = new PipelineMetrics(capacity, capacity);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        long started = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(workers + 1);
+        try {
+            executor.execute(() -> runStage(failure, () -> read(input, raw, metrics)));
+            for (int i = 0; i < workers; i++) {
+                executor.execute(() -> runStage(failure, () -> parse(raw, parsed, metrics)));
+            }
+            aggregate(parsed, target, failure, metrics);
+        } finally {
+            executor.shutdownNow();
+            executor.close();
+        }
+        metrics.setElapsedNanos(System.nanoTime() - started);
+
+        return metrics;
+    }
+
+    @FunctionalInterface
+    private interface Stage {
+        void run() throws IOException, InterruptedException;
+    }
+
+    private static void runStage(AtomicReference<Throwable> failure, Stage stage) {
+        try {
+            stage.run();
+        } catch (InterruptedException e) {
+            // stopped because another stage failed
+            Thread.currentThread().interrupt();
+        } catch (Throwable e) {
+            failure.compareAndSet(null, e);
+        }
+    }
+
+    private void read(InputStream input, BlockingQueue<RawBatch> raw, PipelineMetrics metrics)
+            throws IOException, InterruptedException {
+        byte[] buffer = new byte[blockSize];
+        int filled = 0;
+        long busyStart = System.nanoTime();
+
+        while (true) {
+            int read = input.read(buffer, filled, buffer.length - filled);
+            boolean eof = read < 0;
+            if (!eof) {
+                filled += read;
+            }
+            if (!eof && filled < buffer.length) {
+                continue;
+            }
+
+            int cut = eof ? filled : lastLineEnd(buffer, filled);
+            if (cut == 0) {
+                if (eof) {
+                    break;
+                }
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                continue;
+            }
+
+            byte[] next = new byte[Math.max(blockSize, filled - cut)];
+            System.arraycopy(buffer, cut, next, 0, filled - cut);
+            metrics.getReader().recordBatch(cut, System.nanoTime() - busyStart);
+            put(raw, new RawBatch(buffer, cut), metrics.getReader(), metrics.getRawQueue());
+            busyStart = System.nanoTime();
+
+            buffer = next;
+            filled -= cut;
+            if (eof) {
+                break;
+            }
+        }
+
+        for (int i = 0; i < workers; i++) {
+            raw.put(END_OF_RAW);
+        }
+    }
+
+    /**
+     * @return position after the last line end in {@code buffer[0, filled)}, {@code 0} if there is none. A trailing
+     *     {@code \r} does not count, it may be the first half of {@code \r\n}.
+     */
+    private static int lastLineEnd(byte[] buffer, int filled) {
+        for (int i = filled - 1; i >= 0; i--) {
+            if (buffer[i] == '\n' || (buffer[i] == '\r' && i < filled - 1)) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    private void parse(BlockingQueue<RawBatch> raw, BlockingQueue<List<LogFields>> parsed, PipelineMetrics metrics)
+            throws InterruptedException {
+        ILogParser parser = parserFactory.get();
+
+        while (true) {
+            long waitStart = System.nanoTime();
+            RawBatch batch = raw.take();
+            long busyStart = System.nanoTime();
+            metrics.getParsers().recordBlocked(busyStart - waitStart);
+
+            if (batch == END_OF_RAW) {
+                parsed.put(END_OF_PARSED);
+                return;
+            }
+
+            byte[] data = batch.data();
+            List<LogFields> fields = new ArrayList<>();
+            int lines = 0;
+            int lineStart = 0;
+
+            for (int i = 0; i < batch.length(); i++) {
+                if (data[i] == '\n' || data[i] == '\r') {
+                    parser.tryProcessLine(data, lineStart, i).ifPresent(fields::add);
+                    lines++;
+                    if (data[i] == '\r' && i + 1 < batch.length() && data[i + 1] == '\n') {
+                        i++;
+                    }
+                    lineStart = i + 1;
+                }
+            }
+            if (lineStart < batch.length()) {
+                parser.tryProcessLine(data, lineStart, batch.length()).ifPresent(fields::add);
+                lines++;
+            }
+
+            metrics.getParsers().recordBatch(lines, System.nanoTime() - busyStart);
+            put(parsed, fields, metrics.getParsers(), metrics.getParsedQueue());
+        }
+    }
+
+    private void aggregate(
+            BlockingQueue<List<LogFields>> parsed,
+            StatsCollector target,
+            AtomicReference<Throwable> failure,
+            PipelineMetrics metrics)
+            throws IOException, InterruptedException {
+        int finishedWorkers = 0;
+
+        while (finishedWorkers < workers) {
+            long waitStart = System.nanoTime();
+            List<LogFields> batch = parsed.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            long busyStart = System.nanoTime();
+            metrics.getAggregator().recordBlocked(busyStart - waitStart);
+
+            rethrow(failure.get());
+            if (batch == null) {
+                continue;
+            }
+            if (batch == END_OF_PARSED) {
+                finishedWorkers++;
+                continue;
+            }
+
+            for (LogFields fields : batch) {
+                target.collect(fields);
+            }
+            metrics.getAggregator().recordBatch(batch.size(), System.nanoTime() - busyStart);
+        }
+    }
+
+    private static <T> void put(
+            BlockingQueue<T> queue, T batch, PipelineMetrics.Stage producer, PipelineMetrics.Queue queueMetrics)
+            throws InterruptedException {
+        long waitStart = System.nanoTime();
+        queue.put(batch);
+        producer.recordBlocked(System.nanoTime() - waitStart);
+        queueMetrics.recordDepth(queue.size());
+    }
+
+    private static void rethrow(Throwable failure) throws IOException {
+        switch (failure) {
+            case null -> {}
+            case IOException e -> throw e;
+            case RuntimeException e -> throw e;
+            case Error e -> throw e;
+            default -> throw new IOException(failure);
+        }
+    }
+}
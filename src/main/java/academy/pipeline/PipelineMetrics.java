@@ -0,0 +1,179 @@
+package academy.pipeline;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of a {@link LogPipeline} run. Every stage records how long it worked and how long it was blocked on its
+ * queues, every queue records its depth whenever a batch is put into it.
+ *
+ * <p>When the reader mostly waits for free space in the raw queue and that queue stays full, parsing is the bottleneck
+ * and the host is CPU-bound. When parsers mostly wait for input and the raw queue stays empty, the host is I/O-bound.
+ */
+public class PipelineMetrics {
+    private final Stage reader = new Stage("reader", "bytes");
+    private final Stage parsers = new Stage("parsers", "lines");
+    private final Stage aggregator = new Stage("aggregator", "entries");
+    private final Queue rawQueue;
+    private final Queue parsedQueue;
+    private final AtomicLong elapsedNanos = new AtomicLong();
+
+    PipelineMetrics(int rawCapacity, int parsedCapacity) {
+        rawQueue = new Queue("raw", rawCapacity);
+        parsedQueue = new Queue("parsed", parsedCapacity);
+    }
+
+    public Stage getReader() {
+        return reader;
+    }
+
+    public Stage getParsers() {
+        return parsers;
+    }
+
+    public Stage getAggregator() {
+        return aggregator;
+    }
+
+    public Queue getRawQueue() {
+        return rawQueue;
+    }
+
+    public Queue getParsedQueue() {
+        return parsedQueue;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos.get();
+    }
+
+    void setElapsedNanos(long nanos) {
+        elapsedNanos.set(nanos);
+    }
+
+    /** @return lines per second through the whole pipeline */
+    public double getThroughput() {
+        return perSecond(parsers.getItems(), getElapsedNanos());
+    }
+
+    @Override
+    public String toString() {
+        return "%.0f lines/s in %d ms; %s; %s; %s; %s; %s"
+                .formatted(
+                        getThroughput(),
+                        TimeUnit.NANOSECONDS.toMillis(getElapsedNanos()),
+                        reader,
+                        rawQueue,
+                        parsers,
+                        parsedQueue,
+                        aggregator);
+    }
+
+    private static double perSecond(long count, long nanos) {
+        return nanos == 0 ? 0 : count * 1e9 / nanos;
+    }
+
+    /** Work of one stage, summed over its threads */
+    public static class Stage {
+        private final String name;
+        private final String unit;
+        private final LongAdder items = new LongAdder();
+        private final LongAdder batches = new LongAdder();
+        private final LongAdder busyNanos = new LongAdder();
+        private final LongAdder blockedNanos = new LongAdder();
+
+        Stage(String name, String unit) {
+            this.name = name;
+            this.unit = unit;
+        }
+
+        void recordBatch(int batchItems, long batchBusyNanos) {
+            items.add(batchItems);
+            batches.increment();
+            busyNanos.add(batchBusyNanos);
+        }
+
+        void recordBlocked(long nanos) {
+            blockedNanos.add(nanos);
+        }
+
+        /** @return bytes read by the reader, lines parsed by the parsers or entries added by the aggregator */
+        public long getItems() {
+            return items.sum();
+        }
+
+        public long getBatches() {
+            return batches.sum();
+        }
+
+        /** @return time spent reading, parsing or aggregating */
+        public long getBusyNanos() {
+            return busyNanos.sum();
+        }
+
+        /** @return time spent waiting for input or for free space in the next queue */
+        public long getBlockedNanos() {
+            return blockedNanos.sum();
+        }
+
+        /** @return items per second of busy time, the throughput the stage could reach if it never waited */
+        public double getBusyThroughput() {
+            return perSecond(getItems(), getBusyNanos());
+        }
+
+        @Override
+        public String toString() {
+            return "%s: %d %s in %d batches, %.0f %s/s busy, %d ms busy, %d ms blocked"
+                    .formatted(
+                            name,
+                            getItems(),
+                            unit,
+                            getBatches(),
+                            getBusyThroughput(),
+                            unit,
+                            TimeUnit.NANOSECONDS.toMillis(getBusyNanos()),
+                            TimeUnit.NANOSECONDS.toMillis(getBlockedNanos()));
+        }
+    }
+
+    /** Depth of a bounded queue sampled on every put */
+    public static class Queue {
+        private final String name;
+        private final int capacity;
+        private final LongAdder samples = new LongAdder();
+        private final LongAdder depthSum = new LongAdder();
+        private final LongAccumulator maxDepth = new LongAccumulator(Math::max, 0);
+
+        Queue(String name, int capacity) {
+            this.name = name;
+            this.capacity = capacity;
+        }
+
+        void recordDepth(int depth) {
+            samples.increment();
+            depthSum.add(depth);
+            maxDepth.accumulate(depth);
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public double getAverageDepth() {
+            long count = samples.sum();
+            return count == 0 ? 0 : (double) depthSum.sum() / count;
+        }
+
+        public long getMaxDepth() {
+            return maxDepth.get();
+        }
+
+        @Override
+        public String toString() {
+            return "%s queue: average depth %.1f, max %d of %d"
+                    .formatted(name, getAverageDepth(), getMaxDepth(), capacity);
+        }
+    }
+}
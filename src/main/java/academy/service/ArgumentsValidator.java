@@ -1,17 +1,25 @@
 package academy.service;
 
-import static academy.model.ImportFormat.LOG;
-import static academy.model.ImportFormat.TEXT;
-
 import academy.model.ExportFormat;
+import academy.model.ImportFormat;
+import academy.model.ParserMode;
 import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.List;
 
 public class ArgumentsValidator {
+    /** Extension of a local file listing remote logs, one URL per line */
+    public static final String URL_MANIFEST_EXTENSION = ".urls";
+
     private static final GlobFileSearcher searcher = new GlobFileSearcher();
 
     private ArgumentsValidator() {}
@@ -20,13 +28,20 @@ public class ArgumentsValidator {
         return logFiles.stream()
                 .map(File::getName)
                 .map(String::toLowerCase)
-                .allMatch(logFile -> logFile.endsWith(TEXT.getExtension()) || logFile.endsWith(LOG.getExtension()));
+                .allMatch(logFile -> EnumSet.allOf(ImportFormat.class).stream()
+                        .map(ImportFormat::getExtension)
+                        .anyMatch(logFile::endsWith));
     }
 
     public static void validateOutput(String pathToOutputFile) {
+        validateOutput(pathToOutputFile, false);
+    }
+
+    /** @param overwrite whether an existing file may be replaced, incremental runs refresh the same report */
+    public static void validateOutput(String pathToOutputFile, boolean overwrite) {
         Path outputPath = Path.of(pathToOutputFile);
 
-        if (Files.exists(outputPath)) {
+        if (!overwrite && Files.exists(outputPath)) {
             throw new IllegalArgumentException("Output file already exists: " + pathToOutputFile);
         }
 
@@ -54,6 +69,60 @@ public class ArgumentsValidator {
         return files;
     }
 
+    /** @return {@code true} if the path or glob matches at least one file right now */
+    public static boolean matchesFiles(String pathToInputFile) {
+        return !searcher.searchFiles(pathToInputFile).isEmpty();
+    }
+
+    /** @return {@code true} if the path is a URL, a comma-separated list of URLs or a URL manifest */
+    public static boolean isRemotePath(String path) {
+        return path.startsWith("http") || path.endsWith(URL_MANIFEST_EXTENSION);
+    }
+
+    /**
+     * Resolves remote logs. The path is either a comma-separated list of URLs or a {@value #URL_MANIFEST_EXTENSION}
+     * file with one URL per line, blank lines and lines starting with {@code #} are skipped.
+     *
+     * @throws IllegalArgumentException if the manifest cannot be read, no URL is given or a URL is not http(s).
+     */
+    public static List<String> getValidUrls(String path) {
+        List<String> urls = readUrls(path).stream()
+                .map(String::strip)
+                .filter(url -> !url.isEmpty() && !url.startsWith("#"))
+                .toList();
+
+        if (urls.isEmpty()) {
+            throw new IllegalArgumentException("Invalid path: " + path);
+        }
+        urls.forEach(ArgumentsValidator::validateUrl);
+
+        return urls;
+    }
+
+    private static List<String> readUrls(String path) {
+        if (!path.endsWith(URL_MANIFEST_EXTENSION)) {
+            return Arrays.asList(path.split(","));
+        }
+
+        try {
+            return Files.readAllLines(Path.of(path), StandardCharsets.UTF_8);
+        } catch (IOException | UncheckedIOException e) {
+            throw new IllegalArgumentException("Failed to read URL manifest: " + path, e);
+        }
+    }
+
+    private static void validateUrl(String url) {
+        try {
+            URI uri = new URI(url);
+            String scheme = uri.getScheme();
+            if (uri.getHost() == null || !("http".equalsIgnoreCase(scheme) || "https".equalsIgnoreCase(scheme))) {
+                throw new IllegalArgumentException("Invalid URL: " + url);
+            }
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Invalid URL: " + url, e);
+        }
+    }
+
     public static void validateFormat(String exportFormatName) {
         if (EnumSet.allOf(ExportFormat.class).stream()
                 .map(ExportFormat::getName)
@@ -62,6 +131,63 @@ public class ArgumentsValidator {
         }
     }
 
+    public static void validateParserMode(String parserModeName) {
+        if (EnumSet.allOf(ParserMode.class).stream()
+                .map(ParserMode::getName)
+                .noneMatch(mode -> mode.equals(parserModeName))) {
+            throw new IllegalArgumentException("Invalid parser: " + parserModeName);
+        }
+    }
+
+    /** @throws IllegalArgumentException if the format cannot be compiled, see {@link LogFormat#compile(String)} */
+    public static void validateLogFormat(String format) {
+        LogFormat.compile(format);
+    }
+
+    public static void validateThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Number of threads must be positive: " + threads);
+        }
+    }
+
+    public static void validatePipelineWorkers(int workers) {
+        if (workers < 0) {
+            throw new IllegalArgumentException("Number of pipeline workers must not be negative: " + workers);
+        }
+    }
+
+    /** Creates the directory if it does not exist yet */
+    public static void validateIndexDirectory(String directory) {
+        Path path = Path.of(directory);
+
+        try {
+            Files.createDirectories(path);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot create index directory: " + directory, e);
+        }
+        if (!Files.isWritable(path)) {
+            throw new IllegalArgumentException("No write permission in index directory: " + directory);
+        }
+    }
+
+    public static void validateTopResources(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Number of top resources must be positive: " + count);
+        }
+    }
+
+    public static void validateResourceCountError(double error) {
+        if (!(error > 0 && error < 1)) {
+            throw new IllegalArgumentException("Resource count error must be between 0 and 1: " + error);
+        }
+    }
+
+    public static void validateFollowInterval(int seconds) {
+        if (seconds < 1) {
+            throw new IllegalArgumentException("Follow interval must be positive: " + seconds);
+        }
+    }
+
     public static void validateDates(LocalDate from, LocalDate to) {
         if (from == null || to == null) {
             return;
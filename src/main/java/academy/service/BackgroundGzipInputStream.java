@@ -0,0 +1,131 @@
+package academy.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Decompresses a gzip file on its own thread and hands the decompressed blocks to the reader through a bounded queue,
+ * so inflating overlaps with parsing while at most {@value #QUEUE_CAPACITY} blocks wait in memory.
+ */
+public class BackgroundGzipInputStream extends InputStream {
+    private static final int BLOCK_SIZE = 64 * 1024;
+    private static final int QUEUE_CAPACITY = 16;
+    private static final byte[] END_OF_STREAM = new byte[0];
+
+    private final BlockingQueue<byte[]> blocks = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread decompressor;
+    private volatile IOException failure;
+    private volatile boolean closed;
+
+    private byte[] block;
+    private int position;
+
+    public BackgroundGzipInputStream(Path file) {
+        this(file.getFileName().toString(), () -> Files.newInputStream(file));
+    }
+
+    /**
+     * @param name name of the compressed data in the thread name and errors.
+     * @param source opens the compressed data on the decompressor thread.
+     */
+    BackgroundGzipInputStream(String name, Callable<InputStream> source) {
+        decompressor = Thread.ofPlatform().daemon().name("gzip-" + name).start(() -> decompress(name, source));
+    }
+
+    /** @return {@code true} if the file starts with the gzip magic bytes, whatever its extension */
+    public static boolean isGzip(Path file) throws IOException {
+        try (InputStream input = Files.newInputStream(file)) {
+            byte[] magic = input.readNBytes(2);
+            return magic.length == 2 && (magic[0] & 0xff) == 0x1f && (magic[1] & 0xff) == 0x8b;
+        }
+    }
+
+    /** Any failure is handed to the reader, which always gets {@link #END_OF_STREAM} unless it has closed the stream */
+    private void decompress(String name, Callable<InputStream> source) {
+        try (InputStream input = new GZIPInputStream(source.call(), BLOCK_SIZE)) {
+            while (true) {
+                byte[] decompressed = new byte[BLOCK_SIZE];
+                int read = input.readNBytes(decompressed, 0, BLOCK_SIZE);
+                if (read == 0) {
+                    break;
+                }
+                blocks.put(read == BLOCK_SIZE ? decompressed : Arrays.copyOf(decompressed, read));
+            }
+        } catch (IOException e) {
+            failure = e;
+        } catch (InterruptedException e) {
+            // the reader closed the stream
+        } catch (Throwable e) {
+            failure = new IOException("Failed to decompress " + name + " - " + e, e);
+        } finally {
+            if (!closed) {
+                try {
+                    blocks.put(END_OF_STREAM);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    /** @return {@code false} at the end of the stream */
+    private boolean nextBlock() throws IOException {
+        if (block == END_OF_STREAM) {
+            return false;
+        }
+        if (block != null && position < block.length) {
+            return true;
+        }
+
+        try {
+            block = blocks.take();
+            position = 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for decompressed data");
+        }
+
+        if (block == END_OF_STREAM) {
+            if (failure != null) {
+                throw failure;
+            }
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        return nextBlock() ? block[position++] & 0xff : -1;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!nextBlock()) {
+            return -1;
+        }
+
+        int count = Math.min(length, block.length - position);
+        System.arraycopy(block, position, buffer, offset, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        decompressor.interrupt();
+        blocks.clear();
+    }
+}
@@ -0,0 +1,119 @@
+package academy.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/** Reads lines through positional reads, or from a stream, into a growable buffer */
+public class ByteLineReader implements ILineReader {
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    /** Fills {@code buffer[offset, offset + length)} like {@link InputStream#read(byte[], int, int)} */
+    @FunctionalInterface
+    private interface ByteSource {
+        int read(byte[] buffer, int offset, int length) throws IOException;
+    }
+
+    private byte[] buffer;
+
+    /** Bytes of the lines consumed by the last call, terminators included */
+    private long consumedBytes;
+
+    public ByteLineReader() {
+        this(DEFAULT_BUFFER_SIZE);
+    }
+
+    public ByteLineReader(int bufferSize) {
+        buffer = new byte[bufferSize];
+    }
+
+    @Override
+    public void readLines(FileChannel channel, long start, long end, LineConsumer consumer) throws IOException {
+        long[] readPosition = {start};
+        readLines(
+                (target, offset, length) -> {
+                    int read = channel.read(ByteBuffer.wrap(target, offset, length), readPosition[0]);
+                    readPosition[0] += Math.max(read, 0);
+                    return read;
+                },
+                end - start,
+                consumer);
+    }
+
+    /**
+     * Reads every line of the stream up to its end, the stream is not closed. {@link #getConsumedBytes()} tells how far
+     * the lines have been consumed, also when reading fails midway.
+     *
+     * @param consumer receives lines in stream order.
+     */
+    public void readLines(InputStream input, LineConsumer consumer) throws IOException {
+        readLines(input::read, Long.MAX_VALUE, consumer);
+    }
+
+    /** @return number of bytes of the lines passed to the consumer by the last call, terminators included */
+    public long getConsumedBytes() {
+        return consumedBytes;
+    }
+
+    /** Reads lines starting in the first {@code limit} bytes of the source, the last of them to its end */
+    private void readLines(ByteSource source, long limit, LineConsumer consumer) throws IOException {
+        consumedBytes = 0;
+        int lineStart = 0;
+        int scanPosition = 0;
+        int filled = 0;
+        boolean eof = false;
+
+        while (consumedBytes < limit) {
+            int terminator = findTerminator(scanPosition, filled);
+
+            // \r at the end of the buffer may be the first half of \r\n, so it waits for the next read
+            if (terminator >= 0 && (buffer[terminator] == '\n' || terminator + 1 < filled || eof)) {
+                int next = terminator + 1;
+                if (buffer[terminator] == '\r' && next < filled && buffer[next] == '\n') {
+                    next++;
+                }
+                consumer.accept(buffer, lineStart, terminator);
+                consumedBytes += next - lineStart;
+                lineStart = next;
+                scanPosition = next;
+                continue;
+            }
+
+            if (eof) {
+                if (lineStart < filled) {
+                    consumer.accept(buffer, lineStart, filled);
+                    consumedBytes += filled - lineStart;
+                }
+                return;
+            }
+
+            scanPosition = terminator >= 0 ? terminator : filled;
+            if (lineStart > 0) {
+                System.arraycopy(buffer, lineStart, buffer, 0, filled - lineStart);
+                filled -= lineStart;
+                scanPosition -= lineStart;
+                lineStart = 0;
+            } else if (filled == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+
+            int read = source.read(buffer, filled, buffer.length - filled);
+            if (read < 0) {
+                eof = true;
+            } else {
+                filled += read;
+            }
+        }
+    }
+
+    private int findTerminator(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer[i] == '\n' || buffer[i] == '\r') {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,70 @@
+package academy.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Bounded cache from UTF-8 byte sequences to their decoded strings, kept by every byte-level parser for the fields that
+ * repeat from line to line: resources and hosts.
+ *
+ * <p>A repeated value is returned as the same {@link String} instance, so a line does not allocate it, its hash is
+ * computed once, and the aggregates compare it by reference before comparing characters. The cache is direct-mapped: a
+ * sequence has a single slot chosen by its hash and replaces whatever the slot held, so memory is bounded by the number
+ * of slots and lookups never probe. Sequences longer than {@link #MAX_LENGTH}, mostly unique cache-busting URLs, are
+ * decoded without being cached.
+ *
+ * <p>Not thread-safe, parsers are created per thread.
+ */
+class ByteStringDictionary {
+    static final int DEFAULT_CAPACITY = 4096;
+    static final int MAX_LENGTH = 256;
+
+    private final byte[][] keys;
+    private final String[] values;
+    private final int mask;
+
+    ByteStringDictionary() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /** @param capacity number of slots, rounded up to a power of two */
+    ByteStringDictionary(int capacity) {
+        int slots = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        keys = new byte[slots][];
+        values = new String[slots];
+        mask = slots - 1;
+    }
+
+    /** @return string of the UTF-8 bytes {@code buffer[start, end)}, the same instance for a cached sequence */
+    String decode(byte[] buffer, int start, int end) {
+        int length = end - start;
+        if (length > MAX_LENGTH) {
+            return new String(buffer, start, length, StandardCharsets.UTF_8);
+        }
+
+        int hash = 1;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + buffer[i];
+        }
+        int slot = (hash ^ (hash >>> 16)) & mask;
+
+        byte[] key = keys[slot];
+        if (key != null && Arrays.equals(key, 0, key.length, buffer, start, end)) {
+            return values[slot];
+        }
+
+        String value = new String(buffer, start, length, StandardCharsets.UTF_8);
+        keys[slot] = Arrays.copyOfRange(buffer, start, end);
+        values[slot] = value;
+        return value;
+    }
+
+    /** @return number of cached sequences */
+    int size() {
+        int size = 0;
+        for (byte[] key : keys) {
+            size += key != null ? 1 : 0;
+        }
+        return size;
+    }
+}
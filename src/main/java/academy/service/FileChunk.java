@@ -0,0 +1,106 @@
+package academy.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Byte range {@code [start, end)} of a file that begins at a line start.
+ *
+ * @param start offset of the first line in the chunk
+ * @param end offset of the first line of the next chunk
+ */
+public record FileChunk(long start, long end) {
+    private static final int PROBE_SIZE = 8 * 1024;
+
+    /**
+     * Splits the file into at most {@code count} chunks of roughly equal size. Every boundary is moved forward to the
+     * byte after the next {@code \n}, so no line is shared between chunks.
+     *
+     * @param channel file to split.
+     * @param count desired number of chunks, must be positive.
+     * @return non-empty chunks in file order.
+     */
+    public static List<FileChunk> split(FileChannel channel, int count) throws IOException {
+        return split(channel, new FileChunk(0, channel.size()), count);
+    }
+
+    /**
+     * Splits a part of the file the same way as {@link #split(FileChannel, int)}.
+     *
+     * @param range part of the file to split, must begin at a line start and end at a line start or the end of file.
+     */
+    public static List<FileChunk> split(FileChannel channel, FileChunk range, int count) throws IOException {
+        long length = range.end() - range.start();
+        List<FileChunk> chunks = new ArrayList<>(count);
+
+        long start = range.start();
+        for (int i = 1; i <= count && start < range.end(); i++) {
+            long end = i == count
+                    ? range.end()
+                    : nextLineStart(channel, Math.max(start, range.start() + length / count * i), range.end());
+            if (end > start) {
+                chunks.add(new FileChunk(start, end));
+                start = end;
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * Finds the end of the last complete line, so that a line that is still being appended is not read half-written.
+     *
+     * @param start offset to search back to, a line start.
+     * @param end offset to search back from.
+     * @return offset after the last {@code \n} in {@code [start, end)}, or {@code start} if there is none.
+     */
+    public static long lastLineEnd(FileChannel channel, long start, long end) throws IOException {
+        ByteBuffer probe = ByteBuffer.allocate(PROBE_SIZE);
+        long offset = end;
+
+        while (offset > start) {
+            int length = (int) Math.min(PROBE_SIZE, offset - start);
+            probe.clear().limit(length);
+            while (probe.hasRemaining()) {
+                if (channel.read(probe, offset - length + probe.position()) < 0) {
+                    // the file has been truncated meanwhile
+                    return start;
+                }
+            }
+            for (int i = length - 1; i >= 0; i--) {
+                if (probe.get(i) == '\n') {
+                    return offset - length + i + 1;
+                }
+            }
+            offset -= length;
+        }
+        return start;
+    }
+
+    /** @return {@code position} if it is a line start, otherwise the offset after the next {@code \n} */
+    static long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+        if (position == 0) {
+            return 0;
+        }
+
+        ByteBuffer probe = ByteBuffer.allocate(PROBE_SIZE);
+        long offset = position - 1;
+
+        while (offset < size) {
+            probe.clear();
+            int read = channel.read(probe, offset);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return offset + i + 1;
+                }
+            }
+            offset += read;
+        }
+        return size;
+    }
+}
@@ -0,0 +1,125 @@
+package academy.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads a body published by {@link java.net.http.HttpResponse.BodyHandlers#ofPublisher()} as an {@link InputStream}. At
+ * most {@value #PREFETCH} chunks are requested ahead of the reader, so a slow parser slows the download down instead of
+ * buffering the whole body. A read fails with {@link HttpTimeoutException} if no chunk arrives within the idle timeout,
+ * so a stalled connection is retried instead of blocking forever.
+ */
+public class HttpBodyInputStream extends InputStream implements Flow.Subscriber<List<ByteBuffer>> {
+    private static final int PREFETCH = 16;
+    private static final List<ByteBuffer> END_OF_BODY = List.of();
+
+    private final Duration idleTimeout;
+    private final BlockingQueue<List<ByteBuffer>> chunks = new ArrayBlockingQueue<>(PREFETCH + 1);
+    private final Queue<ByteBuffer> current = new ArrayDeque<>();
+    private volatile Flow.Subscription subscription;
+    private volatile Throwable failure;
+    private boolean finished;
+
+    public HttpBodyInputStream(Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(PREFETCH);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> item) {
+        chunks.add(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        failure = throwable;
+        chunks.add(END_OF_BODY);
+    }
+
+    @Override
+    public void onComplete() {
+        chunks.add(END_OF_BODY);
+    }
+
+    /** @return buffer with remaining bytes, {@code null} at the end of the body */
+    private ByteBuffer nextBuffer() throws IOException {
+        while (!finished) {
+            ByteBuffer buffer = current.peek();
+            if (buffer != null && buffer.hasRemaining()) {
+                return buffer;
+            }
+            if (buffer != null) {
+                current.poll();
+                continue;
+            }
+
+            List<ByteBuffer> chunk;
+            try {
+                chunk = chunks.poll(idleTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the response body");
+            }
+
+            if (chunk == null) {
+                throw new HttpTimeoutException("No data received for " + idleTimeout.toMillis() + " ms");
+            }
+            if (chunk == END_OF_BODY) {
+                finished = true;
+                if (failure != null) {
+                    throw failure instanceof IOException e ? e : new IOException(failure);
+                }
+                return null;
+            }
+            current.addAll(chunk);
+            subscription.request(1);
+        }
+        return null;
+    }
+
+    @Override
+    public int read() throws IOException {
+        ByteBuffer buffer = nextBuffer();
+        return buffer == null ? -1 : buffer.get() & 0xff;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        ByteBuffer buffer = nextBuffer();
+        if (buffer == null) {
+            return -1;
+        }
+
+        int count = Math.min(length, buffer.remaining());
+        buffer.get(bytes, offset, count);
+        return count;
+    }
+
+    @Override
+    public void close() {
+        Flow.Subscription active = subscription;
+        if (active != null) {
+            active.cancel();
+        }
+        finished = true;
+    }
+}
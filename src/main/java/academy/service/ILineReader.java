@@ -0,0 +1,30 @@
+package academy.service;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+
+/**
+ * Splits a byte range of a file into lines and hands them to a {@link LineConsumer} as byte slices, without decoding
+ * them into strings.
+ *
+ * <p>Lines are terminated by {@code \n}, {@code \r\n} or {@code \r}, the terminators are not passed to the consumer.
+ * Unlike {@link java.util.Scanner}, Unicode line separators are not treated as line breaks, nginx escapes them anyway.
+ */
+public interface ILineReader {
+    /** Receives a line stored in {@code buffer[start, end)}, the buffer is reused after the call returns */
+    @FunctionalInterface
+    interface LineConsumer {
+        void accept(byte[] buffer, int start, int end);
+    }
+
+    /**
+     * Reads every line starting in {@code [start, end)}. The last of them is read to its end even if it crosses
+     * {@code end}, so adjacent ranges produce each line exactly once.
+     *
+     * @param channel file to read, only positional access is used so the channel can be shared between threads.
+     * @param start offset of the first line, must be a line start.
+     * @param end offset of the range end.
+     * @param consumer receives lines in file order.
+     */
+    void readLines(FileChannel channel, long start, long end, LineConsumer consumer) throws IOException;
+}
@@ -0,0 +1,26 @@
+package academy.service;
+
+import academy.model.LogFields;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/** Parse a single log file line into {@link LogFields} */
+public interface ILogParser {
+    /**
+     * Attempts to parse a line from the log file.
+     *
+     * @param line A line from the log file.
+     * @return Optional with fields according to the template, or empty if parsing according to the template failed.
+     */
+    Optional<LogFields> tryProcessLine(String line);
+
+    /**
+     * Attempts to parse a line stored in {@code buffer[start, end)} as UTF-8 bytes, without line terminators.
+     *
+     * <p>The default implementation decodes the bytes into a {@link String}; byte-level parsers override it to avoid
+     * the intermediate copy.
+     */
+    default Optional<LogFields> tryProcessLine(byte[] buffer, int start, int end) {
+        return tryProcessLine(new String(buffer, start, end - start, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,163 @@
+package academy.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * nginx {@code log_format} string compiled once into the literals around its variables, which is all
+ * {@link LogFormatParser} needs to split a line: every variable ends where the literal that follows it begins.
+ *
+ * <p>Variables are written as {@code $name} or {@code ${name}}. Variables the statistics do not use are validated to be
+ * present and skipped. Two variables must be separated by a literal, otherwise their boundary is ambiguous.
+ */
+public final class LogFormat {
+    /** The predefined {@code combined} format of nginx */
+    public static final String COMBINED =
+            "$remote_addr - $remote_user [$time_local] \"$request\" $status $body_bytes_sent \"$http_referer\" \"$http_user_agent\"";
+
+    private static final Set<Variable> REQUIRED = EnumSet.of(Variable.TIME_LOCAL, Variable.REQUEST, Variable.STATUS);
+
+    /** Variables with a meaning for the parser, any other variable is {@link #OTHER} */
+    @Getter
+    @RequiredArgsConstructor
+    enum Variable {
+        REMOTE_ADDR("remote_addr"),
+        REMOTE_USER("remote_user"),
+        TIME_LOCAL("time_local"),
+        REQUEST("request"),
+        STATUS("status"),
+        BODY_BYTES_SENT("body_bytes_sent"),
+        REQUEST_TIME("request_time"),
+        UPSTREAM_RESPONSE_TIME("upstream_response_time"),
+        HOST("host"),
+        OTHER(null);
+
+        private final @Nullable String name;
+
+        static Variable fromName(String name) {
+            return Arrays.stream(values())
+                    .filter(variable -> name.equals(variable.getName()))
+                    .findFirst()
+                    .orElse(OTHER);
+        }
+    }
+
+    private final String source;
+    private final byte[] prefix;
+    private final Variable[] variables;
+    private final byte[][] suffixes;
+
+    private LogFormat(String source, byte[] prefix, Variable[] variables, byte[][] suffixes) {
+        this.source = source;
+        this.prefix = prefix;
+        this.variables = variables;
+        this.suffixes = suffixes;
+    }
+
+    /**
+     * @param format value of a {@code log_format} directive without its name, or {@code combined}.
+     * @throws IllegalArgumentException if the format lacks {@code $time_local}, {@code $request} or {@code $status}, or
+     *     two variables are not separated by a literal.
+     */
+    public static LogFormat compile(String format) {
+        if (format.equals("combined")) {
+            format = COMBINED;
+        }
+
+        StringBuilder literal = new StringBuilder();
+        String prefix = null;
+        List<Variable> variables = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        List<String> suffixes = new ArrayList<>();
+
+        int pos = 0;
+        while (pos < format.length()) {
+            int nameEnd = variableEnd(format, pos);
+            if (nameEnd < 0) {
+                literal.append(format.charAt(pos++));
+                continue;
+            }
+
+            String name = format.charAt(pos + 1) == '{'
+                    ? format.substring(pos + 2, nameEnd - 1)
+                    : format.substring(pos + 1, nameEnd);
+            if (prefix == null) {
+                prefix = literal.toString();
+            } else if (literal.isEmpty()) {
+                throw new IllegalArgumentException("Variables $%s and $%s of log format must be separated by a literal"
+                        .formatted(names.getLast(), name));
+            } else {
+                suffixes.add(literal.toString());
+            }
+            literal.setLength(0);
+            variables.add(Variable.fromName(name));
+            names.add(name);
+            pos = nameEnd;
+        }
+        suffixes.add(literal.toString());
+
+        for (Variable required : REQUIRED) {
+            if (!variables.contains(required)) {
+                throw new IllegalArgumentException("Log format must contain $" + required.getName() + ": " + format);
+            }
+        }
+
+        return new LogFormat(
+                format,
+                prefix.getBytes(StandardCharsets.UTF_8),
+                variables.toArray(Variable[]::new),
+                suffixes.stream().map(s -> s.getBytes(StandardCharsets.UTF_8)).toArray(byte[][]::new));
+    }
+
+    /** @return end of the variable starting at {@code pos}, or {@code -1} if there is no variable */
+    private static int variableEnd(String format, int pos) {
+        if (format.charAt(pos) != '$' || pos + 1 == format.length()) {
+            return -1;
+        }
+        if (format.charAt(pos + 1) == '{') {
+            int close = format.indexOf('}', pos + 2);
+            return close > pos + 2 ? close + 1 : -1;
+        }
+
+        int end = pos + 1;
+        while (end < format.length() && isNameChar(format.charAt(end))) {
+            end++;
+        }
+        return end > pos + 1 ? end : -1;
+    }
+
+    private static boolean isNameChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    /** Literal before the first variable */
+    byte[] prefix() {
+        return prefix;
+    }
+
+    Variable[] variables() {
+        return variables;
+    }
+
+    /** {@code suffixes()[i]} is the literal after variable {@code i}, only the last one may be empty */
+    byte[][] suffixes() {
+        return suffixes;
+    }
+
+    /** @return whether the format contains the variable */
+    boolean contains(Variable variable) {
+        return Arrays.asList(variables).contains(variable);
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+}
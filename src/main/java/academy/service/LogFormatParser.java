@@ -0,0 +1,318 @@
+package academy.service;
+
+import academy.model.DateRange;
+import academy.model.LogFields;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Optional;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Parser of lines written with a custom {@link LogFormat}. Walks the UTF-8 bytes of a line once, finding every variable
+ * by the literal that follows it, and materializes only the fields used by the statistics, like
+ * {@link NginxLogTokenizer}: the resource and protocol of {@code $request}, the values of the variables below and, if
+ * asked for, {@code $remote_addr}.
+ *
+ * <p>Variables are validated the way nginx writes them: {@code $remote_addr} and {@code $remote_user} are single
+ * tokens, so IPv6 clients are accepted, {@code $status} has three digits, sizes are whole numbers and
+ * {@code $request_time} is a decimal number of seconds. {@code $upstream_response_time} may list several upstreams
+ * separated by {@code ,} or {@code :}, their times are summed, and {@code -} means no upstream was contacted.
+ */
+public class LogFormatParser implements ILogParser {
+    private static final Logger LOGGER = LogManager.getLogger(LogFormatParser.class);
+
+    private static final int NOT_FOUND = -1;
+
+    /** Decimals with more digits may lose precision when accumulated in a {@code long} */
+    private static final int MAX_FAST_DIGITS = 15;
+
+    private static final double[] POWERS_OF_TEN = {
+        1, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+    };
+
+    private final byte[] prefix;
+    private final LogFormat.Variable[] variables;
+    private final byte[][] suffixes;
+    private final DateRange dateRange;
+    private final boolean remoteAddresses;
+    private final TimestampDecoder timestampDecoder = new TimestampDecoder();
+    private final ByteStringDictionary resources = new ByteStringDictionary();
+    private final ByteStringDictionary hosts = new ByteStringDictionary(256);
+    private final ByteStringDictionary addresses = new ByteStringDictionary();
+
+    public LogFormatParser(LogFormat format) {
+        this(format, DateRange.ALL);
+    }
+
+    /** @param dateRange dates of lines to parse, lines of other dates are rejected as soon as the date is found */
+    public LogFormatParser(LogFormat format, DateRange dateRange) {
+        this(format, dateRange, false);
+    }
+
+    /**
+     * @param dateRange dates of lines to parse.
+     * @param remoteAddresses whether {@code $remote_addr} is decoded into {@link LogFields#remoteAddress()}.
+     */
+    public LogFormatParser(LogFormat format, DateRange dateRange, boolean remoteAddresses) {
+        this.prefix = format.prefix();
+        this.variables = format.variables();
+        this.suffixes = format.suffixes();
+        this.dateRange = dateRange;
+        this.remoteAddresses = remoteAddresses;
+    }
+
+    @Override
+    public Optional<LogFields> tryProcessLine(String line) {
+        if (line == null) {
+            LOGGER.warn("Failed to parse line: {}", line);
+            return Optional.empty();
+        }
+
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        return tryProcessLine(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public Optional<LogFields> tryProcessLine(byte[] buffer, int start, int end) {
+        if (NginxLogTokenizer.isTrimmedEmpty(buffer, start, end)) {
+            LOGGER.warn("Failed to parse line: {}", new String(buffer, start, end - start, StandardCharsets.UTF_8));
+            return Optional.empty();
+        }
+
+        int pos = expect(buffer, start, end, prefix);
+        LocalDate date = null;
+        int timeStart = NOT_FOUND;
+        int timeEnd = NOT_FOUND;
+        int requestStart = NOT_FOUND;
+        int requestEnd = NOT_FOUND;
+        int status = NOT_FOUND;
+        double bodyBytesSent = 0;
+        double requestTime = Double.NaN;
+        double upstreamResponseTime = Double.NaN;
+        String host = null;
+        String remoteAddress = null;
+
+        for (int i = 0; i < variables.length && pos != NOT_FOUND; i++) {
+            byte[] suffix = suffixes[i];
+            int valueEnd =
+                    i == variables.length - 1 ? lastValueEnd(buffer, pos, end, suffix) : find(buffer, pos, end, suffix);
+            if (valueEnd == NOT_FOUND) {
+                return Optional.empty();
+            }
+
+            boolean valid =
+                    switch (variables[i]) {
+                        case REMOTE_ADDR -> {
+                            if (remoteAddresses) {
+                                remoteAddress = addresses.decode(buffer, pos, valueEnd);
+                            }
+                            yield isToken(buffer, pos, valueEnd);
+                        }
+                        case REMOTE_USER -> isToken(buffer, pos, valueEnd);
+                        case TIME_LOCAL -> {
+                            timeStart = pos;
+                            timeEnd = valueEnd;
+                            date = dateRange.isUnbounded() ? null : timestampDecoder.tryDecode(buffer, pos, valueEnd);
+                            yield valueEnd > pos;
+                        }
+                        case REQUEST -> {
+                            requestStart = pos;
+                            requestEnd = valueEnd;
+                            yield valueEnd > pos;
+                        }
+                        case STATUS -> {
+                            status = parseStatus(buffer, pos, valueEnd);
+                            yield status != NOT_FOUND;
+                        }
+                        case BODY_BYTES_SENT -> {
+                            bodyBytesSent = isDigits(buffer, pos, valueEnd)
+                                    ? NginxLogTokenizer.parseSize(buffer, pos, valueEnd)
+                                    : Double.NaN;
+                            yield !Double.isNaN(bodyBytesSent);
+                        }
+                        case REQUEST_TIME -> {
+                            requestTime =
+                                    isDash(buffer, pos, valueEnd) ? Double.NaN : parseDecimal(buffer, pos, valueEnd);
+                            yield requestTime != NOT_FOUND;
+                        }
+                        case UPSTREAM_RESPONSE_TIME -> {
+                            upstreamResponseTime = parseUpstreamTimes(buffer, pos, valueEnd);
+                            yield upstreamResponseTime != NOT_FOUND;
+                        }
+                        case HOST -> {
+                            host = decodeHost(buffer, pos, valueEnd);
+                            yield true;
+                        }
+                        case OTHER -> true;
+                    };
+            if (!valid || (date != null && !dateRange.contains(date))) {
+                return Optional.empty();
+            }
+            pos = valueEnd + suffix.length;
+        }
+        if (pos != end) {
+            return Optional.empty();
+        }
+
+        if (date == null) {
+            date = timestampDecoder.decode(buffer, timeStart, timeEnd);
+        }
+        RequestTarget target = RequestTarget.parse(buffer, requestStart, requestEnd, resources);
+        return Optional.of(new LogFields(
+                remoteAddress,
+                null,
+                date,
+                null,
+                status,
+                bodyBytesSent,
+                null,
+                null,
+                target.resource(),
+                target.protocol(),
+                requestTime,
+                upstreamResponseTime,
+                host,
+                timestampDecoder.getEpochSecond()));
+    }
+
+    /** The last variable takes the rest of the line up to the closing literal */
+    private static int lastValueEnd(byte[] buffer, int pos, int end, byte[] suffix) {
+        int valueEnd = end - suffix.length;
+        return valueEnd >= pos && expect(buffer, valueEnd, end, suffix) == end ? valueEnd : NOT_FOUND;
+    }
+
+    /**
+     * Checks {@code buffer[pos, end)} starts with the literal.
+     *
+     * @return position right after the literal or {@link #NOT_FOUND}.
+     */
+    private static int expect(byte[] buffer, int pos, int end, byte[] literal) {
+        if (end - pos < literal.length) {
+            return NOT_FOUND;
+        }
+        return Arrays.equals(buffer, pos, pos + literal.length, literal, 0, literal.length)
+                ? pos + literal.length
+                : NOT_FOUND;
+    }
+
+    /** @return position of the first occurrence of the non-empty literal in {@code buffer[pos, end)} */
+    private static int find(byte[] buffer, int pos, int end, byte[] literal) {
+        byte first = literal[0];
+        for (int i = pos; i <= end - literal.length; i++) {
+            if (buffer[i] == first && expect(buffer, i, end, literal) != NOT_FOUND) {
+                return i;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    private static boolean isToken(byte[] buffer, int start, int end) {
+        if (end == start) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (NginxLogTokenizer.isWhitespace(buffer[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigits(byte[] buffer, int start, int end) {
+        if (end == start) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (!NginxLogTokenizer.isDigit(buffer[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDash(byte[] buffer, int start, int end) {
+        return end - start == 1 && buffer[start] == '-';
+    }
+
+    private static int parseStatus(byte[] buffer, int start, int end) {
+        if (end - start != 3 || !isDigits(buffer, start, end)) {
+            return NOT_FOUND;
+        }
+        return (buffer[start] - '0') * 100 + (buffer[start + 1] - '0') * 10 + (buffer[start + 2] - '0');
+    }
+
+    /**
+     * Parses {@code digits[.digits]}. Both parts fit into a {@code double} exactly, so their quotient is rounded once
+     * and equals {@link Double#parseDouble(String)}.
+     *
+     * @return value, or {@link #NOT_FOUND} if it is not a decimal number.
+     */
+    static double parseDecimal(byte[] buffer, int start, int end) {
+        long digits = 0;
+        int digitCount = 0;
+        int fractionDigits = 0;
+        boolean point = false;
+
+        for (int i = start; i < end; i++) {
+            byte b = buffer[i];
+            if (b == '.' && !point && i > start && i < end - 1) {
+                point = true;
+            } else if (NginxLogTokenizer.isDigit(b)) {
+                digits = digits * 10 + (b - '0');
+                digitCount++;
+                fractionDigits += point ? 1 : 0;
+            } else {
+                return NOT_FOUND;
+            }
+        }
+        if (digitCount == 0) {
+            return NOT_FOUND;
+        }
+        if (digitCount > MAX_FAST_DIGITS) {
+            return Double.parseDouble(new String(buffer, start, end - start, StandardCharsets.US_ASCII));
+        }
+        return digits / POWERS_OF_TEN[fractionDigits];
+    }
+
+    /**
+     * @return sum of the times of all upstreams, {@link Double#NaN} if no upstream answered, {@link #NOT_FOUND} if the
+     *     value is malformed.
+     */
+    private static double parseUpstreamTimes(byte[] buffer, int start, int end) {
+        double sum = Double.NaN;
+        int itemStart = start;
+
+        for (int i = start; i <= end; i++) {
+            if (i == end || buffer[i] == ',' || buffer[i] == ':') {
+                int from = itemStart;
+                int to = i;
+                while (from < to && buffer[from] == ' ') {
+                    from++;
+                }
+                while (to > from && buffer[to - 1] == ' ') {
+                    to--;
+                }
+
+                if (!isDash(buffer, from, to)) {
+                    double time = parseDecimal(buffer, from, to);
+                    if (time == NOT_FOUND) {
+                        return NOT_FOUND;
+                    }
+                    sum = Double.isNaN(sum) ? time : sum + time;
+                }
+                itemStart = i + 1;
+            }
+        }
+        return sum;
+    }
+
+    private @Nullable String decodeHost(byte[] buffer, int start, int end) {
+        if (isDash(buffer, start, end) || end == start) {
+            return null;
+        }
+        return hosts.decode(buffer, start, end);
+    }
+}
@@ -0,0 +1,46 @@
+package academy.service;
+
+import academy.model.DateRange;
+import academy.model.ParserMode;
+import java.util.Arrays;
+
+public class LogParserFactory {
+    private final boolean remoteAddresses;
+
+    public LogParserFactory() {
+        this(false);
+    }
+
+    /**
+     * @param remoteAddresses whether byte-level parsers decode {@code $remote_addr}, which they skip by default; the
+     *     regex parser always does.
+     */
+    public LogParserFactory(boolean remoteAddresses) {
+        this.remoteAddresses = remoteAddresses;
+    }
+
+    public ILogParser createLogParser(String modeString) {
+        return createLogParser(modeString, DateRange.ALL);
+    }
+
+    /** @param dateRange dates of lines to parse, lines of other dates are rejected as early as the parser can */
+    public ILogParser createLogParser(String modeString, DateRange dateRange) {
+        ParserMode mode = Arrays.stream(ParserMode.values())
+                .filter(e -> e.getName().equalsIgnoreCase(modeString))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown parser: " + modeString));
+
+        return switch (mode) {
+            case REGEX -> new NginxLogParser(dateRange);
+            case TOKENIZER -> new NginxLogTokenizer(dateRange, remoteAddresses);
+        };
+    }
+
+    /**
+     * @param format {@code log_format} of the lines, compiled once and shared by all parsers.
+     * @param dateRange dates of lines to parse.
+     */
+    public ILogParser createLogParser(LogFormat format, DateRange dateRange) {
+        return new LogFormatParser(format, dateRange, remoteAddresses);
+    }
+}
@@ -0,0 +1,97 @@
+package academy.service;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads lines from memory-mapped windows of the file, finding line boundaries directly in the mapped bytes. Each line
+ * is copied into a reusable buffer for the consumer, so no {@link String} or array is created per line.
+ *
+ * <p>A {@link MappedByteBuffer} addresses at most 2 GB, so larger files are mapped window by window, every window
+ * starting at a line start. {@code java.lang.foreign.MemorySegment} would lift that limit but is a preview API in Java
+ * 21.
+ */
+public class MappedLineReader implements ILineReader {
+    private static final int DEFAULT_WINDOW_SIZE = 256 * 1024 * 1024;
+    private static final int MAX_WINDOW_SIZE = Integer.MAX_VALUE - 8;
+
+    private final int windowSize;
+    private byte[] line = new byte[1024];
+
+    public MappedLineReader() {
+        this(DEFAULT_WINDOW_SIZE);
+    }
+
+    public MappedLineReader(int windowSize) {
+        this.windowSize = windowSize;
+    }
+
+    @Override
+    public void readLines(FileChannel channel, long start, long end, LineConsumer consumer) throws IOException {
+        long size = channel.size();
+        long lineOffset = start;
+        int window = windowSize;
+
+        while (lineOffset < end && lineOffset < size) {
+            long mappedSize = Math.min(window, size - lineOffset);
+            boolean lastWindow = lineOffset + mappedSize == size;
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, lineOffset, mappedSize);
+
+            int limit = (int) mappedSize;
+            int lineStart = 0;
+            boolean progressed = false;
+
+            while (lineOffset < end) {
+                int terminator = findTerminator(mapped, lineStart, limit);
+
+                // \r at the end of the window may be the first half of \r\n, the next window starts at this line
+                if (terminator < 0 || (!lastWindow && terminator + 1 == limit && mapped.get(terminator) == '\r')) {
+                    if (lastWindow) {
+                        if (lineStart < limit) {
+                            emit(mapped, lineStart, limit, consumer);
+                        }
+                        lineOffset = size;
+                    }
+                    break;
+                }
+
+                int next = terminator + 1;
+                if (mapped.get(terminator) == '\r' && next < limit && mapped.get(next) == '\n') {
+                    next++;
+                }
+                emit(mapped, lineStart, terminator, consumer);
+                lineOffset += next - lineStart;
+                lineStart = next;
+                progressed = true;
+            }
+
+            if (progressed) {
+                window = windowSize;
+            } else if (window == MAX_WINDOW_SIZE) {
+                throw new IOException("Line at offset " + lineOffset + " does not fit into a mapped window");
+            } else {
+                window = (int) Math.min(window * 2L, MAX_WINDOW_SIZE);
+            }
+        }
+    }
+
+    private void emit(MappedByteBuffer mapped, int start, int end, LineConsumer consumer) {
+        int length = end - start;
+        if (line.length < length) {
+            line = new byte[Math.max(length, line.length * 2)];
+        }
+        mapped.get(start, line, 0, length);
+        consumer.accept(line, 0, length);
+    }
+
+    private static int findTerminator(MappedByteBuffer mapped, int from, int to) {
+        for (int i = from; i < to; i++) {
+            byte b = mapped.get(i);
+            if (b == '\n' || b == '\r') {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
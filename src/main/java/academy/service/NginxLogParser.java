@@ -1,17 +1,15 @@
 package academy.service;
 
+import academy.model.DateRange;
 import academy.model.LogFields;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.Locale;
 import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-public class NginxLogParser {
+public class NginxLogParser implements ILogParser {
     private static final Logger LOGGER = LogManager.getLogger(NginxLogParser.class);
 
     /**
@@ -21,41 +19,59 @@ public class NginxLogParser {
     private static final Pattern PATTERN =
             Pattern.compile("^([\\d.]+) - (\\S+) \\[([^]]+)] \"([^\"]+)\" (\\d{3}) (\\d+) \"([^\"]*)\" \"([^\"]*)\"$");
 
+    private final TimestampDecoder timestampDecoder = new TimestampDecoder();
+    private final DateRange dateRange;
+
+    public NginxLogParser() {
+        this(DateRange.ALL);
+    }
+
+    /**
+     * @param dateRange dates of lines to parse, lines of other dates are rejected by their {@code $time_local} before
+     *     the pattern is matched
+     */
+    public NginxLogParser(DateRange dateRange) {
+        this.dateRange = dateRange;
+    }
+
     private LogFields getLogFields(Matcher matcher) {
+        LocalDate date = timestampDecoder.decode(matcher.group(3));
         return new LogFields(
                 matcher.group(1),
                 matcher.group(2),
-                parseDate(matcher.group(3)),
+                date,
                 matcher.group(4),
                 Integer.parseInt(matcher.group(5)),
                 Double.parseDouble(matcher.group(6)),
                 matcher.group(7),
-                matcher.group(8));
+                matcher.group(8),
+                timestampDecoder.getEpochSecond());
     }
 
-    /**
-     * Attempts to parse a line from the log file.
-     *
-     * @param line A line from the log file.
-     * @return Optional with fields according to the template, or empty if parsing according to the template failed.
-     */
+    @Override
     public Optional<LogFields> tryProcessLine(String line) {
         if (line == null || line.trim().isEmpty()) {
             LOGGER.warn("Failed to parse line: {}", line);
             return Optional.empty();
         }
 
+        if (!dateRange.isUnbounded() && isOutOfRange(line)) {
+            return Optional.empty();
+        }
+
         Matcher matcher = PATTERN.matcher(line);
         return matcher.matches() ? Optional.of(getLogFields(matcher)) : Optional.empty();
     }
 
-    private LocalDate parseDate(String timeLocal) {
-        try {
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("d/MMM/yyyy:HH:mm:ss Z", Locale.ENGLISH);
-            return LocalDateTime.parse(timeLocal, formatter).toLocalDate();
-        } catch (Exception e) {
-            LOGGER.error("Failed to parse date {} - {}", timeLocal, e.getMessage());
-            throw new IllegalArgumentException("Failed to parse date " + timeLocal);
+    /** Lines without a recognisable date are left to the pattern, so they are rejected or logged as before */
+    private boolean isOutOfRange(String line) {
+        int timeStart = line.indexOf('[');
+        int timeEnd = timeStart < 0 ? -1 : line.indexOf(']', timeStart);
+        if (timeEnd < 0) {
+            return false;
         }
+
+        LocalDate date = timestampDecoder.tryDecode(line.substring(timeStart + 1, timeEnd));
+        return date != null && !dateRange.contains(date);
     }
 }
@@ -0,0 +1,235 @@
+package academy.service;
+
+import academy.model.DateRange;
+import academy.model.LogFields;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Optional;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Hand-written single-pass parser of the pattern: {@code $remote_addr - $remote_user [$time_local] “$request” $status
+ * $body_bytes_sent “$http_referer” “$http_user_agent”}
+ *
+ * <p>Accepts exactly the lines matched by {@link NginxLogParser}, but finds field boundaries directly in the UTF-8
+ * bytes of the line. Only the fields used by the statistics are materialized: {@code $remote_user}, the raw
+ * {@code $request}, {@code $http_referer} and {@code $http_user_agent} are validated and left {@code null}, and so is
+ * {@code $remote_addr} unless it has been asked for. Resources and client addresses repeat and are decoded through
+ * {@link ByteStringDictionary dictionaries}.
+ *
+ * <p>With a bounded {@link DateRange} the date is decoded as soon as {@code $time_local} is found, and lines of other
+ * dates are rejected without looking at the rest of the line.
+ */
+public class NginxLogTokenizer implements ILogParser {
+    private static final Logger LOGGER = LogManager.getLogger(NginxLogTokenizer.class);
+
+    /** Longer numbers may lose precision when accumulated in a {@code long}, so they go through the JDK parser */
+    private static final int MAX_FAST_DIGITS = 15;
+
+    private static final int NOT_FOUND = -1;
+
+    private static final byte[] ADDRESS_SUFFIX = {' ', '-', ' '};
+    private static final byte[] USER_SUFFIX = {' ', '['};
+    private static final byte[] TIME_SUFFIX = {']', ' ', '"'};
+    private static final byte[] REQUEST_SUFFIX = {'"', ' '};
+    private static final byte[] SIZE_SUFFIX = {' ', '"'};
+    private static final byte[] REFERER_SUFFIX = {'"', ' ', '"'};
+
+    private final TimestampDecoder timestampDecoder = new TimestampDecoder();
+    private final ByteStringDictionary resources = new ByteStringDictionary();
+    private final ByteStringDictionary addresses = new ByteStringDictionary();
+    private final DateRange dateRange;
+    private final boolean remoteAddresses;
+
+    public NginxLogTokenizer() {
+        this(DateRange.ALL);
+    }
+
+    /** @param dateRange dates of lines to parse */
+    public NginxLogTokenizer(DateRange dateRange) {
+        this(dateRange, false);
+    }
+
+    /**
+     * @param dateRange dates of lines to parse
+     * @param remoteAddresses whether {@code $remote_addr} is decoded into {@link LogFields#remoteAddress()}
+     */
+    public NginxLogTokenizer(DateRange dateRange, boolean remoteAddresses) {
+        this.dateRange = dateRange;
+        this.remoteAddresses = remoteAddresses;
+    }
+
+    @Override
+    public Optional<LogFields> tryProcessLine(String line) {
+        if (line == null) {
+            LOGGER.warn("Failed to parse line: {}", line);
+            return Optional.empty();
+        }
+
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        return tryProcessLine(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public Optional<LogFields> tryProcessLine(byte[] buffer, int start, int end) {
+        if (isTrimmedEmpty(buffer, start, end)) {
+            LOGGER.warn("Failed to parse line: {}", new String(buffer, start, end - start, StandardCharsets.UTF_8));
+            return Optional.empty();
+        }
+
+        // $remote_addr - $remote_user [
+        int addressEnd = skipAddress(buffer, start, end);
+        int pos = addressEnd == start ? NOT_FOUND : expect(buffer, addressEnd, end, ADDRESS_SUFFIX);
+        if (pos == NOT_FOUND) {
+            return Optional.empty();
+        }
+        int userStart = pos;
+        pos = skipNonWhitespace(buffer, pos, end);
+        pos = pos == userStart ? NOT_FOUND : expect(buffer, pos, end, USER_SUFFIX);
+        if (pos == NOT_FOUND) {
+            return Optional.empty();
+        }
+
+        // $time_local] "$request" $status
+        int timeStart = pos;
+        int timeEnd = indexOf(buffer, pos, end, ']');
+        pos = timeEnd == timeStart ? NOT_FOUND : expect(buffer, timeEnd, end, TIME_SUFFIX);
+        if (pos == NOT_FOUND) {
+            return Optional.empty();
+        }
+        LocalDate date = null;
+        if (!dateRange.isUnbounded()) {
+            date = timestampDecoder.tryDecode(buffer, timeStart, timeEnd);
+            if (date != null && !dateRange.contains(date)) {
+                return Optional.empty();
+            }
+        }
+        int requestStart = pos;
+        int requestEnd = indexOf(buffer, pos, end, '"');
+        pos = requestEnd == requestStart ? NOT_FOUND : expect(buffer, requestEnd, end, REQUEST_SUFFIX);
+        if (pos == NOT_FOUND
+                || end - pos < 4
+                || !isDigit(buffer[pos])
+                || !isDigit(buffer[pos + 1])
+                || !isDigit(buffer[pos + 2])
+                || buffer[pos + 3] != ' ') {
+            return Optional.empty();
+        }
+        int status = (buffer[pos] - '0') * 100 + (buffer[pos + 1] - '0') * 10 + (buffer[pos + 2] - '0');
+        pos += 4;
+
+        // $body_bytes_sent "$http_referer" "$http_user_agent"
+        int sizeStart = pos;
+        int sizeEnd = skipDigits(buffer, pos, end);
+        pos = sizeEnd == sizeStart ? NOT_FOUND : expect(buffer, sizeEnd, end, SIZE_SUFFIX);
+        if (pos == NOT_FOUND) {
+            return Optional.empty();
+        }
+        pos = expect(buffer, indexOf(buffer, pos, end, '"'), end, REFERER_SUFFIX);
+        if (pos == NOT_FOUND || indexOf(buffer, pos, end, '"') != end - 1) {
+            return Optional.empty();
+        }
+
+        if (date == null) {
+            date = timestampDecoder.decode(buffer, timeStart, timeEnd);
+        }
+        RequestTarget target = RequestTarget.parse(buffer, requestStart, requestEnd, resources);
+        return Optional.of(new LogFields(
+                remoteAddresses ? addresses.decode(buffer, start, addressEnd) : null,
+                null,
+                date,
+                null,
+                status,
+                parseSize(buffer, sizeStart, sizeEnd),
+                null,
+                null,
+                target.resource(),
+                target.protocol(),
+                Double.NaN,
+                Double.NaN,
+                null,
+                timestampDecoder.getEpochSecond()));
+    }
+
+    private static int skipAddress(byte[] buffer, int pos, int end) {
+        while (pos < end && (isDigit(buffer[pos]) || buffer[pos] == '.')) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static int skipNonWhitespace(byte[] buffer, int pos, int end) {
+        while (pos < end && !isWhitespace(buffer[pos])) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static int skipDigits(byte[] buffer, int pos, int end) {
+        while (pos < end && isDigit(buffer[pos])) {
+            pos++;
+        }
+        return pos;
+    }
+
+    static double parseSize(byte[] buffer, int start, int end) {
+        if (end - start > MAX_FAST_DIGITS) {
+            return Double.parseDouble(new String(buffer, start, end - start, StandardCharsets.US_ASCII));
+        }
+
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            value = value * 10 + (buffer[i] - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Checks {@code buffer[pos, end)} starts with the literal.
+     *
+     * @return position right after the literal or {@link #NOT_FOUND}, also when {@code pos} is {@link #NOT_FOUND}.
+     */
+    private static int expect(byte[] buffer, int pos, int end, byte[] literal) {
+        if (pos == NOT_FOUND || end - pos < literal.length) {
+            return NOT_FOUND;
+        }
+        for (int i = 0; i < literal.length; i++) {
+            if (buffer[pos + i] != literal[i]) {
+                return NOT_FOUND;
+            }
+        }
+        return pos + literal.length;
+    }
+
+    private static int indexOf(byte[] buffer, int pos, int end, char target) {
+        if (pos == NOT_FOUND) {
+            return NOT_FOUND;
+        }
+        for (int i = pos; i < end; i++) {
+            if (buffer[i] == target) {
+                return i;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    /** Same as {@code \s} in {@link java.util.regex.Pattern} */
+    static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == 0x0B || b == '\f' || b == '\r';
+    }
+
+    /** Same as {@code line.trim().isEmpty()}: multibyte UTF-8 sequences never decode to characters below U+0021 */
+    static boolean isTrimmedEmpty(byte[] buffer, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if ((buffer[i] & 0xFF) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,33 +1,231 @@
 package academy.service;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
-import java.util.stream.Stream;
+import java.nio.ByteBuffer;
+import java.nio.channels.UnresolvedAddressException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.zip.GZIPInputStream;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-/** Just a wrapper over the HTTP client to get the input stream from a remote resource */
+/**
+ * Downloads a remote log and hands its lines to a consumer while the body is still arriving.
+ *
+ * <p>The first request asks for gzip, the body is decoded on the fly. The body is read from the chunks published by
+ * {@link HttpClient#sendAsync}, through {@link HttpBodyInputStream}. The reader remembers the offset of the first line
+ * that has not been consumed yet. If the connection fails or the server answers with 429 or 5xx, the download is
+ * resumed from that offset with a {@code Range} request for the uncompressed resource. Offsets in the decoded gzip body
+ * and in the uncompressed resource are the same. If the server ignores the range, the consumed part of the full body is
+ * skipped. {@code If-Range} makes sure the resource has not changed in between. Its validator must be strong and belong
+ * to the uncompressed resource: the {@code ETag} of an identity response, else {@code Last-Modified}. ETags of gzip
+ * responses identify the gzip representation, nginx makes them weak and Apache appends {@code -gzip}, so a server would
+ * answer such an {@code If-Range} with the full body. Without a validator the range is requested unconditionally.
+ *
+ * <p>Lines are terminated by {@code \n}, {@code \r\n} or {@code \r}, like in {@link ILineReader}.
+ */
 public class RemoteLogReader {
     private static final Logger LOGGER = LogManager.getLogger(RemoteLogReader.class);
 
-    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private static final int DEFAULT_MAX_RETRIES = 5;
+    private static final Duration DEFAULT_RETRY_DELAY = Duration.ofSeconds(1);
+    private static final Duration DEFAULT_READ_TIMEOUT = Duration.ofSeconds(30);
+    private static final int BUFFER_SIZE = 64 * 1024;
 
-    public Stream<String> getStreamOfData(String uri) throws IOException, InterruptedException {
-        HttpRequest request =
-                HttpRequest.newBuilder().uri(URI.create(uri)).GET().build();
+    private final HttpClient httpClient;
+    private final int maxRetries;
+    private final Duration retryDelay;
+    private final Duration readTimeout;
 
-        HttpResponse<Stream<String>> response = httpClient.send(request, HttpResponse.BodyHandlers.ofLines());
+    public RemoteLogReader() {
+        this(HttpClient.newHttpClient(), DEFAULT_MAX_RETRIES, DEFAULT_RETRY_DELAY, DEFAULT_READ_TIMEOUT);
+    }
+
+    /**
+     * @param httpClient client sending the requests.
+     * @param maxRetries number of consecutive failed attempts after which the download is abandoned, an attempt that
+     *     consumed at least one line resets the count.
+     * @param retryDelay pause before the first retry, it grows linearly with every consecutive failure.
+     * @param readTimeout longest wait for the response headers or for the next chunk of the body.
+     */
+    public RemoteLogReader(HttpClient httpClient, int maxRetries, Duration retryDelay, Duration readTimeout) {
+        this.httpClient = httpClient;
+        this.maxRetries = maxRetries;
+        this.retryDelay = retryDelay;
+        this.readTimeout = readTimeout;
+    }
+
+    /** Position in the uncompressed resource and the validator sent in {@code If-Range} */
+    private static final class Progress {
+        private long offset;
+        private Validator validator;
+    }
+
+    /**
+     * Strong validator of the uncompressed resource.
+     *
+     * @param header {@code ETag} or {@code Last-Modified}.
+     * @param value value of the header, sent as is in {@code If-Range}.
+     */
+    private record Validator(String header, String value) {}
+
+    /**
+     * Reads all lines of the remote resource.
+     *
+     * @param uri address of the resource.
+     * @param consumer receives lines in order, every line exactly once even if the download is resumed.
+     * @throws IllegalArgumentException if the host does not resolve or the server answers with a client error.
+     * @throws IOException if the download fails more than {@code maxRetries} times in a row.
+     */
+    public void readLines(String uri, ILineReader.LineConsumer consumer) throws IOException, InterruptedException {
+        Progress progress = new Progress();
+        int failures = 0;
+
+        while (true) {
+            long attemptStart = progress.offset;
+            try {
+                if (readFrom(uri, progress, consumer)) {
+                    return;
+                }
+            } catch (RetryableException | IOException e) {
+                if (e.getCause() instanceof UnresolvedAddressException) {
+                    // a host that does not resolve will not resolve on the next attempt either
+                    throw new IllegalArgumentException(
+                            "Unknown host: " + URI.create(uri).getHost(), e);
+                }
+                failures = progress.offset > attemptStart ? 1 : failures + 1;
+                if (failures > maxRetries) {
+                    throw e instanceof RetryableException ? new IOException(e.getMessage(), e) : (IOException) e;
+                }
 
-        LOGGER.info("Response status code: {}", response.statusCode());
+                LOGGER.warn(
+                        "Failed to read {} ({}), resuming from byte {}, attempt {} of {}",
+                        uri,
+                        e.getMessage(),
+                        progress.offset,
+                        failures,
+                        maxRetries);
+                Thread.sleep(retryDelay.multipliedBy(failures));
+            }
+        }
+    }
+
+    /** @return {@code true} when the whole resource has been read */
+    private boolean readFrom(String uri, Progress progress, ILineReader.LineConsumer consumer)
+            throws IOException, InterruptedException, RetryableException {
+        HttpResponse<Flow.Publisher<List<ByteBuffer>>> response = send(createRequest(uri, progress));
+        int status = response.statusCode();
+        LOGGER.info("Response status code: {}, resuming from byte {}", status, progress.offset);
+
+        HttpBodyInputStream body = new HttpBodyInputStream(readTimeout);
+        response.body().subscribe(body);
 
-        if (response.statusCode() >= 400) {
-            throw new IllegalArgumentException(
-                    "Error occured with GET %s, status code: %s".formatted(uri, response.statusCode()));
+        try (body) {
+            if (status == 416 && progress.offset > 0) {
+                // everything up to the end has been consumed already
+                return true;
+            }
+            if (status == 429 || status >= 500) {
+                throw new RetryableException("status code " + status);
+            }
+            if (status >= 400) {
+                throw new IllegalArgumentException("Error occured with GET %s, status code: %s".formatted(uri, status));
+            }
+
+            boolean gzip = response.headers()
+                    .firstValue("Content-Encoding")
+                    .filter(encoding -> encoding.equalsIgnoreCase("gzip"))
+                    .isPresent();
+            long skip = bytesToSkip(response, progress);
+            if (progress.validator == null) {
+                progress.validator = validatorOf(response, gzip).orElse(null);
+            }
+            try (InputStream input = gzip ? new GZIPInputStream(body, BUFFER_SIZE) : body) {
+                input.skipNBytes(skip);
+                ByteLineReader lines = new ByteLineReader(BUFFER_SIZE);
+                try {
+                    lines.readLines(input, consumer);
+                } finally {
+                    progress.offset += lines.getConsumedBytes();
+                }
+            }
         }
+        return true;
+    }
 
-        return response.body();
+    private HttpRequest createRequest(String uri, Progress progress) {
+        HttpRequest.Builder request = HttpRequest.newBuilder()
+                .uri(URI.create(uri))
+                .timeout(readTimeout)
+                .GET();
+
+        if (progress.offset == 0) {
+            request.header("Accept-Encoding", "gzip");
+        } else {
+            request.header("Range", "bytes=" + progress.offset + "-");
+            if (progress.validator != null) {
+                request.header("If-Range", progress.validator.value());
+            }
+        }
+        return request.build();
+    }
+
+    private HttpResponse<Flow.Publisher<List<ByteBuffer>>> send(HttpRequest request)
+            throws IOException, InterruptedException {
+        try {
+            return httpClient
+                    .sendAsync(request, HttpResponse.BodyHandlers.ofPublisher())
+                    .get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException cause ? cause : new IOException(e.getCause());
+        }
+    }
+
+    /** @return validator of the uncompressed resource that a server accepts in {@code If-Range} */
+    private static Optional<Validator> validatorOf(HttpResponse<?> response, boolean gzip) {
+        Optional<String> etag =
+                gzip ? Optional.empty() : response.headers().firstValue("ETag").filter(tag -> !tag.startsWith("W/"));
+        return etag.map(tag -> new Validator("ETag", tag)).or(() -> response.headers()
+                .firstValue("Last-Modified")
+                .map(date -> new Validator("Last-Modified", date)));
+    }
+
+    /** @return number of bytes of the body that have been consumed before */
+    private static long bytesToSkip(HttpResponse<?> response, Progress progress) throws IOException {
+        if (progress.offset == 0) {
+            return 0;
+        }
+
+        if (response.statusCode() == 206) {
+            String expected = "bytes " + progress.offset + "-";
+            String contentRange = response.headers().firstValue("Content-Range").orElse("");
+            if (!contentRange.startsWith(expected)) {
+                throw new IOException("Unexpected Content-Range: " + contentRange);
+            }
+            return 0;
+        }
+
+        if (progress.validator != null
+                && !response.headers()
+                        .firstValue(progress.validator.header())
+                        .equals(Optional.of(progress.validator.value()))) {
+            throw new IllegalStateException("Remote resource changed while resuming: " + response.uri());
+        }
+        return progress.offset;
+    }
+
+    /** Server-side failure worth another attempt */
+    private static class RetryableException extends Exception {
+        RetryableException(String message) {
+            super(message);
+        }
     }
 }
@@ -0,0 +1,92 @@
+package academy.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Resource and protocol of a raw {@code $request}, the same tokens as {@code request.split(" ")} gives to
+ * {@link academy.model.LogFields}: single-space separators, trailing empty tokens are dropped.
+ *
+ * @param resource second token, or the whole request if there is none, empty for a blank request
+ * @param protocol third token, if any
+ */
+record RequestTarget(String resource, @Nullable String protocol) {
+    private static final RequestTarget BLANK = new RequestTarget("", null);
+
+    /** Protocols returned as shared instances, so that lines do not allocate them and their hashes stay cached */
+    private static final String[] KNOWN_PROTOCOLS = {"HTTP/1.1", "HTTP/1.0", "HTTP/2.0", "HTTP/2", "HTTP/3"};
+
+    private static final byte[][] KNOWN_PROTOCOL_BYTES = Arrays.stream(KNOWN_PROTOCOLS)
+            .map(protocol -> protocol.getBytes(StandardCharsets.US_ASCII))
+            .toArray(byte[][]::new);
+
+    /**
+     * @param buffer UTF-8 bytes containing the request in {@code [start, end)}
+     * @param resources dictionary the resource is decoded through
+     */
+    static RequestTarget parse(byte[] buffer, int start, int end, ByteStringDictionary resources) {
+        if (isBlank(buffer, start, end)) {
+            return BLANK;
+        }
+
+        int tokenIndex = 0;
+        int tokenStart = start;
+        int lastNonEmptyToken = -1;
+        int resourceStart = 0;
+        int resourceEnd = 0;
+        int protocolStart = 0;
+        int protocolEnd = 0;
+
+        for (int i = start; i <= end && lastNonEmptyToken < 2; i++) {
+            if (i == end || buffer[i] == ' ') {
+                if (i > tokenStart) {
+                    lastNonEmptyToken = tokenIndex;
+                }
+                if (tokenIndex == 1) {
+                    resourceStart = tokenStart;
+                    resourceEnd = i;
+                } else if (tokenIndex == 2) {
+                    protocolStart = tokenStart;
+                    protocolEnd = i;
+                }
+                tokenIndex++;
+                tokenStart = i + 1;
+            }
+        }
+
+        String resource = lastNonEmptyToken >= 1
+                ? resources.decode(buffer, resourceStart, resourceEnd)
+                : decode(buffer, start, end);
+        String protocol = lastNonEmptyToken >= 2 ? decodeProtocol(buffer, protocolStart, protocolEnd) : null;
+        return new RequestTarget(resource, protocol);
+    }
+
+    private static String decodeProtocol(byte[] buffer, int start, int end) {
+        for (int i = 0; i < KNOWN_PROTOCOL_BYTES.length; i++) {
+            byte[] known = KNOWN_PROTOCOL_BYTES[i];
+            if (Arrays.equals(buffer, start, end, known, 0, known.length)) {
+                return KNOWN_PROTOCOLS[i];
+            }
+        }
+        return decode(buffer, start, end);
+    }
+
+    private static String decode(byte[] buffer, int start, int end) {
+        return new String(buffer, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    /** Same as {@link String#isBlank()}, decoding only when non-ASCII bytes are present */
+    private static boolean isBlank(byte[] buffer, int start, int end) {
+        for (int i = start; i < end; i++) {
+            byte b = buffer[i];
+            if (b < 0) {
+                return decode(buffer, start, end).isBlank();
+            }
+            if (!Character.isWhitespace(b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,129 @@
+package academy.service;
+
+import academy.model.DateRange;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.time.LocalDate;
+import java.util.function.Predicate;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Finds the part of a log written in time order that holds the lines of a {@link DateRange}, so that the rest of the
+ * file is never read.
+ *
+ * <p>Both ends are found by binary search over byte offsets, probing the date of the first line at an offset. Servers
+ * write lines in completion order, so dates near midnight may be slightly out of order: the found part is widened by
+ * {@link #SLACK} on both sides, lines of other dates inside it are still rejected by the parser.
+ */
+public class SortedRangeLocator {
+    /** Bytes read before the first and after the last probed line of the range */
+    static final long SLACK = 1024 * 1024;
+
+    private static final int PROBE_SIZE = 8 * 1024;
+
+    /** Lower and upper offsets around the first line that no longer satisfies the searched condition */
+    private record Bracket(long low, long high) {}
+
+    private final FileChannel channel;
+    private final long size;
+    private final TimestampDecoder timestampDecoder = new TimestampDecoder();
+    private final ByteBuffer probe = ByteBuffer.allocate(PROBE_SIZE);
+
+    private SortedRangeLocator(FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.size = channel.size();
+    }
+
+    /**
+     * @param channel log sorted by {@code $time_local}.
+     * @param range dates to find.
+     * @return part of the file beginning and ending at line starts, that contains all lines of the range.
+     */
+    public static FileChunk locate(FileChannel channel, DateRange range) throws IOException {
+        SortedRangeLocator locator = new SortedRangeLocator(channel);
+        long size = locator.size;
+
+        long start = 0;
+        if (!range.from().equals(LocalDate.MIN)) {
+            Bracket bracket = locator.search(date -> date.isBefore(range.from()));
+            start = FileChunk.nextLineStart(channel, Math.max(0, bracket.low() - SLACK), size);
+        }
+
+        long end = size;
+        if (!range.to().equals(LocalDate.MAX)) {
+            Bracket bracket = locator.search(date -> !date.isAfter(range.to()));
+            end = FileChunk.nextLineStart(channel, Math.min(size, bracket.high() + SLACK), size);
+        }
+
+        return new FileChunk(start, Math.max(start, end));
+    }
+
+    /**
+     * Narrows down the offset where {@code condition} stops holding for the dates of lines, down to a single probe.
+     * Lines past the last dated one are treated as not satisfying it.
+     */
+    private Bracket search(Predicate<LocalDate> condition) throws IOException {
+        long low = 0;
+        long high = size;
+
+        while (high - low > PROBE_SIZE) {
+            long middle = low + (high - low) / 2;
+            LocalDate date = dateAt(middle);
+            if (date != null && condition.test(date)) {
+                low = middle;
+            } else {
+                high = middle;
+            }
+        }
+        return new Bracket(low, high);
+    }
+
+    /** @return date of the first line starting at or after {@code position} that has one, or {@code null} */
+    private @Nullable LocalDate dateAt(long position) throws IOException {
+        long offset = FileChunk.nextLineStart(channel, position, size);
+
+        while (offset < size) {
+            probe.clear();
+            int read = channel.read(probe, offset);
+            if (read <= 0) {
+                return null;
+            }
+
+            int lineStart = 0;
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    LocalDate date = dateOf(lineStart, i);
+                    if (date != null) {
+                        return date;
+                    }
+                    lineStart = i + 1;
+                }
+            }
+
+            if (offset + read >= size) {
+                // the last line of the file has no line break
+                return dateOf(lineStart, read);
+            }
+            // a line longer than the probe is skipped
+            offset = lineStart == 0 ? FileChunk.nextLineStart(channel, offset + read, size) : offset + lineStart;
+        }
+        return null;
+    }
+
+    /** Decodes the first bracketed value of {@code probe[start, end)}, the position of {@code $time_local} */
+    private @Nullable LocalDate dateOf(int start, int end) {
+        byte[] buffer = probe.array();
+        for (int timeStart = start; timeStart < end; timeStart++) {
+            if (buffer[timeStart] == '[') {
+                for (int timeEnd = timeStart + 1; timeEnd < end; timeEnd++) {
+                    if (buffer[timeEnd] == ']') {
+                        return timestampDecoder.tryDecode(buffer, timeStart + 1, timeEnd);
+                    }
+                }
+                return null;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,245 @@
+package academy.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.OffsetDateTime;
+import java.time.Year;
+import java.time.format.DateTimeFormatter;
+import java.time.format.TextStyle;
+import java.util.Arrays;
+import java.util.Locale;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Decodes {@code $time_local} values like {@code 18/Oct/2026:13:55:36 +0000} into a {@link LocalDate}, and the instant
+ * of the last decoded value into {@link #getEpochSecond() seconds since the epoch}.
+ *
+ * <p>Consecutive log lines almost always share the day, so the day prefix ({@code 18/Oct/2026}) of the last decoded
+ * value is cached and its date is returned without parsing, only the time of day is read. A changed prefix goes through
+ * a fixed-width decoder, and anything it does not recognise falls back to {@link DateTimeFormatter}, so results and
+ * errors are the same as a full parse.
+ *
+ * <p>Keeps the cache in instance fields, so every thread needs its own decoder.
+ */
+public class TimestampDecoder {
+    private static final Logger LOGGER = LogManager.getLogger(TimestampDecoder.class);
+
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    private static final DateTimeFormatter FORMATTER =
+            DateTimeFormatter.ofPattern("d/MMM/yyyy:HH:mm:ss Z", Locale.ENGLISH);
+
+    private static final byte[][] MONTHS = Arrays.stream(Month.values())
+            .map(month -> month.getDisplayName(TextStyle.SHORT, Locale.ENGLISH).getBytes(StandardCharsets.US_ASCII))
+            .toArray(byte[][]::new);
+
+    /** {@code d/MMM/yyyy} or {@code dd/MMM/yyyy} */
+    private static final int MIN_DAY_PREFIX_LENGTH = 10;
+
+    private static final int MAX_DAY_PREFIX_LENGTH = 11;
+
+    /** {@code :HH:mm:ss +hhmm} */
+    private static final int TIME_SUFFIX_LENGTH = 15;
+
+    private static final int NOT_FIXED_WIDTH = Integer.MIN_VALUE;
+
+    private final byte[] cachedPrefix = new byte[MAX_DAY_PREFIX_LENGTH];
+    private int cachedPrefixLength = 0;
+    private @Nullable LocalDate cachedDate;
+    private long cachedEpochDay;
+    private long epochSecond;
+
+    private final byte[] scratch = new byte[MAX_DAY_PREFIX_LENGTH + TIME_SUFFIX_LENGTH];
+
+    /**
+     * @param timeLocal value of {@code $time_local}
+     * @throws IllegalArgumentException if the value is not a valid timestamp
+     */
+    public LocalDate decode(String timeLocal) {
+        return decode(timeLocal, true);
+    }
+
+    /**
+     * @param buffer UTF-8 bytes containing the value of {@code $time_local} in {@code [start, end)}
+     * @throws IllegalArgumentException if the value is not a valid timestamp
+     */
+    public LocalDate decode(byte[] buffer, int start, int end) {
+        return decode(buffer, start, end, null, true);
+    }
+
+    /**
+     * Same as {@link #decode(String)}, but returns {@code null} for invalid values without logging them, so that the
+     * date of a line can be checked before the rest of the line is validated.
+     */
+    public @Nullable LocalDate tryDecode(String timeLocal) {
+        try {
+            return decode(timeLocal, false);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /** Same as {@link #decode(byte[], int, int)}, but returns {@code null} for invalid values without logging them */
+    public @Nullable LocalDate tryDecode(byte[] buffer, int start, int end) {
+        try {
+            return decode(buffer, start, end, null, false);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private LocalDate decode(String timeLocal, boolean logErrors) {
+        int length = timeLocal.length();
+        if (length > scratch.length) {
+            return parse(timeLocal, logErrors);
+        }
+
+        for (int i = 0; i < length; i++) {
+            char c = timeLocal.charAt(i);
+            if (c > 0x7F) {
+                return parse(timeLocal, logErrors);
+            }
+            scratch[i] = (byte) c;
+        }
+        return decode(scratch, 0, length, timeLocal, logErrors);
+    }
+
+    /**
+     * @return seconds since the epoch of the instant of the value last decoded by {@code decode} or {@code tryDecode},
+     *     undefined if it was invalid.
+     */
+    public long getEpochSecond() {
+        return epochSecond;
+    }
+
+    private LocalDate decode(byte[] buffer, int start, int end, @Nullable String source, boolean logErrors) {
+        int prefixLength = end - start - TIME_SUFFIX_LENGTH;
+        int utcSecondOfDay = prefixLength >= MIN_DAY_PREFIX_LENGTH && prefixLength <= MAX_DAY_PREFIX_LENGTH
+                ? utcSecondOfDay(buffer, start + prefixLength)
+                : NOT_FIXED_WIDTH;
+
+        if (utcSecondOfDay != NOT_FIXED_WIDTH) {
+            if (prefixLength == cachedPrefixLength
+                    && Arrays.equals(buffer, start, start + prefixLength, cachedPrefix, 0, prefixLength)) {
+                epochSecond = cachedEpochDay * SECONDS_PER_DAY + utcSecondOfDay;
+                return cachedDate;
+            }
+
+            LocalDate date = decodeDayPrefix(buffer, start, prefixLength);
+            if (date != null) {
+                System.arraycopy(buffer, start, cachedPrefix, 0, prefixLength);
+                cachedPrefixLength = prefixLength;
+                cachedDate = date;
+                cachedEpochDay = date.toEpochDay();
+                epochSecond = cachedEpochDay * SECONDS_PER_DAY + utcSecondOfDay;
+                return date;
+            }
+        }
+
+        return parse(
+                source != null ? source : new String(buffer, start, end - start, StandardCharsets.UTF_8), logErrors);
+    }
+
+    /** Accepts only unambiguous days, leaving leniency of the formatter (e.g. day clamping) to the slow path */
+    private static @Nullable LocalDate decodeDayPrefix(byte[] buffer, int start, int prefixLength) {
+        int dayDigits = prefixLength - MIN_DAY_PREFIX_LENGTH + 1;
+        int day = digits(buffer, start, dayDigits);
+
+        int pos = start + dayDigits;
+        if (day <= 0 || buffer[pos] != '/' || buffer[pos + 4] != '/') {
+            return null;
+        }
+
+        int month = monthOf(buffer, pos + 1);
+        int year = digits(buffer, pos + 5, 4);
+        if (month <= 0 || year <= 0) {
+            return null;
+        }
+
+        if (day > Month.of(month).length(Year.isLeap(year))) {
+            return null;
+        }
+        return LocalDate.of(year, month, day);
+    }
+
+    /**
+     * Checks {@code :HH:mm:ss +hhmm} with in-range values.
+     *
+     * @return second of the day minus the offset, so that adding the start of the day in seconds gives the instant, or
+     *     {@link #NOT_FIXED_WIDTH}.
+     */
+    private static int utcSecondOfDay(byte[] buffer, int pos) {
+        if (buffer[pos] != ':' || buffer[pos + 3] != ':' || buffer[pos + 6] != ':' || buffer[pos + 9] != ' ') {
+            return NOT_FIXED_WIDTH;
+        }
+        if (buffer[pos + 10] != '+' && buffer[pos + 10] != '-') {
+            return NOT_FIXED_WIDTH;
+        }
+
+        int hours = digits(buffer, pos + 1, 2);
+        int minutes = digits(buffer, pos + 4, 2);
+        int seconds = digits(buffer, pos + 7, 2);
+        int offsetHours = digits(buffer, pos + 11, 2);
+        int offsetMinutes = digits(buffer, pos + 13, 2);
+
+        boolean valid = hours >= 0
+                && hours <= 23
+                && minutes >= 0
+                && minutes <= 59
+                && seconds >= 0
+                && seconds <= 59
+                && offsetHours >= 0
+                && offsetHours < 18
+                && offsetMinutes >= 0
+                && offsetMinutes <= 59;
+        if (!valid) {
+            return NOT_FIXED_WIDTH;
+        }
+
+        int offset = (offsetHours * 3600 + offsetMinutes * 60) * (buffer[pos + 10] == '-' ? -1 : 1);
+        return hours * 3600 + minutes * 60 + seconds - offset;
+    }
+
+    /** @return 1-based month number or {@code -1} */
+    private static int monthOf(byte[] buffer, int pos) {
+        for (int i = 0; i < MONTHS.length; i++) {
+            byte[] month = MONTHS[i];
+            if (month.length == 3
+                    && buffer[pos] == month[0]
+                    && buffer[pos + 1] == month[1]
+                    && buffer[pos + 2] == month[2]) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    /** @return decimal value of the digits or {@code -1} if any byte is not a digit */
+    private static int digits(byte[] buffer, int pos, int count) {
+        int value = 0;
+        for (int i = pos; i < pos + count; i++) {
+            int digit = buffer[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private LocalDate parse(String timeLocal, boolean logErrors) {
+        try {
+            OffsetDateTime time = OffsetDateTime.parse(timeLocal, FORMATTER);
+            epochSecond = time.toEpochSecond();
+            return time.toLocalDate();
+        } catch (Exception e) {
+            if (logErrors) {
+                LOGGER.error("Failed to parse date {} - {}", timeLocal, e.getMessage());
+            }
+            throw new IllegalArgumentException("Failed to parse date " + timeLocal);
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package academy.stats;
+
+import academy.model.ClientData;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Requests and response bytes per client IP address, and a {@link HyperLogLog} of the distinct clients.
+ *
+ * <p>Addresses are parsed from {@code $remote_addr} into 128 bits kept as two {@code long}s, IPv4 addresses in their
+ * IPv4-mapped IPv6 form {@code ::ffff:a.b.c.d}, whose low half is the address as an {@code int}. Keys and counters live
+ * in parallel primitive arrays of an open-addressing table, so counting a known client allocates nothing; every
+ * distinct client costs about 64 bytes of the table. Values that are not IP addresses, like {@code unix:} or a host
+ * name, are not counted.
+ */
+final class ClientCounts {
+    private static final int INITIAL_CAPACITY = 64;
+    private static final long IPV4_MAPPED_PREFIX = 0xFFFF_0000_0000L;
+    private static final int NOT_PARSED = -1;
+
+    /** {@code keys[2 * slot]} and {@code keys[2 * slot + 1]} are the high and low halves of the address */
+    private long[] keys = new long[2 * INITIAL_CAPACITY];
+
+    /** Requests per slot, {@code 0} marks an empty slot */
+    private long[] requests = new long[INITIAL_CAPACITY];
+
+    private long[] bytes = new long[INITIAL_CAPACITY];
+    private int size;
+    private final HyperLogLog distinct = new HyperLogLog();
+
+    /** Halves of the last parsed address and groups of IPv6 addresses, reused across lines */
+    private long parsedHigh;
+
+    private long parsedLow;
+    private final int[] groups = new int[8];
+
+    /**
+     * Counts a request of the client.
+     *
+     * @param address {@code $remote_addr}, an IPv4 or IPv6 address, ignored otherwise.
+     * @param bytesSent response size.
+     */
+    void add(String address, double bytesSent) {
+        if (parse(address)) {
+            add(parsedHigh, parsedLow, 1, (long) bytesSent);
+            distinct.add(hash(parsedHigh, parsedLow));
+        }
+    }
+
+    private void add(long high, long low, long requestCount, long bytesSent) {
+        int slot = slot(keys, requests, high, low);
+        if (requests[slot] == 0) {
+            keys[2 * slot] = high;
+            keys[2 * slot + 1] = low;
+            size++;
+        }
+        requests[slot] += requestCount;
+        bytes[slot] += bytesSent;
+        if (size * 2 > requests.length) {
+            grow();
+        }
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** @return estimated number of distinct clients */
+    long getDistinctCount() {
+        return distinct.estimate();
+    }
+
+    /**
+     * @param limit number of clients.
+     * @param byBytes whether clients are ranked by response bytes rather than by requests.
+     * @return clients ranked first, ties are broken by the other counter and then by address.
+     */
+    List<ClientData> getTop(int limit, boolean byBytes) {
+        long[] primary = byBytes ? bytes : requests;
+        long[] secondary = byBytes ? requests : bytes;
+        PriorityQueue<Integer> worstFirst =
+                new PriorityQueue<>(Math.max(1, limit), (a, b) -> compare(b, a, primary, secondary));
+
+        for (int slot = 0; slot < requests.length; slot++) {
+            if (requests[slot] == 0) {
+                continue;
+            }
+            if (worstFirst.size() < limit) {
+                worstFirst.add(slot);
+            } else if (limit > 0 && compare(slot, worstFirst.peek(), primary, secondary) < 0) {
+                worstFirst.poll();
+                worstFirst.add(slot);
+            }
+        }
+
+        List<Integer> slots = new ArrayList<>(worstFirst);
+        slots.sort((a, b) -> compare(a, b, primary, secondary));
+        return slots.stream()
+                .map(slot -> new ClientData(format(keys[2 * slot], keys[2 * slot + 1]), requests[slot], bytes[slot]))
+                .toList();
+    }
+
+    /** @return negative if the client of slot {@code a} ranks before the client of slot {@code b} */
+    private int compare(int a, int b, long[] primary, long[] secondary) {
+        int order = Long.compare(primary[b], primary[a]);
+        if (order == 0) {
+            order = Long.compare(secondary[b], secondary[a]);
+        }
+        if (order == 0) {
+            order = Long.compareUnsigned(keys[2 * a], keys[2 * b]);
+        }
+        return order != 0 ? order : Long.compareUnsigned(keys[2 * a + 1], keys[2 * b + 1]);
+    }
+
+    /** Adds all counts of {@code other} */
+    void merge(ClientCounts other) {
+        for (int slot = 0; slot < other.requests.length; slot++) {
+            if (other.requests[slot] != 0) {
+                add(other.keys[2 * slot], other.keys[2 * slot + 1], other.requests[slot], other.bytes[slot]);
+            }
+        }
+        distinct.merge(other.distinct);
+    }
+
+    void writeTo(DataOutput output) throws IOException {
+        output.writeInt(size);
+        for (int slot = 0; slot < requests.length; slot++) {
+            if (requests[slot] != 0) {
+                output.writeLong(keys[2 * slot]);
+                output.writeLong(keys[2 * slot + 1]);
+                output.writeLong(requests[slot]);
+                output.writeLong(bytes[slot]);
+            }
+        }
+        distinct.writeTo(output);
+    }
+
+    /** Adds counts stored by {@link #writeTo(DataOutput)}, like {@link #merge(ClientCounts)} */
+    void readFrom(DataInput input) throws IOException {
+        int entries = input.readInt();
+        for (int i = 0; i < entries; i++) {
+            add(input.readLong(), input.readLong(), input.readLong(), input.readLong());
+        }
+        distinct.readFrom(input);
+    }
+
+    /** @return slot holding the address, or the empty slot where it belongs, the table is never full */
+    private static int slot(long[] keys, long[] requests, long high, long low) {
+        int mask = requests.length - 1;
+        int slot = (int) hash(high, low) & mask;
+        while (requests[slot] != 0 && (keys[2 * slot] != high || keys[2 * slot + 1] != low)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /** SplitMix64 finalizer, hashes of similar addresses must be independent for {@link HyperLogLog} */
+    static long hash(long high, long low) {
+        long z = high * 0x9E3779B97F4A7C15L + low;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        long[] oldRequests = requests;
+        long[] oldBytes = bytes;
+        keys = new long[oldKeys.length * 2];
+        requests = new long[oldRequests.length * 2];
+        bytes = new long[oldBytes.length * 2];
+
+        for (int i = 0; i < oldRequests.length; i++) {
+            if (oldRequests[i] != 0) {
+                int slot = slot(keys, requests, oldKeys[2 * i], oldKeys[2 * i + 1]);
+                keys[2 * slot] = oldKeys[2 * i];
+                keys[2 * slot + 1] = oldKeys[2 * i + 1];
+                requests[slot] = oldRequests[i];
+                bytes[slot] = oldBytes[i];
+            }
+        }
+    }
+
+    /**
+     * Parses an IPv4 address, or an IPv6 address with optional {@code ::}, trailing dotted IPv4 part and {@code %zone},
+     * into {@link #parsedHigh} and {@link #parsedLow}.
+     *
+     * @return whether the value is an address.
+     */
+    boolean parse(String address) {
+        if (address == null) {
+            return false;
+        }
+        if (address.indexOf(':') < 0) {
+            long ipv4 = parseIpv4(address, 0, address.length());
+            parsedHigh = 0;
+            parsedLow = IPV4_MAPPED_PREFIX | ipv4;
+            return ipv4 != NOT_PARSED;
+        }
+
+        int zone = address.indexOf('%');
+        return parseIpv6(address, zone < 0 ? address.length() : zone);
+    }
+
+    /** @return address as an unsigned {@code int}, or {@link #NOT_PARSED} */
+    private static long parseIpv4(String address, int start, int end) {
+        long value = 0;
+        int octets = 0;
+        int pos = start;
+        while (octets < 4) {
+            int octetStart = pos;
+            int octet = 0;
+            while (pos < end && pos - octetStart < 3 && isDigit(address.charAt(pos))) {
+                octet = octet * 10 + address.charAt(pos++) - '0';
+            }
+            if (pos == octetStart || octet > 255) {
+                return NOT_PARSED;
+            }
+            value = value << 8 | octet;
+            if (++octets < 4) {
+                if (pos == end || address.charAt(pos) != '.') {
+                    return NOT_PARSED;
+                }
+                pos++;
+            }
+        }
+        return pos == end ? value : NOT_PARSED;
+    }
+
+    private boolean parseIpv6(String address, int end) {
+        int count = 0;
+        int gap = NOT_PARSED;
+        int pos = 0;
+        if (address.startsWith("::")) {
+            gap = 0;
+            pos = 2;
+        }
+
+        while (pos < end) {
+            int groupStart = pos;
+            int group = 0;
+            while (pos < end && pos - groupStart < 4 && hexDigit(address.charAt(pos)) != NOT_PARSED) {
+                group = group << 4 | hexDigit(address.charAt(pos++));
+            }
+            if (pos < end && address.charAt(pos) == '.') {
+                long ipv4 = parseIpv4(address, groupStart, end);
+                if (ipv4 == NOT_PARSED || count > 6) {
+                    return false;
+                }
+                groups[count++] = (int) (ipv4 >>> 16);
+                groups[count++] = (int) (ipv4 & 0xFFFF);
+                pos = end;
+                break;
+            }
+            if (pos == groupStart || count == 8) {
+                return false;
+            }
+            groups[count++] = group;
+            if (pos == end) {
+                break;
+            }
+            if (address.charAt(pos) != ':' || ++pos == end) {
+                return false;
+            }
+            if (address.charAt(pos) == ':') {
+                if (gap != NOT_PARSED) {
+                    return false;
+                }
+                gap = count;
+                pos++;
+            }
+        }
+        if (gap == NOT_PARSED ? count != 8 : count == 8) {
+            return false;
+        }
+
+        int zeros = 8 - count;
+        long high = 0;
+        long low = 0;
+        for (int i = 0, source = 0; i < 8; i++) {
+            boolean zero = gap != NOT_PARSED && i >= gap && i < gap + zeros;
+            long group = zero ? 0 : groups[source++];
+            if (i < 4) {
+                high = high << 16 | group;
+            } else {
+                low = low << 16 | group;
+            }
+        }
+        parsedHigh = high;
+        parsedLow = low;
+        return true;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static int hexDigit(char c) {
+        if (isDigit(c)) {
+            return c - '0';
+        }
+        char lower = (char) (c | 0x20);
+        return lower >= 'a' && lower <= 'f' ? lower - 'a' + 10 : NOT_PARSED;
+    }
+
+    /** @return IPv4-mapped addresses in dotted form, other addresses in the canonical IPv6 form of RFC 5952 */
+    static String format(long high, long low) {
+        if (high == 0 && (low >>> 32) == 0xFFFF) {
+            return ((low >>> 24) & 0xFF) + "." + ((low >>> 16) & 0xFF) + "." + ((low >>> 8) & 0xFF) + "."
+                    + (low & 0xFF);
+        }
+
+        int[] groups = new int[8];
+        for (int i = 0; i < 4; i++) {
+            groups[i] = (int) (high >>> (48 - 16 * i)) & 0xFFFF;
+            groups[i + 4] = (int) (low >>> (48 - 16 * i)) & 0xFFFF;
+        }
+
+        int bestStart = -1;
+        int bestLength = 1;
+        for (int i = 0; i < 8; ) {
+            int runEnd = i;
+            while (runEnd < 8 && groups[runEnd] == 0) {
+                runEnd++;
+            }
+            if (runEnd - i > bestLength) {
+                bestStart = i;
+                bestLength = runEnd - i;
+            }
+            i = Math.max(runEnd, i + 1);
+        }
+
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 8; i++) {
+            if (i == bestStart) {
+                text.append("::");
+                i += bestLength - 1;
+                continue;
+            }
+            if (!text.isEmpty() && text.charAt(text.length() - 1) != ':') {
+                text.append(':');
+            }
+            text.append(Integer.toHexString(groups[i]));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,99 @@
+package academy.stats;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Request counts per day in an {@code int} array indexed by epoch day from the first day seen. Logs span days to years,
+ * so the array stays small, and counting a day inside the range allocates nothing.
+ */
+final class DayCounts {
+    private static final int INITIAL_DAYS = 32;
+
+    /** {@code counts[i]} is the count of epoch day {@code firstDay + i} */
+    private int[] counts = new int[0];
+
+    private long firstDay;
+
+    void increment(LocalDate date) {
+        add(date.toEpochDay(), 1);
+    }
+
+    void add(long epochDay, int count) {
+        ensureCapacity(epochDay);
+        counts[(int) (epochDay - firstDay)] += count;
+    }
+
+    void merge(DayCounts other) {
+        for (int i = 0; i < other.counts.length; i++) {
+            if (other.counts[i] != 0) {
+                add(other.firstDay + i, other.counts[i]);
+            }
+        }
+    }
+
+    boolean isEmpty() {
+        return Arrays.stream(counts).allMatch(count -> count == 0);
+    }
+
+    /** Visits days with a positive count in ascending order */
+    void forEach(DayConsumer action) {
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                action.accept(firstDay + i, counts[i]);
+            }
+        }
+    }
+
+    void writeTo(DataOutput output) throws IOException {
+        output.writeLong(firstDay);
+        output.writeInt(counts.length);
+        for (int count : counts) {
+            output.writeInt(count);
+        }
+    }
+
+    /** Adds counts stored by {@link #writeTo(DataOutput)}, like {@link #merge(DayCounts)} */
+    void readFrom(DataInput input) throws IOException {
+        long first = input.readLong();
+        int days = input.readInt();
+        for (int i = 0; i < days; i++) {
+            int count = input.readInt();
+            if (count != 0) {
+                add(first + i, count);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface DayConsumer {
+        void accept(long epochDay, int count);
+    }
+
+    private void ensureCapacity(long epochDay) {
+        if (counts.length == 0) {
+            counts = new int[INITIAL_DAYS];
+            firstDay = epochDay - INITIAL_DAYS / 2;
+            return;
+        }
+
+        long lastDay = firstDay + counts.length - 1;
+        if (epochDay >= firstDay && epochDay <= lastDay) {
+            return;
+        }
+
+        long newFirst = Math.min(firstDay, epochDay);
+        long newLast = Math.max(lastDay, epochDay);
+        long slack = (newLast - newFirst + 1) / 2;
+        newFirst = epochDay < firstDay ? newFirst - slack : newFirst;
+        newLast = epochDay > lastDay ? newLast + slack : newLast;
+
+        int[] grown = new int[Math.toIntExact(newLast - newFirst + 1)];
+        System.arraycopy(counts, 0, grown, (int) (firstDay - newFirst), counts.length);
+        counts = grown;
+        firstDay = newFirst;
+    }
+}
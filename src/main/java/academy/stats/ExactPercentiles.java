@@ -0,0 +1,184 @@
+package academy.stats;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Keeps every value in a growable primitive array. Percentiles are the same as
+ * {@link MetricsCalculator#calculatePercentile(List, int)} returns, but the ranks are found with quickselect instead of
+ * sorting all values.
+ */
+public class ExactPercentiles implements IPercentileEstimator {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private double[] values = new double[INITIAL_CAPACITY];
+    private int size;
+
+    @Override
+    public void add(double value) {
+        ensureCapacity(size + 1);
+        values[size++] = value;
+    }
+
+    @Override
+    public double getPercentile(int percentile) {
+        return getPercentiles(percentile)[0];
+    }
+
+    /**
+     * Selects all requested ranks in ascending order, every selection only partitions the values above the previous
+     * rank, so several percentiles cost little more than one.
+     */
+    @Override
+    public double[] getPercentiles(int... percentiles) {
+        for (int percentile : percentiles) {
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("Percentile must be between 0 and 100");
+            }
+        }
+
+        double[] result = new double[percentiles.length];
+        if (size == 0) {
+            return result;
+        }
+
+        Integer[] order = new Integer[percentiles.length];
+        Arrays.setAll(order, i -> i);
+        Arrays.sort(order, (a, b) -> Integer.compare(percentiles[a], percentiles[b]));
+
+        int selectedFrom = 0;
+        for (int i : order) {
+            double rank = percentiles[i] / 100.0 * (size - 1);
+            int lowerIndex = (int) Math.floor(rank);
+            int upperIndex = (int) Math.ceil(rank);
+
+            select(selectedFrom, size, lowerIndex);
+            selectedFrom = lowerIndex;
+            double lowerValue = values[lowerIndex];
+
+            if (lowerIndex == upperIndex) {
+                result[i] = lowerValue;
+                continue;
+            }
+
+            select(upperIndex, size, upperIndex);
+            double upperValue = values[upperIndex];
+            double weight = rank - lowerIndex;
+
+            result[i] = MetricsCalculator.roundToTwoDecimalPlaces(lowerValue + (upperValue - lowerValue) * weight);
+        }
+        return result;
+    }
+
+    @Override
+    public void merge(IPercentileEstimator other) {
+        ExactPercentiles percentiles = (ExactPercentiles) other;
+        ensureCapacity(size + percentiles.size);
+        System.arraycopy(percentiles.values, 0, values, size, percentiles.size);
+        size += percentiles.size;
+    }
+
+    @Override
+    public IPercentileEstimator fork() {
+        return new ExactPercentiles();
+    }
+
+    @Override
+    public void writeTo(DataOutput output) throws IOException {
+        output.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            output.writeDouble(values[i]);
+        }
+    }
+
+    @Override
+    public void readFrom(DataInput input) throws IOException {
+        int count = input.readInt();
+        ensureCapacity(size + count);
+        for (int i = 0; i < count; i++) {
+            values[size++] = input.readDouble();
+        }
+    }
+
+    /**
+     * Reorders {@code values[from, to)} so that {@code values[index]} is the value a full sort would put there, smaller
+     * values before it and larger ones after it. Falls back to sorting the range if partitions keep being unbalanced.
+     */
+    private void select(int from, int to, int index) {
+        int low = from;
+        int high = to - 1;
+        int depthLimit = 2 * (32 - Integer.numberOfLeadingZeros(to - from));
+
+        while (high - low > INSERTION_SORT_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                Arrays.sort(values, low, high + 1);
+                return;
+            }
+
+            double pivot = medianOfThree(low, (low + high) >>> 1, high);
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (values[i] < pivot) {
+                    i++;
+                }
+                while (values[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i++, j--);
+                }
+            }
+
+            if (index <= j) {
+                high = j;
+            } else if (index >= i) {
+                low = i;
+            } else {
+                return;
+            }
+        }
+        insertionSort(low, high);
+    }
+
+    private double medianOfThree(int a, int b, int c) {
+        if (values[b] < values[a]) {
+            swap(a, b);
+        }
+        if (values[c] < values[b]) {
+            swap(b, c);
+            if (values[b] < values[a]) {
+                swap(a, b);
+            }
+        }
+        return values[b];
+    }
+
+    private void insertionSort(int low, int high) {
+        for (int i = low + 1; i <= high; i++) {
+            double value = values[i];
+            int j = i - 1;
+            while (j >= low && values[j] > value) {
+                values[j + 1] = values[j];
+                j--;
+            }
+            values[j + 1] = value;
+        }
+    }
+
+    private void swap(int a, int b) {
+        double value = values[a];
+        values[a] = values[b];
+        values[b] = value;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > values.length) {
+            values = Arrays.copyOf(values, Math.max(capacity, values.length * 2));
+        }
+    }
+}
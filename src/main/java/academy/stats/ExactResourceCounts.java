@@ -0,0 +1,44 @@
+package academy.stats;
+
+import academy.model.ResourceData;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+
+/** Keeps a counter for every distinct resource, memory grows with the number of resources */
+public class ExactResourceCounts implements IResourceCounter {
+    private final StringCounts counts = new StringCounts();
+
+    @Override
+    public void add(String resource) {
+        counts.increment(resource);
+    }
+
+    @Override
+    public List<ResourceData> getTop(int limit) {
+        TopSelection top = new TopSelection(limit);
+        counts.forEach((resource, count) -> top.offer(resource, (int) count));
+        return top.toList();
+    }
+
+    @Override
+    public void merge(IResourceCounter other) {
+        counts.merge(((ExactResourceCounts) other).counts);
+    }
+
+    @Override
+    public IResourceCounter fork() {
+        return new ExactResourceCounts();
+    }
+
+    @Override
+    public void writeTo(DataOutput output) throws IOException {
+        counts.writeTo(output);
+    }
+
+    @Override
+    public void readFrom(DataInput input) throws IOException {
+        counts.readFrom(input);
+    }
+}
@@ -0,0 +1,67 @@
+package academy.stats;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * HyperLogLog estimate of the number of distinct values, in {@code 2^14} one-byte registers whatever the number of
+ * values added. The standard error is {@code 1.04 / sqrt(2^14)}, about 0.8%; small cardinalities are estimated by
+ * linear counting over the empty registers and are practically exact.
+ *
+ * <p>Values are added as 64-bit hashes that must be uniformly distributed. {@link #merge(HyperLogLog)} takes the
+ * maximum of every register, so the estimate of merged sketches equals the estimate of a single pass in any grouping.
+ */
+final class HyperLogLog {
+    private static final int PRECISION = 14;
+    private static final int REGISTERS = 1 << PRECISION;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    private final byte[] registers = new byte[REGISTERS];
+
+    /** @param hash uniformly distributed hash of the value */
+    void add(long hash) {
+        int register = (int) (hash >>> (Long.SIZE - PRECISION));
+        int rank = Math.min(Long.numberOfLeadingZeros(hash << PRECISION), Long.SIZE - PRECISION) + 1;
+        if (rank > registers[register]) {
+            registers[register] = (byte) rank;
+        }
+    }
+
+    void merge(HyperLogLog other) {
+        merge(other.registers);
+    }
+
+    private void merge(byte[] others) {
+        for (int i = 0; i < REGISTERS; i++) {
+            registers[i] = (byte) Math.max(registers[i], others[i]);
+        }
+    }
+
+    /** @return estimated number of distinct values added */
+    long estimate() {
+        double sum = 0;
+        int empty = 0;
+        for (byte register : registers) {
+            sum += Math.scalb(1.0, -register);
+            empty += register == 0 ? 1 : 0;
+        }
+
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        if (estimate <= 2.5 * REGISTERS && empty > 0) {
+            estimate = REGISTERS * Math.log((double) REGISTERS / empty);
+        }
+        return Math.round(estimate);
+    }
+
+    void writeTo(DataOutput output) throws IOException {
+        output.write(registers);
+    }
+
+    /** Merges registers stored by {@link #writeTo(DataOutput)} */
+    void readFrom(DataInput input) throws IOException {
+        byte[] others = new byte[REGISTERS];
+        input.readFully(others);
+        merge(others);
+    }
+}
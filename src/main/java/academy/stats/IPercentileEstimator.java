@@ -0,0 +1,48 @@
+package academy.stats;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/** Accumulates values and answers percentile queries over them */
+public interface IPercentileEstimator {
+    void add(double value);
+
+    /**
+     * @param percentile percentile number, can take values from 0 to 100.
+     * @return percentile of the added values, {@code 0} if nothing was added.
+     */
+    double getPercentile(int percentile);
+
+    /**
+     * @param percentiles percentile numbers, each from 0 to 100.
+     * @return percentiles of the added values in the order of {@code percentiles}.
+     */
+    default double[] getPercentiles(int... percentiles) {
+        double[] result = new double[percentiles.length];
+        for (int i = 0; i < percentiles.length; i++) {
+            result[i] = getPercentile(percentiles[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Adds all values of {@code other} to this estimator.
+     *
+     * @param other estimator of the same type and settings, created by {@link #fork()}.
+     */
+    void merge(IPercentileEstimator other);
+
+    /** @return empty estimator with the same settings */
+    IPercentileEstimator fork();
+
+    /** Writes the state of the estimator, to be restored by {@link #readFrom(DataInput)} */
+    void writeTo(DataOutput output) throws IOException;
+
+    /**
+     * Adds values stored by {@link #writeTo(DataOutput)}, like {@link #merge(IPercentileEstimator)} does.
+     *
+     * @param input state written by an estimator of the same type and settings.
+     */
+    void readFrom(DataInput input) throws IOException;
+}
@@ -0,0 +1,43 @@
+package academy.stats;
+
+import academy.model.ResourceData;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+
+/** Counts requests per resource and answers which resources are requested most */
+public interface IResourceCounter {
+    /** Order of {@link #getTop(int)}: most requested first, resources with equal counts by name */
+    Comparator<ResourceData> ORDER =
+            Comparator.comparingInt(ResourceData::totalRequestsCount).reversed().thenComparing(ResourceData::resource);
+
+    void add(String resource);
+
+    /**
+     * @param limit maximum number of resources.
+     * @return most requested resources in {@link #ORDER}.
+     */
+    List<ResourceData> getTop(int limit);
+
+    /**
+     * Adds all requests counted by {@code other} to this counter.
+     *
+     * @param other counter of the same type and settings, created by {@link #fork()}.
+     */
+    void merge(IResourceCounter other);
+
+    /** @return empty counter with the same settings */
+    IResourceCounter fork();
+
+    /** Writes the state of the counter, to be restored by {@link #readFrom(DataInput)} */
+    void writeTo(DataOutput output) throws IOException;
+
+    /**
+     * Adds requests stored by {@link #writeTo(DataOutput)}, like {@link #merge(IResourceCounter)} does.
+     *
+     * @param input state written by a counter of the same type and settings.
+     */
+    void readFrom(DataInput input) throws IOException;
+}
@@ -0,0 +1,207 @@
+package academy.stats;
+
+import academy.model.ThroughputSeries;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Requests, response bytes and server errors per fixed interval, in parallel primitive arrays indexed by the offset of
+ * the interval from the first one, like {@link DayCounts}. Counting an interval inside the arrays allocates nothing.
+ *
+ * <p>The arrays cover at most {@link #MAX_INTERVALS} intervals, eight years of minutes, so that a single line with a
+ * stray timestamp cannot blow them up: entries that would stretch the series further are left out of it and only
+ * counted in {@link #getDroppedRequests()}. Which entries those are depends on the order they arrive in.
+ */
+final class IntervalCounts {
+    static final int MAX_INTERVALS = 1 << 22;
+
+    private static final int INITIAL_INTERVALS = 64;
+
+    private final int intervalSeconds;
+
+    /** {@code requests[i]} is the count of interval {@code firstInterval + i} */
+    private int[] requests = new int[0];
+
+    private long[] bytes = new long[0];
+    private int[] errors = new int[0];
+    private long firstInterval;
+
+    /** Range of intervals with a request */
+    private long minInterval = Long.MAX_VALUE;
+
+    private long maxInterval = Long.MIN_VALUE;
+
+    /** Requests left out because their interval is too far from the others */
+    private long droppedRequests;
+
+    IntervalCounts(int intervalSeconds) {
+        this.intervalSeconds = intervalSeconds;
+    }
+
+    /**
+     * Counts a request.
+     *
+     * @param epochSecond instant of the request.
+     * @param bytesSent response size.
+     * @param status response status, 5xx are errors.
+     */
+    void add(long epochSecond, double bytesSent, int status) {
+        add(Math.floorDiv(epochSecond, intervalSeconds), 1, (long) bytesSent, status >= 500 ? 1 : 0);
+    }
+
+    private void add(long interval, int requestCount, long bytesSent, int errorCount) {
+        if (!ensureCapacity(interval)) {
+            droppedRequests += requestCount;
+            return;
+        }
+
+        int index = (int) (interval - firstInterval);
+        requests[index] += requestCount;
+        bytes[index] += bytesSent;
+        errors[index] += errorCount;
+        minInterval = Math.min(minInterval, interval);
+        maxInterval = Math.max(maxInterval, interval);
+    }
+
+    int getIntervalSeconds() {
+        return intervalSeconds;
+    }
+
+    boolean isEmpty() {
+        return minInterval > maxInterval;
+    }
+
+    /** @return number of requests left out of the series, see {@link #MAX_INTERVALS} */
+    long getDroppedRequests() {
+        return droppedRequests;
+    }
+
+    /** Adds all counts of {@code other}, which must have the same interval */
+    void merge(IntervalCounts other) {
+        droppedRequests += other.droppedRequests;
+        for (long interval = other.minInterval; interval <= other.maxInterval; interval++) {
+            int index = (int) (interval - other.firstInterval);
+            if (other.requests[index] != 0) {
+                add(interval, other.requests[index], other.bytes[index], other.errors[index]);
+            }
+        }
+    }
+
+    /** @return series from the first to the last interval with a request, {@code null} if there is none */
+    ThroughputSeries toSeries() {
+        if (isEmpty()) {
+            return null;
+        }
+
+        int from = (int) (minInterval - firstInterval);
+        int to = (int) (maxInterval - firstInterval) + 1;
+        ThroughputSeries series = new ThroughputSeries();
+        series.start = Instant.ofEpochSecond(getStartSecond()).toString();
+        series.intervalSeconds = intervalSeconds;
+        series.requests = Arrays.copyOfRange(requests, from, to);
+        series.bytes = Arrays.copyOfRange(bytes, from, to);
+        series.errors = Arrays.copyOfRange(errors, from, to);
+        return series;
+    }
+
+    /** @return start of the first interval with a request in epoch seconds, undefined if there is none */
+    long getStartSecond() {
+        return minInterval * intervalSeconds;
+    }
+
+    /** @return number of intervals from the first to the last one with a request */
+    int getLength() {
+        return isEmpty() ? 0 : (int) (maxInterval - minInterval + 1);
+    }
+
+    /** @param i interval from the first one with a request, below {@link #getLength()} */
+    int getRequests(int i) {
+        return requests[(int) (minInterval - firstInterval) + i];
+    }
+
+    long getBytes(int i) {
+        return bytes[(int) (minInterval - firstInterval) + i];
+    }
+
+    int getErrors(int i) {
+        return errors[(int) (minInterval - firstInterval) + i];
+    }
+
+    void writeTo(DataOutput output) throws IOException {
+        int count = getLength();
+        output.writeLong(droppedRequests);
+        output.writeLong(minInterval);
+        output.writeInt(count);
+        for (int i = 0; i < count; i++) {
+            output.writeInt(getRequests(i));
+            output.writeLong(getBytes(i));
+            output.writeInt(getErrors(i));
+        }
+    }
+
+    /** Adds counts stored by {@link #writeTo(DataOutput)}, like {@link #merge(IntervalCounts)} */
+    void readFrom(DataInput input) throws IOException {
+        droppedRequests += input.readLong();
+        long first = input.readLong();
+        int count = input.readInt();
+        for (int i = 0; i < count; i++) {
+            int requestCount = input.readInt();
+            long bytesSent = input.readLong();
+            int errorCount = input.readInt();
+            if (requestCount != 0) {
+                add(first + i, requestCount, bytesSent, errorCount);
+            }
+        }
+    }
+
+    /** @return whether the interval fits into the arrays, which grow with slack up to {@link #MAX_INTERVALS} */
+    private boolean ensureCapacity(long interval) {
+        if (requests.length == 0) {
+            allocate(interval - INITIAL_INTERVALS / 2, INITIAL_INTERVALS);
+            return true;
+        }
+
+        long lastInterval = firstInterval + requests.length - 1;
+        if (interval >= firstInterval && interval <= lastInterval) {
+            return true;
+        }
+
+        long newFirst = Math.min(minInterval, interval);
+        long newLast = Math.max(maxInterval, interval);
+        long span = newLast - newFirst + 1;
+        if (span > MAX_INTERVALS) {
+            return false;
+        }
+        long slack = Math.min(span / 2, MAX_INTERVALS - span);
+        if (interval < minInterval) {
+            newFirst -= slack;
+        } else {
+            newLast += slack;
+        }
+
+        allocate(newFirst, (int) (newLast - newFirst + 1));
+        return true;
+    }
+
+    private void allocate(long newFirst, int length) {
+        int[] oldRequests = requests;
+        long[] oldBytes = bytes;
+        int[] oldErrors = errors;
+        requests = new int[length];
+        bytes = new long[length];
+        errors = new int[length];
+
+        if (!isEmpty()) {
+            int from = (int) (minInterval - firstInterval);
+            int to = (int) (minInterval - newFirst);
+            int count = (int) (maxInterval - minInterval + 1);
+            System.arraycopy(oldRequests, from, requests, to, count);
+            System.arraycopy(oldBytes, from, bytes, to, count);
+            System.arraycopy(oldErrors, from, errors, to, count);
+        }
+        firstInterval = newFirst;
+    }
+}
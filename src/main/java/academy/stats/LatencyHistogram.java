@@ -0,0 +1,187 @@
+package academy.stats;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Distribution of request times in seconds in a fixed array of log-scale buckets, and the sum in milliseconds, the
+ * resolution of nginx, for an exact average in any merge order.
+ *
+ * <p>Buckets are those of {@link LogHistogram} with 1% relative accuracy, preallocated for times from
+ * {@value #MIN_SECONDS} s to {@value #MAX_SECONDS} s: {@value #BUCKETS} counters, about 7 KB per histogram whatever the
+ * times and their number. Shorter times, {@code 0.000} in nginx, and longer ones are counted in an underflow and an
+ * overflow counter and estimated by the exact minimum and maximum. Adding a time never allocates.
+ */
+class LatencyHistogram {
+    static final double MIN_SECONDS = 0.001;
+    static final double MAX_SECONDS = 86_400;
+
+    private static final double RELATIVE_ACCURACY = 0.01;
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final int MIN_INDEX = index(MIN_SECONDS);
+    private static final int MAX_INDEX = index(MAX_SECONDS);
+    static final int BUCKETS = MAX_INDEX - MIN_INDEX + 1;
+
+    /** {@code counts[i]} is the count of times in bucket {@code MIN_INDEX + i} */
+    private final long[] counts = new long[BUCKETS];
+
+    /** Times below {@link #MIN_SECONDS} */
+    private long underflowCount;
+
+    /** Times above {@link #MAX_SECONDS} */
+    private long overflowCount;
+
+    private long totalCount;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private long totalMillis;
+
+    /** @return bucket {@code ceil(log_γ(seconds))} of a positive time, as in {@link LogHistogram} */
+    private static int index(double seconds) {
+        return (int) Math.ceil(Math.log(seconds) / LOG_GAMMA);
+    }
+
+    void add(double seconds) {
+        totalCount++;
+        min = Math.min(min, seconds);
+        max = Math.max(max, seconds);
+        totalMillis += Math.round(seconds * 1000);
+
+        if (seconds < MIN_SECONDS) {
+            underflowCount++;
+        } else if (seconds > MAX_SECONDS) {
+            overflowCount++;
+        } else {
+            counts[index(seconds) - MIN_INDEX]++;
+        }
+    }
+
+    /** Forgets all times, so that the buckets can be reused without allocating */
+    void clear() {
+        Arrays.fill(counts, 0);
+        underflowCount = 0;
+        overflowCount = 0;
+        totalCount = 0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+        totalMillis = 0;
+    }
+
+    void merge(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        underflowCount += other.underflowCount;
+        overflowCount += other.overflowCount;
+        totalCount += other.totalCount;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        totalMillis += other.totalMillis;
+    }
+
+    /** Writes the counters outside the buckets, the exact extremes, the sum and the non-empty range of buckets */
+    void writeTo(DataOutput output) throws IOException {
+        int first = 0;
+        int last = BUCKETS - 1;
+        while (first <= last && counts[first] == 0) {
+            first++;
+        }
+        while (last >= first && counts[last] == 0) {
+            last--;
+        }
+
+        output.writeLong(underflowCount);
+        output.writeLong(overflowCount);
+        output.writeDouble(min);
+        output.writeDouble(max);
+        output.writeLong(totalMillis);
+        output.writeInt(first);
+        output.writeInt(last - first + 1);
+        for (int i = first; i <= last; i++) {
+            output.writeLong(counts[i]);
+        }
+    }
+
+    /** Adds times stored by {@link #writeTo(DataOutput)}, like {@link #merge(LatencyHistogram)} */
+    void readFrom(DataInput input) throws IOException {
+        long underflow = input.readLong();
+        long overflow = input.readLong();
+        underflowCount += underflow;
+        overflowCount += overflow;
+        totalCount += underflow + overflow;
+        min = Math.min(min, input.readDouble());
+        max = Math.max(max, input.readDouble());
+        totalMillis += input.readLong();
+
+        int first = input.readInt();
+        int length = input.readInt();
+        if (first < 0 || length < 0 || length > BUCKETS - first) {
+            throw new IOException("Buckets %d to %d are out of the histogram".formatted(first, first + length - 1));
+        }
+        for (int i = first; i < first + length; i++) {
+            long count = input.readLong();
+            counts[i] += count;
+            totalCount += count;
+        }
+    }
+
+    long getCount() {
+        return totalCount;
+    }
+
+    double getAverage() {
+        return totalCount == 0 ? 0 : totalMillis / 1000.0 / totalCount;
+    }
+
+    /** @return the largest time, exact, or {@code 0} if nothing was added */
+    double getMax() {
+        return totalCount == 0 ? 0 : max;
+    }
+
+    /**
+     * @return percentile interpolated between the two estimated times around the rank, like
+     *     {@link LogHistogram#getPercentile(int)}, within 1% of the exact one inside the bucket range and not rounded.
+     */
+    double getPercentile(int percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100");
+        }
+
+        if (totalCount == 0) {
+            return 0;
+        }
+
+        double rank = percentile / 100.0 * (totalCount - 1);
+        long lowerRank = (long) Math.floor(rank);
+        long upperRank = (long) Math.ceil(rank);
+
+        double lowerValue = valueAtRank(lowerRank);
+        double upperValue = lowerRank == upperRank ? lowerValue : valueAtRank(upperRank);
+        double weight = rank - lowerRank;
+
+        return lowerValue + (upperValue - lowerValue) * weight;
+    }
+
+    /** @return estimated {@code rank}-th shortest time, the shortest and the longest ones are exact */
+    private double valueAtRank(long rank) {
+        if (rank == 0 || rank < underflowCount) {
+            return min;
+        }
+        if (rank == totalCount - 1) {
+            return max;
+        }
+
+        long seen = underflowCount;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (rank < seen) {
+                double estimate = 2 * Math.pow(GAMMA, MIN_INDEX + i) / (GAMMA + 1);
+                return Math.min(max, Math.max(min, estimate));
+            }
+        }
+        return max;
+    }
+}
@@ -0,0 +1,224 @@
+package academy.stats;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Mergeable log-scale histogram with bounded relative error, bucketed the same way as DDSketch.
+ *
+ * <p>A positive value {@code x} is counted in bucket {@code i = ceil(log_γ(x))}, {@code γ = (1 + α) / (1 - α)}, and is
+ * estimated as {@code 2γ^i / (γ + 1)}, which is within relative error {@code α} of every value of the bucket.
+ * Percentiles interpolate between the two estimated order statistics around the rank, like
+ * {@link MetricsCalculator#calculatePercentile}, so before rounding a result is within {@code α} of the exact one.
+ * Values below {@value #MIN_INDEXABLE_VALUE} are counted as zero.
+ *
+ * <p>Memory depends only on the ratio of the largest to the smallest positive value, not on the number of values: with
+ * {@code α = 1%} sizes from 1 B to 1 TB fit into 1 400 counters.
+ */
+public class LogHistogram implements IPercentileEstimator {
+    public static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+
+    private static final double MIN_INDEXABLE_VALUE = 1e-9;
+    private static final int INITIAL_BUCKETS = 64;
+
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+
+    /** {@code counts[i]} is the count of bucket {@code offset + i} */
+    private long[] counts = new long[0];
+
+    private int offset;
+    private long zeroCount;
+    private long totalCount;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public LogHistogram() {
+        this(DEFAULT_RELATIVE_ACCURACY);
+    }
+
+    /** @param relativeAccuracy relative error bound {@code α}, between 0 and 1 exclusive */
+    public LogHistogram(double relativeAccuracy) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+            throw new IllegalArgumentException("Relative accuracy must be between 0 and 1: " + relativeAccuracy);
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        logGamma = Math.log(gamma);
+    }
+
+    @Override
+    public void add(double value) {
+        totalCount++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+
+        if (value < MIN_INDEXABLE_VALUE) {
+            zeroCount++;
+            return;
+        }
+
+        int index = (int) Math.ceil(Math.log(value) / logGamma);
+        ensureCapacity(index, index);
+        counts[index - offset]++;
+    }
+
+    @Override
+    public double getPercentile(int percentile) {
+        return MetricsCalculator.roundToTwoDecimalPlaces(estimatePercentile(percentile));
+    }
+
+    /** @return percentile like {@link #getPercentile(int)} without rounding */
+    private double estimatePercentile(int percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100");
+        }
+
+        if (totalCount == 0) {
+            return 0;
+        }
+
+        double rank = percentile / 100.0 * (totalCount - 1);
+        long lowerRank = (long) Math.floor(rank);
+        long upperRank = (long) Math.ceil(rank);
+
+        double lowerValue = valueAtRank(lowerRank);
+        double upperValue = lowerRank == upperRank ? lowerValue : valueAtRank(upperRank);
+        double weight = rank - lowerRank;
+
+        return lowerValue + (upperValue - lowerValue) * weight;
+    }
+
+    @Override
+    public void merge(IPercentileEstimator other) {
+        LogHistogram histogram = (LogHistogram) other;
+        if (histogram.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("Cannot merge histograms with different accuracy");
+        }
+        if (histogram.totalCount == 0) {
+            return;
+        }
+
+        totalCount += histogram.totalCount;
+        zeroCount += histogram.zeroCount;
+        min = Math.min(min, histogram.min);
+        max = Math.max(max, histogram.max);
+
+        if (histogram.counts.length > 0) {
+            ensureCapacity(histogram.offset, histogram.offset + histogram.counts.length - 1);
+            for (int i = 0; i < histogram.counts.length; i++) {
+                counts[histogram.offset + i - offset] += histogram.counts[i];
+            }
+        }
+    }
+
+    @Override
+    public IPercentileEstimator fork() {
+        return new LogHistogram(relativeAccuracy);
+    }
+
+    /** Writes the accuracy, the non-empty range of buckets, the zero count and the exact extremes */
+    @Override
+    public void writeTo(DataOutput output) throws IOException {
+        int first = 0;
+        int last = counts.length - 1;
+        while (first <= last && counts[first] == 0) {
+            first++;
+        }
+        while (last >= first && counts[last] == 0) {
+            last--;
+        }
+
+        output.writeDouble(relativeAccuracy);
+        output.writeLong(totalCount);
+        output.writeLong(zeroCount);
+        output.writeDouble(min);
+        output.writeDouble(max);
+        output.writeInt(offset + first);
+        output.writeInt(last - first + 1);
+        for (int i = first; i <= last; i++) {
+            output.writeLong(counts[i]);
+        }
+    }
+
+    @Override
+    public void readFrom(DataInput input) throws IOException {
+        LogHistogram histogram = new LogHistogram(input.readDouble());
+        histogram.totalCount = input.readLong();
+        histogram.zeroCount = input.readLong();
+        histogram.min = input.readDouble();
+        histogram.max = input.readDouble();
+        histogram.offset = input.readInt();
+        histogram.counts = new long[input.readInt()];
+        for (int i = 0; i < histogram.counts.length; i++) {
+            histogram.counts[i] = input.readLong();
+        }
+        merge(histogram);
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /** @return the largest value, exact, or {@code 0} if nothing was added */
+    public double getMax() {
+        return totalCount == 0 ? 0 : max;
+    }
+
+    /** @return estimated value of the {@code rank}-th smallest value, the smallest and the largest ones are exact */
+    private double valueAtRank(long rank) {
+        if (rank == 0) {
+            return min;
+        }
+        if (rank == totalCount - 1) {
+            return max;
+        }
+        if (rank < zeroCount) {
+            return Math.max(min, 0);
+        }
+
+        long seen = zeroCount;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (rank < seen) {
+                double estimate = 2 * Math.pow(gamma, offset + i) / (gamma + 1);
+                return Math.min(max, Math.max(min, estimate));
+            }
+        }
+        return max;
+    }
+
+    private void ensureCapacity(int lowIndex, int highIndex) {
+        if (counts.length == 0) {
+            int size = Math.max(INITIAL_BUCKETS, highIndex - lowIndex + 1);
+            counts = new long[size];
+            offset = lowIndex - (size - (highIndex - lowIndex + 1)) / 2;
+            return;
+        }
+
+        int currentHigh = offset + counts.length - 1;
+        if (lowIndex >= offset && highIndex <= currentHigh) {
+            return;
+        }
+
+        int newLow = Math.min(offset, lowIndex);
+        int newHigh = Math.max(currentHigh, highIndex);
+        int slack = (newHigh - newLow + 1) / 2;
+        newLow = lowIndex < offset ? newLow - slack : newLow;
+        newHigh = highIndex > currentHigh ? newHigh + slack : newHigh;
+
+        long[] grown = new long[newHigh - newLow + 1];
+        System.arraycopy(counts, 0, grown, offset - newLow, counts.length);
+        counts = grown;
+        offset = newLow;
+    }
+
+    @Override
+    public String toString() {
+        return "LogHistogram{accuracy=%s, count=%d, buckets=%s}"
+                .formatted(relativeAccuracy, totalCount, Arrays.toString(counts));
+    }
+}
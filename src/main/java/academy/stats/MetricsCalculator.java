@@ -54,7 +54,12 @@ public class MetricsCalculator {
         return roundToTwoDecimalPlaces(result);
     }
 
-    private static double roundToTwoDecimalPlaces(double value) {
+    static double roundToTwoDecimalPlaces(double value) {
         return Math.round(value * 100) / 100.0;
     }
+
+    /** Times are logged with millisecond resolution, so they keep three decimal places */
+    static double roundToThreeDecimalPlaces(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
 }
@@ -0,0 +1,314 @@
+package academy.stats;
+
+import academy.model.ResourceData;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving heavy-hitters sketch with a fixed number of counters.
+ *
+ * <p>A resource without a counter takes over the counter with the smallest count {@code min} and continues from
+ * {@code min + 1}, so counts never underestimate and overestimate by at most {@code N / capacity} for {@code N}
+ * requests. Every resource requested more than {@code N / capacity} times has a counter. While there are no more
+ * distinct resources than counters all counts are exact.
+ *
+ * <p>Counters are grouped into buckets of equal count kept in ascending order (the stream-summary structure), so both
+ * incrementing and finding the smallest counter take constant time.
+ *
+ * <p>{@link #merge(IResourceCounter)} adds counts of the same resources. A resource missing from a full sketch may have
+ * been requested up to its smallest count, which is added to keep counts upper bounds, then the largest
+ * {@code capacity} counters are kept. The error bound holds for the merged total, and the result does not depend on how
+ * the input was split while the distinct resources fit into the counters.
+ */
+public class SpaceSavingCounter implements IResourceCounter {
+    public static final double DEFAULT_ERROR = 1e-4;
+
+    private static final Comparator<Counter> LARGEST_FIRST = Comparator.comparingInt((Counter counter) -> counter.count)
+            .reversed()
+            .thenComparing(counter -> counter.resource);
+
+    private static final class Counter {
+        private String resource;
+        private int count;
+        /** Upper bound of the overestimation of {@link #count} */
+        private int error;
+
+        private Bucket bucket;
+        private Counter previous;
+        private Counter next;
+
+        private Counter(String resource, int count, int error) {
+            this.resource = resource;
+            this.count = count;
+            this.error = error;
+        }
+    }
+
+    private static final class Bucket {
+        private int count;
+        private Counter first;
+        private Bucket previous;
+        private Bucket next;
+
+        private Bucket(int count) {
+            this.count = count;
+        }
+    }
+
+    private final int capacity;
+    private final Map<String, Counter> counters;
+    /** Bucket of the smallest count, the head of the ascending list */
+    private Bucket smallest;
+
+    /**
+     * Buckets removed from the list, linked through {@link Bucket#next} and reused before allocating new ones. There
+     * are never more buckets than counters, so counting a tracked resource allocates nothing once the sketch has warmed
+     * up.
+     */
+    private Bucket freeBuckets;
+
+    /** @param capacity number of counters, must be positive */
+    public SpaceSavingCounter(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Number of counters must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        counters = new HashMap<>(Math.min(capacity, 1 << 16) * 2);
+    }
+
+    /**
+     * @param error bound of the overestimation of counts relative to the number of requests, between 0 and 1 exclusive.
+     * @return number of counters that guarantees the bound.
+     */
+    public static int capacityFor(double error) {
+        if (!(error > 0 && error < 1)) {
+            throw new IllegalArgumentException("Resource count error must be between 0 and 1: " + error);
+        }
+        return (int) Math.min(Integer.MAX_VALUE - 8, Math.ceil(1 / error));
+    }
+
+    @Override
+    public void add(String resource) {
+        addEvicting(resource);
+    }
+
+    /**
+     * Counts the resource like {@link #add(String)}.
+     *
+     * @return resource whose counter the resource took over, {@code null} if it had a counter or one was free.
+     */
+    public String addEvicting(String resource) {
+        Counter counter = counters.get(resource);
+        if (counter != null) {
+            increment(counter);
+            return null;
+        }
+
+        if (counters.size() < capacity) {
+            counter = new Counter(resource, 1, 0);
+            if (smallest == null || smallest.count != 1) {
+                Bucket bucket = newBucket(1);
+                bucket.next = smallest;
+                if (smallest != null) {
+                    smallest.previous = bucket;
+                }
+                smallest = bucket;
+            }
+            attach(counter, smallest);
+            counters.put(resource, counter);
+            return null;
+        }
+
+        counter = smallest.first;
+        String evicted = counter.resource;
+        counters.remove(evicted);
+        counter.resource = resource;
+        counter.error = counter.count;
+        counters.put(resource, counter);
+        increment(counter);
+        return evicted;
+    }
+
+    /** @return whether the resource has a counter, resources requested rarely are forgotten */
+    public boolean contains(String resource) {
+        return counters.containsKey(resource);
+    }
+
+    private void increment(Counter counter) {
+        Bucket current = counter.bucket;
+        Bucket target = current.next;
+        if (target == null || target.count != counter.count + 1) {
+            target = newBucket(counter.count + 1);
+            target.previous = current;
+            target.next = current.next;
+            if (current.next != null) {
+                current.next.previous = target;
+            }
+            current.next = target;
+        }
+
+        detach(counter);
+        counter.count++;
+        attach(counter, target);
+    }
+
+    private Bucket newBucket(int count) {
+        if (freeBuckets == null) {
+            return new Bucket(count);
+        }
+
+        Bucket bucket = freeBuckets;
+        freeBuckets = bucket.next;
+        bucket.count = count;
+        bucket.first = null;
+        bucket.previous = null;
+        bucket.next = null;
+        return bucket;
+    }
+
+    private static void attach(Counter counter, Bucket bucket) {
+        counter.bucket = bucket;
+        counter.previous = null;
+        counter.next = bucket.first;
+        if (bucket.first != null) {
+            bucket.first.previous = counter;
+        }
+        bucket.first = counter;
+    }
+
+    /** Removes the counter from its bucket, and the bucket from the list once it is empty */
+    private void detach(Counter counter) {
+        Bucket bucket = counter.bucket;
+        if (counter.previous != null) {
+            counter.previous.next = counter.next;
+        } else {
+            bucket.first = counter.next;
+        }
+        if (counter.next != null) {
+            counter.next.previous = counter.previous;
+        }
+
+        if (bucket.first == null) {
+            if (bucket.previous != null) {
+                bucket.previous.next = bucket.next;
+            } else {
+                smallest = bucket.next;
+            }
+            if (bucket.next != null) {
+                bucket.next.previous = bucket.previous;
+            }
+            bucket.previous = null;
+            bucket.next = freeBuckets;
+            freeBuckets = bucket;
+        }
+    }
+
+    @Override
+    public List<ResourceData> getTop(int limit) {
+        TopSelection top = new TopSelection(limit);
+        for (Counter counter : counters.values()) {
+            top.offer(counter.resource, counter.count);
+        }
+        return top.toList();
+    }
+
+    @Override
+    public void merge(IResourceCounter other) {
+        merge(((SpaceSavingCounter) other).counters.values(), ((SpaceSavingCounter) other).missingCount());
+    }
+
+    /**
+     * @param others counters of another sketch.
+     * @param othersMissing count of resources the other sketch may have missed.
+     */
+    private void merge(Iterable<Counter> others, int othersMissing) {
+        int missing = missingCount();
+        Map<String, Counter> combined = new HashMap<>();
+        for (Counter counter : counters.values()) {
+            combined.put(
+                    counter.resource,
+                    new Counter(counter.resource, counter.count + othersMissing, counter.error + othersMissing));
+        }
+        for (Counter counter : others) {
+            Counter known = combined.get(counter.resource);
+            if (known != null) {
+                known.count += counter.count - othersMissing;
+                known.error += counter.error - othersMissing;
+            } else {
+                combined.put(
+                        counter.resource,
+                        new Counter(counter.resource, counter.count + missing, counter.error + missing));
+            }
+        }
+
+        List<Counter> kept = new ArrayList<>(combined.values());
+        kept.sort(LARGEST_FIRST);
+        rebuild(kept.subList(0, Math.min(capacity, kept.size())));
+    }
+
+    /** @return count a resource without a counter may have, the smallest count once all counters are taken */
+    private int missingCount() {
+        return counters.size() < capacity ? 0 : smallest.count;
+    }
+
+    /** @param kept counters in {@link #LARGEST_FIRST} order */
+    private void rebuild(List<Counter> kept) {
+        counters.clear();
+        smallest = null;
+
+        for (Counter counter : kept) {
+            if (smallest == null || smallest.count != counter.count) {
+                Bucket bucket = new Bucket(counter.count);
+                bucket.next = smallest;
+                if (smallest != null) {
+                    smallest.previous = bucket;
+                }
+                smallest = bucket;
+            }
+            attach(counter, smallest);
+            counters.put(counter.resource, counter);
+        }
+    }
+
+    @Override
+    public IResourceCounter fork() {
+        return new SpaceSavingCounter(capacity);
+    }
+
+    @Override
+    public void writeTo(DataOutput output) throws IOException {
+        output.writeInt(missingCount());
+        output.writeInt(counters.size());
+        for (Counter counter : counters.values()) {
+            StatsAggregate.writeString(output, counter.resource);
+            output.writeInt(counter.count);
+            output.writeInt(counter.error);
+        }
+    }
+
+    @Override
+    public void readFrom(DataInput input) throws IOException {
+        int othersMissing = input.readInt();
+        int size = input.readInt();
+        List<Counter> others = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            others.add(new Counter(StatsAggregate.readString(input), input.readInt(), input.readInt()));
+        }
+        merge(others, othersMissing);
+    }
+
+    /**
+     * @param resource resource to look up.
+     * @return upper bound of the overestimation of the count of the resource, {@code -1} if it has no counter.
+     */
+    public int getError(String resource) {
+        Counter counter = counters.get(resource);
+        return counter == null ? -1 : counter.error;
+    }
+}
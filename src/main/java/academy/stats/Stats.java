@@ -1,9 +1,14 @@
 package academy.stats;
 
+import academy.model.ClientData;
+import academy.model.HostData;
 import academy.model.RequestData;
 import academy.model.ResourceData;
+import academy.model.ResourceResponseTime;
 import academy.model.ResponseCode;
 import academy.model.ResponseSizeInBytes;
+import academy.model.ResponseTimeInSeconds;
+import academy.model.ThroughputSeries;
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import java.util.ArrayList;
@@ -11,7 +16,14 @@ import java.util.List;
 import lombok.Getter;
 import lombok.Setter;
 
-/** Statistics on requests. Serializable object */
+/**
+ * Statistics on requests. Serializable object
+ *
+ * <p>Request and upstream times, request times of the top resources and hosts are {@code null} unless the log format
+ * has {@code $request_time}, {@code $upstream_response_time} or {@code $host}. Clients are {@code null} unless they are
+ * collected, the number of unique clients is an estimate within about 1%. The throughput series is {@code null} unless
+ * it is collected.
+ */
 @Setter
 @Getter
 @JsonInclude(JsonInclude.Include.NON_NULL)
@@ -24,4 +36,12 @@ public class Stats {
     private List<ResponseCode> responseCodes = new ArrayList<>();
     private List<RequestData> requestsPerDate = new ArrayList<>();
     private List<String> uniqueProtocols = new ArrayList<>();
+    private ResponseTimeInSeconds requestTime;
+    private ResponseTimeInSeconds upstreamResponseTime;
+    private List<ResourceResponseTime> resourceResponseTimes;
+    private List<HostData> hosts;
+    private Long uniqueClients;
+    private List<ClientData> clientsByRequests;
+    private List<ClientData> clientsByBytes;
+    private ThroughputSeries throughput;
 }
@@ -0,0 +1,389 @@
+package academy.stats;
+
+import academy.model.LogFields;
+import academy.model.ResourceData;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Mergeable state behind {@link Stats}: counts, response sizes, request and upstream times, per-resource, per-host,
+ * per-client, per-status, per-date and per-interval counters, protocols and files.
+ *
+ * <p>{@link #merge(StatsAggregate)} is associative, so an input may be split into any number of consecutive parts,
+ * aggregated separately and merged back in any grouping as long as the parts keep their order. The result equals a
+ * single pass over the whole input; only the order of {@link #getFiles() files} depends on the order of the parts.
+ * Approximate resource counts keep this property only while the distinct resources fit into the sketch, see
+ * {@link SpaceSavingCounter}. The throughput series keeps it only while the entries span at most
+ * {@link IntervalCounts#MAX_INTERVALS} intervals, beyond that which entries are left out of it depends on their order.
+ * Request times per resource keep it only while the distinct timed resources fit into their candidate sketch.
+ */
+public class StatsAggregate {
+    private final List<String> files = new ArrayList<>();
+    private int totalRequestsCount;
+    private double totalResponseSize;
+    private double maxResponseSize;
+    private final IPercentileEstimator responseSizes;
+    private final IResourceCounter resourceCounts;
+    private final StatusCounts responseCodeCounts = new StatusCounts();
+    private final DayCounts requestsPerDate = new DayCounts();
+    private final Set<String> uniqueProtocols = new HashSet<>();
+    private final StringCounts hostCounts = new StringCounts();
+
+    /** {@code $request_time} and {@code $upstream_response_time} of the entries that have them */
+    private final LatencyHistogram requestTimes = new LatencyHistogram();
+
+    private final LatencyHistogram upstreamTimes = new LatencyHistogram();
+
+    /**
+     * Resources most often requested by entries with {@code $request_time}, the candidates for the top resources whose
+     * request times are reported. The sketch is sized from the top, see
+     * {@link StatsOptions#createTimedResourceCounter()}, so the candidates are bounded whatever the resource count mode
+     * and the number of distinct resources.
+     */
+    private final SpaceSavingCounter timedResources;
+
+    /**
+     * {@code $request_time} of every resource of {@link #timedResources} since it last got a counter there. The
+     * histogram of a resource that loses its counter is reused for the resource that takes it over.
+     */
+    private final Map<String, LatencyHistogram> resourceRequestTimes = new HashMap<>();
+
+    /** Requests and bytes per {@code $remote_addr}, {@code null} unless {@link StatsOptions#isClients()} */
+    private final ClientCounts clientCounts;
+
+    /** Throughput per interval, {@code null} unless {@link StatsOptions#getSeriesInterval()} is set */
+    private final IntervalCounts intervalCounts;
+
+    public StatsAggregate(StatsOptions options) {
+        this(
+                options.createPercentileEstimator(),
+                options.createResourceCounter(),
+                options.createTimedResourceCounter(),
+                options.isClients() ? new ClientCounts() : null,
+                options.getSeriesInterval() == null
+                        ? null
+                        : new IntervalCounts(options.getSeriesInterval().getSeconds()));
+    }
+
+    private StatsAggregate(
+            IPercentileEstimator responseSizes,
+            IResourceCounter resourceCounts,
+            SpaceSavingCounter timedResources,
+            ClientCounts clientCounts,
+            IntervalCounts intervalCounts) {
+        this.responseSizes = responseSizes;
+        this.resourceCounts = resourceCounts;
+        this.timedResources = timedResources;
+        this.clientCounts = clientCounts;
+        this.intervalCounts = intervalCounts;
+    }
+
+    /**
+     * Counts a log entry.
+     *
+     * @param fields fields of the entry, {@code timeLocal} must not be {@code null}.
+     */
+    public void add(LogFields fields) {
+        totalRequestsCount++;
+        requestsPerDate.increment(fields.timeLocal());
+
+        double responseSize = fields.bodyBytesSent();
+        maxResponseSize = Math.max(maxResponseSize, responseSize);
+        totalResponseSize += responseSize;
+        responseSizes.add(responseSize);
+
+        responseCodeCounts.increment(fields.status());
+        resourceCounts.add(fields.requestResource());
+
+        String protocol = fields.requestProtocol();
+        if (protocol != null) {
+            uniqueProtocols.add(protocol);
+        }
+
+        double requestTime = fields.requestTime();
+        if (!Double.isNaN(requestTime)) {
+            requestTimes.add(requestTime);
+            addResourceRequestTime(fields.requestResource(), requestTime);
+        }
+        double upstreamTime = fields.upstreamResponseTime();
+        if (!Double.isNaN(upstreamTime)) {
+            upstreamTimes.add(upstreamTime);
+        }
+        if (fields.host() != null) {
+            hostCounts.increment(fields.host());
+        }
+        if (clientCounts != null) {
+            clientCounts.add(fields.remoteAddress(), responseSize);
+        }
+        if (intervalCounts != null && fields.epochSecond() != LogFields.NO_EPOCH_SECOND) {
+            intervalCounts.add(fields.epochSecond(), responseSize, fields.status());
+        }
+    }
+
+    public void addFile(String fileName) {
+        files.add(fileName);
+    }
+
+    /**
+     * Adds everything aggregated by {@code other} to this aggregate, {@code other} is left unchanged. Response sizes
+     * are whole numbers and times are summed in milliseconds, the resolution of nginx, so their sums are exact in any
+     * grouping, and time histograms only add bucket counts.
+     *
+     * @param other aggregate of the input that follows this one, created by {@link #fork()} or with the same options.
+     */
+    public void merge(StatsAggregate other) {
+        files.addAll(other.files);
+        totalRequestsCount += other.totalRequestsCount;
+        totalResponseSize += other.totalResponseSize;
+        maxResponseSize = Math.max(maxResponseSize, other.maxResponseSize);
+        responseSizes.merge(other.responseSizes);
+        resourceCounts.merge(other.resourceCounts);
+        responseCodeCounts.merge(other.responseCodeCounts);
+        requestsPerDate.merge(other.requestsPerDate);
+        uniqueProtocols.addAll(other.uniqueProtocols);
+        hostCounts.merge(other.hostCounts);
+        requestTimes.merge(other.requestTimes);
+        upstreamTimes.merge(other.upstreamTimes);
+        timedResources.merge(other.timedResources);
+        other.resourceRequestTimes.forEach(this::mergeResourceRequestTimes);
+        dropForgottenResourceTimes();
+        if (clientCounts != null) {
+            clientCounts.merge(other.clientCounts);
+        }
+        if (intervalCounts != null) {
+            intervalCounts.merge(other.intervalCounts);
+        }
+    }
+
+    /** @return empty aggregate with the same settings */
+    public StatsAggregate fork() {
+        return new StatsAggregate(
+                responseSizes.fork(),
+                resourceCounts.fork(),
+                (SpaceSavingCounter) timedResources.fork(),
+                clientCounts == null ? null : new ClientCounts(),
+                intervalCounts == null ? null : new IntervalCounts(intervalCounts.getIntervalSeconds()));
+    }
+
+    /** Writes the whole state, to be restored by {@link #readFrom(DataInput, StatsOptions)} */
+    public void writeTo(DataOutput output) throws IOException {
+        output.writeInt(files.size());
+        for (String file : files) {
+            writeString(output, file);
+        }
+
+        output.writeInt(totalRequestsCount);
+        output.writeDouble(totalResponseSize);
+        output.writeDouble(maxResponseSize);
+        responseSizes.writeTo(output);
+
+        resourceCounts.writeTo(output);
+        responseCodeCounts.writeTo(output);
+        requestsPerDate.writeTo(output);
+        output.writeInt(uniqueProtocols.size());
+        for (String protocol : uniqueProtocols) {
+            writeString(output, protocol);
+        }
+        hostCounts.writeTo(output);
+
+        requestTimes.writeTo(output);
+        upstreamTimes.writeTo(output);
+        timedResources.writeTo(output);
+        output.writeInt(resourceRequestTimes.size());
+        for (Map.Entry<String, LatencyHistogram> entry : resourceRequestTimes.entrySet()) {
+            writeString(output, entry.getKey());
+            entry.getValue().writeTo(output);
+        }
+        if (clientCounts != null) {
+            clientCounts.writeTo(output);
+        }
+        if (intervalCounts != null) {
+            intervalCounts.writeTo(output);
+        }
+    }
+
+    /**
+     * Restores an aggregate written by {@link #writeTo(DataOutput)}.
+     *
+     * @param options settings the aggregate was created with.
+     */
+    public static StatsAggregate readFrom(DataInput input, StatsOptions options) throws IOException {
+        StatsAggregate aggregate = new StatsAggregate(options);
+
+        int filesCount = input.readInt();
+        for (int i = 0; i < filesCount; i++) {
+            aggregate.files.add(readString(input));
+        }
+
+        aggregate.totalRequestsCount = input.readInt();
+        aggregate.totalResponseSize = input.readDouble();
+        aggregate.maxResponseSize = input.readDouble();
+        aggregate.responseSizes.readFrom(input);
+
+        aggregate.resourceCounts.readFrom(input);
+        aggregate.responseCodeCounts.readFrom(input);
+        aggregate.requestsPerDate.readFrom(input);
+        int protocolsCount = input.readInt();
+        for (int i = 0; i < protocolsCount; i++) {
+            aggregate.uniqueProtocols.add(readString(input));
+        }
+        aggregate.hostCounts.readFrom(input);
+
+        aggregate.requestTimes.readFrom(input);
+        aggregate.upstreamTimes.readFrom(input);
+        aggregate.timedResources.readFrom(input);
+        int timedResourcesCount = input.readInt();
+        for (int i = 0; i < timedResourcesCount; i++) {
+            String resource = readString(input);
+            LatencyHistogram times = new LatencyHistogram();
+            times.readFrom(input);
+            aggregate.mergeResourceRequestTimes(resource, times);
+        }
+        aggregate.dropForgottenResourceTimes();
+        if (aggregate.clientCounts != null) {
+            aggregate.clientCounts.readFrom(input);
+        }
+        if (aggregate.intervalCounts != null) {
+            aggregate.intervalCounts.readFrom(input);
+        }
+        return aggregate;
+    }
+
+    private void addResourceRequestTime(String resource, double requestTime) {
+        String evicted = timedResources.addEvicting(resource);
+        LatencyHistogram times = resourceRequestTimes.get(resource);
+        if (times == null) {
+            times = evicted == null ? null : resourceRequestTimes.remove(evicted);
+            if (times == null) {
+                times = new LatencyHistogram();
+            } else {
+                times.clear();
+            }
+            resourceRequestTimes.put(resource, times);
+        }
+        times.add(requestTime);
+    }
+
+    /** Adds times of a resource of another aggregate, once {@link #timedResources} includes the other candidates */
+    private void mergeResourceRequestTimes(String resource, LatencyHistogram times) {
+        if (timedResources.contains(resource)) {
+            resourceRequestTimes
+                    .computeIfAbsent(resource, key -> new LatencyHistogram())
+                    .merge(times);
+        }
+    }
+
+    /** Drops times of resources that lost their counter in a merge of {@link #timedResources} */
+    private void dropForgottenResourceTimes() {
+        resourceRequestTimes.keySet().removeIf(resource -> !timedResources.contains(resource));
+    }
+
+    /** Unlike {@link DataOutput#writeUTF(String)}, has no 64 KB limit, request lines may be longer */
+    static void writeString(DataOutput output, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    static String readString(DataInput input) throws IOException {
+        byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public List<String> getFiles() {
+        return Collections.unmodifiableList(files);
+    }
+
+    public int getTotalRequestsCount() {
+        return totalRequestsCount;
+    }
+
+    public double getTotalResponseSize() {
+        return totalResponseSize;
+    }
+
+    public double getMaxResponseSize() {
+        return maxResponseSize;
+    }
+
+    public double getResponseSizePercentile(int percentile) {
+        return responseSizes.getPercentile(percentile);
+    }
+
+    /** @return most requested resources, see {@link IResourceCounter#getTop(int)} */
+    public List<ResourceData> getTopResources(int limit) {
+        return resourceCounts.getTop(limit);
+    }
+
+    /** @return snapshot of the counts, built on every call */
+    public Map<Integer, Integer> getResponseCodeCounts() {
+        Map<Integer, Integer> counts = new HashMap<>();
+        responseCodeCounts.forEach(counts::put);
+        return counts;
+    }
+
+    /** @return snapshot of the counts, built on every call */
+    public Map<LocalDate, Integer> getRequestsPerDate() {
+        Map<LocalDate, Integer> counts = new HashMap<>();
+        requestsPerDate.forEach((epochDay, count) -> counts.put(LocalDate.ofEpochDay(epochDay), count));
+        return counts;
+    }
+
+    /** Visits days with requests in ascending order without a snapshot */
+    void forEachRequestsPerDate(DayCounts.DayConsumer action) {
+        requestsPerDate.forEach(action);
+    }
+
+    public Set<String> getUniqueProtocols() {
+        return Collections.unmodifiableSet(uniqueProtocols);
+    }
+
+    /** @return snapshot of the counts, built on every call */
+    public Map<String, Integer> getHostCounts() {
+        Map<String, Integer> counts = new HashMap<>();
+        hostCounts.forEach((host, count) -> counts.put(host, (int) count));
+        return counts;
+    }
+
+    LatencyHistogram getRequestTimes() {
+        return requestTimes;
+    }
+
+    LatencyHistogram getUpstreamTimes() {
+        return upstreamTimes;
+    }
+
+    /**
+     * @return request times of the resource, {@code null} if none of its entries had one or it is not among the
+     *     candidates.
+     */
+    LatencyHistogram getRequestTimes(String resource) {
+        return resourceRequestTimes.get(resource);
+    }
+
+    /** @return number of resources whose request times are kept */
+    int getTimedResourceCount() {
+        return resourceRequestTimes.size();
+    }
+
+    /** @return counts per client, {@code null} unless they are collected */
+    ClientCounts getClientCounts() {
+        return clientCounts;
+    }
+
+    /** @return counts per interval, {@code null} unless they are collected */
+    IntervalCounts getIntervalCounts() {
+        return intervalCounts;
+    }
+}
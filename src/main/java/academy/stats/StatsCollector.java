@@ -1,12 +1,17 @@
 package academy.stats;
 
 import static academy.stats.MetricsCalculator.*;
-import static java.lang.Math.max;
 
+import academy.model.DateRange;
+import academy.model.HostData;
 import academy.model.LogFields;
 import academy.model.RequestData;
 import academy.model.ResourceData;
+import academy.model.ResourceResponseTime;
 import academy.model.ResponseCode;
+import academy.model.ResponseTimeInSeconds;
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.format.TextStyle;
 import java.util.*;
@@ -17,93 +22,140 @@ import org.apache.logging.log4j.Logger;
 public class StatsCollector {
     private static final Logger LOGGER = LogManager.getLogger(StatsCollector.class);
 
-    private final Stats stats = new Stats();
+    private final StatsAggregate aggregate;
+    private final int topResources;
 
-    private double totalResponseSizeInBytes = 0;
-    private final List<Double> allResponseSizes = new ArrayList<>();
-    private final Map<String, Integer> resourceCounts = new HashMap<>();
-    private final Map<Integer, Integer> responseCodeCounts = new HashMap<>();
-    private final Map<LocalDate, Integer> requestsPerDate = new HashMap<>();
-    private final Set<String> uniqueProtocols = new HashSet<>();
-
-    private final LocalDate from;
-    private final LocalDate to;
+    private final DateRange range;
 
     /**
      * @param from lower time limit
      * @param to upper time limit
      */
     public StatsCollector(LocalDate from, LocalDate to) {
+        this(from, to, StatsOptions.builder().build());
+    }
+
+    /**
+     * @param from lower time limit
+     * @param to upper time limit
+     * @param options how the statistics are calculated
+     */
+    public StatsCollector(LocalDate from, LocalDate to, StatsOptions options) {
         LOGGER.debug("Creating StatsCollector with date range: from={}, to={}", from, to);
-        this.from = Objects.requireNonNullElse(from, LocalDate.MIN);
-        this.to = Objects.requireNonNullElse(to, LocalDate.MAX);
-        LOGGER.info("StatsCollector initialized with effective range: {} to {}", this.from, this.to);
+        this.range = DateRange.of(from, to);
+        this.aggregate = new StatsAggregate(options);
+        this.topResources = options.getTopResources();
+        LOGGER.info("StatsCollector initialized with effective range: {} to {}", range.from(), range.to());
     }
 
-    private void aggregateStats() {
+    private StatsCollector(StatsCollector prototype) {
+        this.range = prototype.range;
+        this.aggregate = prototype.aggregate.fork();
+        this.topResources = prototype.topResources;
+    }
+
+    private Stats aggregateStats() {
+        Stats stats = new Stats();
+        stats.setFiles(new ArrayList<>(aggregate.getFiles()));
+        stats.setTotalRequestsCount(aggregate.getTotalRequestsCount());
         stats.getResponseSizeInBytes().average =
-                calculateAverage(totalResponseSizeInBytes, stats.getTotalRequestsCount());
-        stats.getResponseSizeInBytes().p95 = calculatePercentile(allResponseSizes, 95);
-        stats.setResources(getTopResources(10));
+                calculateAverage(aggregate.getTotalResponseSize(), aggregate.getTotalRequestsCount());
+        stats.getResponseSizeInBytes().max = aggregate.getMaxResponseSize();
+        stats.getResponseSizeInBytes().p95 = aggregate.getResponseSizePercentile(95);
+        stats.setResources(aggregate.getTopResources(topResources));
         stats.setResponseCodes(getResponseCodes());
         stats.setRequestsPerDate(getRequestsPerDate());
-        stats.setUniqueProtocols(new ArrayList<>(uniqueProtocols));
+        stats.setUniqueProtocols(
+                aggregate.getUniqueProtocols().stream().sorted().toList());
+        stats.setRequestTime(createResponseTime(aggregate.getRequestTimes()));
+        stats.setUpstreamResponseTime(createResponseTime(aggregate.getUpstreamTimes()));
+        stats.setResourceResponseTimes(getResourceResponseTimes(stats.getResources()));
+        stats.setHosts(getHosts());
+
+        ClientCounts clients = aggregate.getClientCounts();
+        if (clients != null && !clients.isEmpty()) {
+            stats.setUniqueClients(clients.getDistinctCount());
+            stats.setClientsByRequests(clients.getTop(topResources, false));
+            stats.setClientsByBytes(clients.getTop(topResources, true));
+        }
+        if (aggregate.getIntervalCounts() != null) {
+            stats.setThroughput(aggregate.getIntervalCounts().toSeries());
+        }
+        return stats;
     }
 
-    private List<ResourceData> getTopResources(int limit) {
-        return resourceCounts.entrySet().stream()
-                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
-                .limit(limit)
-                .map(entry -> new ResourceData(entry.getKey(), entry.getValue()))
+    /** @return time statistics, {@code null} if no entry had the time */
+    static ResponseTimeInSeconds createResponseTime(LatencyHistogram times) {
+        if (times == null || times.getCount() == 0) {
+            return null;
+        }
+
+        ResponseTimeInSeconds time = new ResponseTimeInSeconds();
+        time.count = times.getCount();
+        time.average = roundToThreeDecimalPlaces(times.getAverage());
+        time.p50 = roundToThreeDecimalPlaces(times.getPercentile(50));
+        time.p90 = roundToThreeDecimalPlaces(times.getPercentile(90));
+        time.p99 = roundToThreeDecimalPlaces(times.getPercentile(99));
+        time.max = times.getMax();
+        return time;
+    }
+
+    /** @return request times of the top resources in their order, {@code null} if no entry had a request time */
+    private List<ResourceResponseTime> getResourceResponseTimes(List<ResourceData> topResources) {
+        if (aggregate.getRequestTimes().getCount() == 0) {
+            return null;
+        }
+
+        List<ResourceResponseTime> times = new ArrayList<>();
+        for (ResourceData resource : topResources) {
+            ResponseTimeInSeconds time = createResponseTime(aggregate.getRequestTimes(resource.resource()));
+            if (time != null) {
+                times.add(new ResourceResponseTime(resource.resource(), time));
+            }
+        }
+        return times;
+    }
+
+    /** @return most requested hosts in the same order as resources, {@code null} if no entry had a host */
+    List<HostData> getHosts() {
+        if (aggregate.getHostCounts().isEmpty()) {
+            return null;
+        }
+
+        return aggregate.getHostCounts().entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue()
+                        .reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(topResources)
+                .map(entry -> new HostData(entry.getKey(), entry.getValue()))
                 .toList();
     }
 
-    private List<ResponseCode> getResponseCodes() {
-        return responseCodeCounts.entrySet().stream()
-                .sorted(Map.Entry.<Integer, Integer>comparingByValue().reversed())
+    List<ResponseCode> getResponseCodes() {
+        return aggregate.getResponseCodeCounts().entrySet().stream()
+                .sorted(Map.Entry.<Integer, Integer>comparingByValue()
+                        .reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
                 .map(entry -> new ResponseCode(entry.getKey(), entry.getValue()))
                 .toList();
     }
 
     private List<RequestData> getRequestsPerDate() {
-        if (requestsPerDate.isEmpty() || stats.getTotalRequestsCount() == 0) {
+        int total = aggregate.getTotalRequestsCount();
+        if (aggregate.getRequestsPerDate().isEmpty() || total == 0) {
             return Collections.emptyList();
         }
 
-        return requestsPerDate.entrySet().stream()
+        return aggregate.getRequestsPerDate().entrySet().stream()
                 .sorted(Map.Entry.comparingByKey())
                 .map(entry -> new RequestData(
                         entry.getKey().toString(),
                         entry.getKey().getDayOfWeek().getDisplayName(TextStyle.FULL, Locale.ENGLISH),
                         entry.getValue(),
-                        calculatePercent(entry.getValue(), stats.getTotalRequestsCount())))
+                        calculatePercent(entry.getValue(), total)))
                 .toList();
     }
 
-    private void updateProtocol(LogFields fields) {
-        String protocol = fields.requestProtocol();
-        if (protocol != null) {
-            uniqueProtocols.add(protocol);
-        }
-    }
-
-    private void updateRecoursesCount(LogFields fields) {
-        String resource = fields.requestResource();
-        resourceCounts.merge(resource, 1, Integer::sum);
-    }
-
-    private void updateStatusCodesCount(LogFields fields) {
-        int statusCode = fields.status();
-        responseCodeCounts.merge(statusCode, 1, Integer::sum);
-    }
-
-    private void updateResponsesSize(LogFields fields) {
-        double responseSize = fields.bodyBytesSent();
-        stats.getResponseSizeInBytes().max = max(stats.getResponseSizeInBytes().max, responseSize);
-        totalResponseSizeInBytes += responseSize;
-        allResponseSizes.add(responseSize);
-    }
-
     /**
      * Include the log file string in statistics if the recording time falls within the [from, to) range.
      *
@@ -116,26 +168,69 @@ public class StatsCollector {
 
         LocalDate date = logFields.timeLocal();
 
-        if (date == null || date.isAfter(to) || date.isBefore(from)) {
+        if (date == null || !isWithinRange(date)) {
             return;
         }
 
-        requestsPerDate.merge(date, 1, Integer::sum);
-        stats.setTotalRequestsCount(stats.getTotalRequestsCount() + 1);
-        updateResponsesSize(logFields);
-        updateStatusCodesCount(logFields);
-        updateRecoursesCount(logFields);
-        updateProtocol(logFields);
+        aggregate.add(logFields);
+    }
+
+    /** @return whether entries of the date are collected, lets readers skip data of other dates */
+    public boolean isWithinRange(LocalDate date) {
+        return range.contains(date);
+    }
+
+    public DateRange getDateRange() {
+        return range;
+    }
+
+    /**
+     * Creates an empty collector with the same settings, used as a partial aggregate by parallel readers.
+     *
+     * @return collector to be combined with this one through {@link #merge(StatsCollector)}.
+     */
+    public StatsCollector fork() {
+        return new StatsCollector(this);
+    }
+
+    /**
+     * Adds everything collected by {@code other} to this collector, see {@link StatsAggregate#merge(StatsAggregate)}.
+     *
+     * @param other partial aggregate created by {@link #fork()}.
+     */
+    public void merge(StatsCollector other) {
+        aggregate.merge(other.aggregate);
     }
 
     public void addFile(String fileName) {
-        stats.getFiles().add(fileName);
+        aggregate.addFile(fileName);
+    }
+
+    int getTopResources() {
+        return topResources;
+    }
+
+    /** @return state collected so far, shared with this collector */
+    public StatsAggregate getAggregate() {
+        return aggregate;
+    }
+
+    private void warnAboutDroppedIntervals() {
+        IntervalCounts intervalCounts = aggregate.getIntervalCounts();
+        if (intervalCounts != null && intervalCounts.getDroppedRequests() > 0) {
+            LOGGER.warn(
+                    "{} requests are left out of the throughput series, they are more than {} intervals away from the"
+                            + " others",
+                    intervalCounts.getDroppedRequests(),
+                    IntervalCounts.MAX_INTERVALS);
+        }
     }
 
     public Stats getStats() {
         LOGGER.info("Generating final statistics report");
+        warnAboutDroppedIntervals();
 
-        aggregateStats();
+        Stats stats = aggregateStats();
 
         LOGGER.info(
                 "Final stats: {} requests, {} resources, {} dates, {} protocols",
@@ -146,4 +241,15 @@ public class StatsCollector {
 
         return stats;
     }
+
+    /**
+     * Writes the statistics as the JSON of {@link #getStats()} without building them, see {@link StatsJsonWriter}.
+     *
+     * @param generator generator positioned where the statistics object belongs, it is neither flushed nor closed.
+     */
+    public void writeJson(JsonGenerator generator) throws IOException {
+        LOGGER.info("Writing final statistics report");
+        warnAboutDroppedIntervals();
+        new StatsJsonWriter(this).write(generator);
+    }
 }
@@ -0,0 +1,175 @@
+package academy.stats;
+
+import static academy.stats.MetricsCalculator.*;
+
+import academy.model.RequestData;
+import academy.model.ResourceData;
+import academy.model.ResourceResponseTime;
+import academy.model.ResponseSizeInBytes;
+import academy.model.ResponseTimeInSeconds;
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.TextStyle;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Writes the JSON of {@link Stats} section by section straight from a {@link StatsAggregate}. Days and intervals are
+ * written while their arrays are iterated, and the other sections are built one element at a time, so nothing beyond
+ * the top lists is held in memory however long the output gets.
+ *
+ * <p>Fields come in the order of {@link Stats} and sections without data are left out like {@code null} fields, so the
+ * output is the same as serializing {@link StatsCollector#getStats()}. Elements are written with
+ * {@link JsonGenerator#writeObject(Object)}, the generator must have an {@code ObjectMapper} as its codec.
+ */
+final class StatsJsonWriter {
+    private final StatsCollector collector;
+    private final StatsAggregate aggregate;
+
+    StatsJsonWriter(StatsCollector collector) {
+        this.collector = collector;
+        this.aggregate = collector.getAggregate();
+    }
+
+    void write(JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+
+        generator.writeArrayFieldStart("files");
+        for (String file : aggregate.getFiles()) {
+            generator.writeString(file);
+        }
+        generator.writeEndArray();
+
+        generator.writeNumberField("totalRequestsCount", aggregate.getTotalRequestsCount());
+        generator.writeObjectField("responseSizeInBytes", createResponseSize());
+
+        List<ResourceData> resources = aggregate.getTopResources(collector.getTopResources());
+        writeArray(generator, "resources", resources);
+        writeArray(generator, "responseCodes", collector.getResponseCodes());
+        writeRequestsPerDate(generator);
+        writeArray(
+                generator,
+                "uniqueProtocols",
+                aggregate.getUniqueProtocols().stream().sorted().toList());
+
+        writeOptional(generator, "requestTime", StatsCollector.createResponseTime(aggregate.getRequestTimes()));
+        writeOptional(
+                generator, "upstreamResponseTime", StatsCollector.createResponseTime(aggregate.getUpstreamTimes()));
+        writeResourceResponseTimes(generator, resources);
+        writeOptionalArray(generator, "hosts", collector.getHosts());
+
+        ClientCounts clients = aggregate.getClientCounts();
+        if (clients != null && !clients.isEmpty()) {
+            generator.writeNumberField("uniqueClients", clients.getDistinctCount());
+            writeArray(generator, "clientsByRequests", clients.getTop(collector.getTopResources(), false));
+            writeArray(generator, "clientsByBytes", clients.getTop(collector.getTopResources(), true));
+        }
+        writeThroughput(generator, aggregate.getIntervalCounts());
+
+        generator.writeEndObject();
+    }
+
+    private ResponseSizeInBytes createResponseSize() {
+        ResponseSizeInBytes size = new ResponseSizeInBytes();
+        size.average = calculateAverage(aggregate.getTotalResponseSize(), aggregate.getTotalRequestsCount());
+        size.max = aggregate.getMaxResponseSize();
+        size.p95 = aggregate.getResponseSizePercentile(95);
+        return size;
+    }
+
+    private void writeRequestsPerDate(JsonGenerator generator) throws IOException {
+        int total = aggregate.getTotalRequestsCount();
+        generator.writeArrayFieldStart("requestsPerDate");
+        if (total != 0) {
+            try {
+                aggregate.forEachRequestsPerDate((epochDay, count) -> writeDay(generator, epochDay, count, total));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        generator.writeEndArray();
+    }
+
+    /** @throws UncheckedIOException if the day cannot be written, so that it can be called from a consumer */
+    private static void writeDay(JsonGenerator generator, long epochDay, int count, int total) {
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        try {
+            generator.writeObject(new RequestData(
+                    date.toString(),
+                    date.getDayOfWeek().getDisplayName(TextStyle.FULL, Locale.ENGLISH),
+                    count,
+                    calculatePercent(count, total)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Times of the top resources in their order, left out if no entry had a request time */
+    private void writeResourceResponseTimes(JsonGenerator generator, List<ResourceData> resources) throws IOException {
+        if (aggregate.getRequestTimes().getCount() == 0) {
+            return;
+        }
+
+        generator.writeArrayFieldStart("resourceResponseTimes");
+        for (ResourceData resource : resources) {
+            ResponseTimeInSeconds time =
+                    StatsCollector.createResponseTime(aggregate.getRequestTimes(resource.resource()));
+            if (time != null) {
+                generator.writeObject(new ResourceResponseTime(resource.resource(), time));
+            }
+        }
+        generator.writeEndArray();
+    }
+
+    /** Series as parallel arrays written from the counters, left out unless it is collected and has a request */
+    private static void writeThroughput(JsonGenerator generator, IntervalCounts intervals) throws IOException {
+        if (intervals == null || intervals.isEmpty()) {
+            return;
+        }
+
+        int length = intervals.getLength();
+        generator.writeObjectFieldStart("throughput");
+        generator.writeStringField(
+                "start", Instant.ofEpochSecond(intervals.getStartSecond()).toString());
+        generator.writeNumberField("intervalSeconds", intervals.getIntervalSeconds());
+        generator.writeArrayFieldStart("requests");
+        for (int i = 0; i < length; i++) {
+            generator.writeNumber(intervals.getRequests(i));
+        }
+        generator.writeEndArray();
+        generator.writeArrayFieldStart("bytes");
+        for (int i = 0; i < length; i++) {
+            generator.writeNumber(intervals.getBytes(i));
+        }
+        generator.writeEndArray();
+        generator.writeArrayFieldStart("errors");
+        for (int i = 0; i < length; i++) {
+            generator.writeNumber(intervals.getErrors(i));
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    private static void writeArray(JsonGenerator generator, String name, List<?> elements) throws IOException {
+        generator.writeArrayFieldStart(name);
+        for (Object element : elements) {
+            generator.writeObject(element);
+        }
+        generator.writeEndArray();
+    }
+
+    private static void writeOptionalArray(JsonGenerator generator, String name, List<?> elements) throws IOException {
+        if (elements != null) {
+            writeArray(generator, name, elements);
+        }
+    }
+
+    private static void writeOptional(JsonGenerator generator, String name, Object value) throws IOException {
+        if (value != null) {
+            generator.writeObjectField(name, value);
+        }
+    }
+}
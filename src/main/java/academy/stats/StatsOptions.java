@@ -0,0 +1,74 @@
+package academy.stats;
+
+import academy.model.PercentileMode;
+import academy.model.ResourceCountMode;
+import academy.model.SeriesInterval;
+import lombok.Builder;
+import lombok.Getter;
+
+/** Settings of {@link StatsCollector} */
+@Getter
+@Builder
+public class StatsOptions {
+    /** Fewest resources whose request times are kept, see {@link #createTimedResourceCounter()} */
+    static final int MIN_TIMED_RESOURCES = 256;
+
+    /** Resources whose request times are kept per resource of the top */
+    static final int TIMED_RESOURCES_PER_TOP = 16;
+
+    /** How response size percentiles are calculated */
+    @Builder.Default
+    private final PercentileMode percentileMode = PercentileMode.EXACT;
+
+    /** Relative error bound of {@link PercentileMode#APPROXIMATE} percentiles */
+    @Builder.Default
+    private final double relativeAccuracy = LogHistogram.DEFAULT_RELATIVE_ACCURACY;
+
+    /** How requests per resource are counted */
+    @Builder.Default
+    private final ResourceCountMode resourceCountMode = ResourceCountMode.EXACT;
+
+    /**
+     * Bound of the overestimation of {@link ResourceCountMode#APPROXIMATE} resource counts, relative to the number of
+     * requests
+     */
+    @Builder.Default
+    private final double resourceCountError = SpaceSavingCounter.DEFAULT_ERROR;
+
+    /** Number of most requested resources in {@link Stats}, also the number of hosts and clients */
+    @Builder.Default
+    private final int topResources = 10;
+
+    /** Whether requests and response bytes are counted per client address, see {@link ClientCounts} */
+    @Builder.Default
+    private final boolean clients = false;
+
+    /** Length of the intervals of the throughput series, {@code null} collects no series */
+    @Builder.Default
+    private final SeriesInterval seriesInterval = null;
+
+    IPercentileEstimator createPercentileEstimator() {
+        return switch (percentileMode) {
+            case EXACT -> new ExactPercentiles();
+            case APPROXIMATE -> new LogHistogram(relativeAccuracy);
+        };
+    }
+
+    /** The sketch keeps at least {@link #topResources} counters, so that the top is never cut short */
+    IResourceCounter createResourceCounter() {
+        return switch (resourceCountMode) {
+            case EXACT -> new ExactResourceCounts();
+            case APPROXIMATE ->
+                new SpaceSavingCounter(Math.max(SpaceSavingCounter.capacityFor(resourceCountError), topResources));
+        };
+    }
+
+    /**
+     * Candidates for the request times of the top resources in both resource count modes, sized from
+     * {@link #topResources} rather than from the number of distinct resources, so that at most that many latency
+     * histograms are kept.
+     */
+    SpaceSavingCounter createTimedResourceCounter() {
+        return new SpaceSavingCounter(Math.max(MIN_TIMED_RESOURCES, TIMED_RESOURCES_PER_TOP * topResources));
+    }
+}
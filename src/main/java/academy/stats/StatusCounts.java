@@ -0,0 +1,73 @@
+package academy.stats;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Response counts per status in an array indexed by the status, HTTP statuses have three digits. Other values, only
+ * possible in hand-made {@link academy.model.LogFields}, are counted in a map.
+ */
+final class StatusCounts {
+    private static final int STATUSES = 1000;
+
+    private final int[] counts = new int[STATUSES];
+    private final Map<Integer, Integer> otherCounts = new HashMap<>();
+
+    void increment(int status) {
+        add(status, 1);
+    }
+
+    void add(int status, int count) {
+        if (status >= 0 && status < STATUSES) {
+            counts[status] += count;
+        } else {
+            otherCounts.merge(status, count, Integer::sum);
+        }
+    }
+
+    void merge(StatusCounts other) {
+        other.forEach(this::add);
+    }
+
+    /** Visits statuses with a positive count */
+    void forEach(BiConsumer<Integer, Integer> action) {
+        for (int status = 0; status < STATUSES; status++) {
+            if (counts[status] != 0) {
+                action.accept(status, counts[status]);
+            }
+        }
+        otherCounts.forEach(action);
+    }
+
+    /** Writes {@code (status, count)} pairs of the statuses with a positive count */
+    void writeTo(DataOutput output) throws IOException {
+        int distinct = otherCounts.size();
+        for (int count : counts) {
+            distinct += count != 0 ? 1 : 0;
+        }
+
+        output.writeInt(distinct);
+        for (int status = 0; status < STATUSES; status++) {
+            if (counts[status] != 0) {
+                output.writeInt(status);
+                output.writeInt(counts[status]);
+            }
+        }
+        for (Map.Entry<Integer, Integer> entry : otherCounts.entrySet()) {
+            output.writeInt(entry.getKey());
+            output.writeInt(entry.getValue());
+        }
+    }
+
+    /** Adds counts stored by {@link #writeTo(DataOutput)}, like {@link #merge(StatusCounts)} */
+    void readFrom(DataInput input) throws IOException {
+        int distinct = input.readInt();
+        for (int i = 0; i < distinct; i++) {
+            add(input.readInt(), input.readInt());
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package academy.stats;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Open-addressing map from strings to {@code long} counters. Counting a string that is already present allocates
+ * nothing: keys and counts live in two parallel arrays probed linearly from the cached {@link String#hashCode()},
+ * unlike {@code HashMap<String, Integer>} that boxes every new count.
+ */
+final class StringCounts {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private String[] keys = new String[INITIAL_CAPACITY];
+    private long[] counts = new long[INITIAL_CAPACITY];
+    private int size;
+
+    /** Adds one to the count of the key */
+    void increment(String key) {
+        add(key, 1);
+    }
+
+    void add(String key, long count) {
+        int slot = slot(keys, key);
+        if (keys[slot] != null) {
+            counts[slot] += count;
+            return;
+        }
+
+        keys[slot] = key;
+        counts[slot] = count;
+        if (++size * 2 > keys.length) {
+            grow();
+        }
+    }
+
+    /** @return count of the key, {@code 0} if it has never been added */
+    long get(String key) {
+        int slot = slot(keys, key);
+        return keys[slot] == null ? 0 : counts[slot];
+    }
+
+    boolean contains(String key) {
+        return keys[slot(keys, key)] != null;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Visits every key with its count in no particular order */
+    void forEach(ObjLongConsumer<String> action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                action.accept(keys[i], counts[i]);
+            }
+        }
+    }
+
+    /** Adds all counts of {@code other} */
+    void merge(StringCounts other) {
+        other.forEach(this::add);
+    }
+
+    void writeTo(DataOutput output) throws IOException {
+        output.writeInt(size);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                StatsAggregate.writeString(output, keys[i]);
+                output.writeLong(counts[i]);
+            }
+        }
+    }
+
+    /** Adds counts stored by {@link #writeTo(DataOutput)}, like {@link #merge(StringCounts)} */
+    void readFrom(DataInput input) throws IOException {
+        int entries = input.readInt();
+        for (int i = 0; i < entries; i++) {
+            add(StatsAggregate.readString(input), input.readLong());
+        }
+    }
+
+    /** @return slot holding the key, or the empty slot where it belongs, the table is never full */
+    private static int slot(String[] table, String key) {
+        int mask = table.length - 1;
+        int slot = mix(key.hashCode()) & mask;
+        while (table[slot] != null && !table[slot].equals(key)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /** Spreads the bits of string hashes, which are poor in the low bits for similar short strings */
+    private static int mix(int hash) {
+        int mixed = hash * 0x9E3779B9;
+        return mixed ^ (mixed >>> 16);
+    }
+
+    private void grow() {
+        String[] oldKeys = keys;
+        long[] oldCounts = counts;
+        keys = new String[oldKeys.length * 2];
+        counts = new long[oldKeys.length * 2];
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int slot = slot(keys, oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                counts[slot] = oldCounts[i];
+            }
+        }
+    }
+}
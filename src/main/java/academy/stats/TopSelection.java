@@ -0,0 +1,43 @@
+package academy.stats;
+
+import academy.model.ResourceData;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Keeps the first {@code limit} resources in {@link IResourceCounter#ORDER} out of any number offered, in a heap of
+ * {@code limit} entries instead of sorting all of them.
+ */
+final class TopSelection {
+    private final int limit;
+    private final PriorityQueue<ResourceData> worstFirst;
+
+    TopSelection(int limit) {
+        this.limit = limit;
+        worstFirst = new PriorityQueue<>(Math.max(1, limit), IResourceCounter.ORDER.reversed());
+    }
+
+    void offer(String resource, int count) {
+        if (worstFirst.size() < limit) {
+            worstFirst.add(new ResourceData(resource, count));
+            return;
+        }
+
+        ResourceData worst = worstFirst.peek();
+        if (worst == null || count < worst.totalRequestsCount()) {
+            return;
+        }
+        ResourceData candidate = new ResourceData(resource, count);
+        if (IResourceCounter.ORDER.compare(candidate, worst) < 0) {
+            worstFirst.poll();
+            worstFirst.add(candidate);
+        }
+    }
+
+    List<ResourceData> toList() {
+        List<ResourceData> top = new ArrayList<>(worstFirst);
+        top.sort(IResourceCounter.ORDER);
+        return top;
+    }
+}
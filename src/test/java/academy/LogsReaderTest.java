@@ -0,0 +1,476 @@
+package academy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import academy.checkpoint.Checkpoint;
+import academy.model.PercentileMode;
+import academy.model.ReaderMode;
+import academy.service.ByteLineReader;
+import academy.service.FileChunk;
+import academy.service.FixtureHttpServer;
+import academy.service.ILineReader;
+import academy.service.MappedLineReader;
+import academy.service.NginxLogTokenizer;
+import academy.stats.Stats;
+import academy.stats.StatsCollector;
+import academy.stats.StatsOptions;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class LogsReaderTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String[] LINE_ENDINGS = {"\n", "\r\n", "\n", "\r", "\n\n"};
+
+    private File tempLogFile;
+    private List<String> expectedLines;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.addAll(Files.readAllLines(Path.of("scripts/data/input/logs/part1.txt")));
+        lines.addAll(Files.readAllLines(Path.of("scripts/data/input/logs/part2.txt")));
+
+        StringBuilder content = new StringBuilder();
+        expectedLines = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            String line = lines.get(i % lines.size()).replace("/downloads/product_1", "/downloads/product_" + i % 37);
+            String ending = LINE_ENDINGS[i % LINE_ENDINGS.length];
+            content.append(line).append(ending);
+            expectedLines.add(line);
+            if (ending.equals("\n\n")) {
+                expectedLines.add("");
+            }
+        }
+
+        tempLogFile = File.createTempFile("logs_reader_test", ".log");
+        Files.writeString(tempLogFile.toPath(), content.append("INVALID_LAST_LINE_WITHOUT_NEWLINE"));
+        expectedLines.add("INVALID_LAST_LINE_WITHOUT_NEWLINE");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (tempLogFile != null && tempLogFile.exists()) {
+            tempLogFile.delete();
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 3, 8, 64})
+    @DisplayName("Chunked processing should produce the same Stats as the sequential run: {0} threads")
+    void chunkedStatsTest(int threads) throws IOException {
+        String expected = collect(ReaderOptions.builder().build());
+
+        assertEquals(expected, collect(ReaderOptions.builder().threads(threads).build()));
+        assertEquals(
+                expected,
+                collect(ReaderOptions.builder()
+                        .parserFactory(NginxLogTokenizer::new)
+                        .threads(threads)
+                        .build()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 4})
+    @DisplayName("Memory-mapped reading should produce the same Stats as the Scanner: {0} threads")
+    void mappedStatsTest(int threads) throws IOException {
+        assertInstanceOf(
+                MappedLineReader.class,
+                new LogsReader(
+                                new StatsCollector(null, null),
+                                ReaderOptions.builder()
+                                        .readerMode(ReaderMode.MMAP)
+                                        .threads(threads)
+                                        .build())
+                        .createLineReader());
+        String expected = collect(ReaderOptions.builder().build());
+
+        assertEquals(
+                expected,
+                collect(ReaderOptions.builder()
+                        .readerMode(ReaderMode.MMAP)
+                        .threads(threads)
+                        .build()));
+        assertEquals(
+                expected,
+                collect(ReaderOptions.builder()
+                        .parserFactory(NginxLogTokenizer::new)
+                        .readerMode(ReaderMode.MMAP)
+                        .threads(threads)
+                        .build()));
+    }
+
+    @Test
+    @DisplayName("Concurrent processing of a glob should produce the same Stats as the sequential run")
+    void concurrentFilesTest(@TempDir Path directory) throws IOException {
+        List<String> lines = Files.readAllLines(tempLogFile.toPath());
+        for (int i = 0; i < 12; i++) {
+            List<String> part = lines.subList(i * lines.size() / 12, (i + 1) * lines.size() / 12);
+            Files.write(directory.resolve("access-%02d.log".formatted(i)), part);
+        }
+        String glob = directory + "/access-*.log";
+
+        String expected = collect(ReaderOptions.builder().build(), glob);
+
+        assertEquals(expected, collect(ReaderOptions.builder().fileThreads(4).build(), glob));
+        assertEquals(
+                expected,
+                collect(
+                        ReaderOptions.builder()
+                                .fileThreads(3)
+                                .threads(2)
+                                .readerMode(ReaderMode.MMAP)
+                                .build(),
+                        glob));
+    }
+
+    @Test
+    @DisplayName("Concurrently fetched URLs should produce the same Stats as fetching them one by one")
+    void remoteUrlsTest(@TempDir Path directory) throws IOException {
+        List<String> lines = Files.readAllLines(tempLogFile.toPath());
+        List<FixtureHttpServer> servers = new ArrayList<>();
+        try {
+            for (int i = 0; i < 5; i++) {
+                List<String> part = lines.subList(i * lines.size() / 5, (i + 1) * lines.size() / 5);
+                servers.add(new FixtureHttpServer((String.join("\n", part) + "\n").getBytes(StandardCharsets.UTF_8)));
+            }
+            List<String> urls =
+                    servers.stream().map(server -> server.url("/access.log")).toList();
+            Path manifest = directory.resolve("edges.urls");
+            Files.writeString(manifest, "# edge nodes\n" + String.join("\n\n", urls) + "\n");
+
+            StatsCollector sequential =
+                    new StatsCollector(null, null, StatsOptions.builder().build());
+            new LogsReader(sequential, ReaderOptions.builder().connections(1).build())
+                    .processRemoteFiles(String.join(",", urls));
+            String expected = MAPPER.writeValueAsString(sequential.getStats());
+
+            assertEquals(urls, sequential.getStats().getFiles());
+            assertEquals(
+                    collectStats(
+                                    ReaderOptions.builder().build(),
+                                    StatsOptions.builder().build())
+                            .getTotalRequestsCount(),
+                    sequential.getStats().getTotalRequestsCount());
+
+            for (String path : List.of(String.join(",", urls), manifest.toString())) {
+                StatsCollector concurrent =
+                        new StatsCollector(null, null, StatsOptions.builder().build());
+                new LogsReader(
+                                concurrent,
+                                ReaderOptions.builder().connections(4).build())
+                        .processRemoteFiles(path);
+                assertEquals(expected, MAPPER.writeValueAsString(concurrent.getStats()));
+            }
+        } finally {
+            servers.forEach(FixtureHttpServer::close);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"exact", "approx"})
+    @DisplayName("Incremental runs over an appended file should produce the same Stats as a full scan: {0}")
+    void incrementalStatsTest(String percentileMode, @TempDir Path directory) throws IOException {
+        StatsOptions statsOptions = StatsOptions.builder()
+                .percentileMode(PercentileMode.fromName(percentileMode))
+                .build();
+        byte[] content = Files.readAllBytes(tempLogFile.toPath());
+        Path log = directory.resolve("access.log");
+        Path checkpointFile = directory.resolve("access.checkpoint");
+
+        // appends cut lines in the middle, half-written lines wait for the next run
+        Stats stats = null;
+        int[] cuts = {0, 1000, 1001, content.length / 3, content.length / 2 + 7, content.length};
+        for (int i = 1; i < cuts.length; i++) {
+            Files.write(
+                    log,
+                    Arrays.copyOfRange(content, cuts[i - 1], cuts[i]),
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND);
+
+            Checkpoint checkpoint = Checkpoint.load(checkpointFile, null, null, statsOptions, "regex");
+            StatsCollector collector = new StatsCollector(null, null, statsOptions);
+            new LogsReader(collector).processIncrementally(log.toString(), checkpoint);
+            checkpoint.save(checkpointFile);
+            stats = collector.getStats();
+        }
+
+        assertEquals(
+                MAPPER.writeValueAsString(collectStats(ReaderOptions.builder().build(), statsOptions, log.toString())),
+                MAPPER.writeValueAsString(stats));
+    }
+
+    @Test
+    @DisplayName("A rotated file should keep its progress under the new name")
+    void incrementalRotationTest(@TempDir Path directory) throws IOException {
+        List<String> lines = Files.readAllLines(tempLogFile.toPath());
+        Path current = directory.resolve("access.log");
+        Path rotated = directory.resolve("access-1.log");
+        String glob = directory + "/access*.log";
+        Checkpoint checkpoint =
+                new Checkpoint(null, null, StatsOptions.builder().build(), "regex");
+
+        Files.write(current, lines.subList(0, 700));
+        new LogsReader(new StatsCollector(null, null)).processIncrementally(glob, checkpoint);
+        String fileKey = checkpoint.getEntries().getFirst().fileKey();
+
+        Files.write(current, lines.subList(700, 1000), StandardOpenOption.APPEND);
+        Files.move(current, rotated);
+        Files.write(current, lines.subList(1000, lines.size()));
+
+        StatsCollector collector = new StatsCollector(null, null);
+        new LogsReader(collector).processIncrementally(glob, checkpoint);
+
+        assertEquals(collect(ReaderOptions.builder().build(), glob), MAPPER.writeValueAsString(collector.getStats()));
+        for (Checkpoint.Entry entry : checkpoint.getEntries()) {
+            assertEquals(Files.size(Path.of(entry.path())), entry.offset());
+        }
+        assertEquals(
+                rotated.toAbsolutePath().toString(),
+                checkpoint.find(fileKey).orElseThrow().path());
+    }
+
+    @Test
+    @DisplayName("A new file under the identity of a checkpointed one should be read from the start")
+    void incrementalReplacedTest(@TempDir Path directory) throws IOException {
+        List<String> lines = Files.readAllLines(tempLogFile.toPath());
+        Path log = directory.resolve("access.log");
+        Checkpoint checkpoint =
+                new Checkpoint(null, null, StatsOptions.builder().build(), "regex");
+
+        Files.write(log, lines.subList(0, 700));
+        new LogsReader(new StatsCollector(null, null)).processIncrementally(log.toString(), checkpoint);
+
+        // rewritten in place, the file keeps its inode and is longer than the saved offset
+        Files.write(log, lines.subList(300, lines.size()));
+        StatsCollector collector = new StatsCollector(null, null);
+        new LogsReader(collector).processIncrementally(log.toString(), checkpoint);
+
+        assertEquals(
+                collect(ReaderOptions.builder().build(), log.toString()),
+                MAPPER.writeValueAsString(collector.getStats()));
+        assertEquals(Files.size(log), checkpoint.getEntries().getFirst().offset());
+    }
+
+    @Test
+    @DisplayName("Runs over the columnar index should produce the same Stats as parsing the logs")
+    void indexedStatsTest(@TempDir Path directory, @TempDir Path indexDirectory) throws IOException {
+        Path plain = directory.resolve("access.log");
+        Path compressed = directory.resolve("access-1.log.gz");
+        Files.copy(tempLogFile.toPath(), plain);
+        try (OutputStream output = new GZIPOutputStream(Files.newOutputStream(compressed))) {
+            Files.copy(tempLogFile.toPath(), output);
+        }
+        String glob = directory + "/access*";
+        ReaderOptions indexed =
+                ReaderOptions.builder().indexDirectory(indexDirectory).build();
+
+        for (LocalDate[] range : new LocalDate[][] {
+            {null, null}, {LocalDate.of(2015, 5, 16), LocalDate.of(2015, 5, 17)}, {LocalDate.of(2015, 5, 18), null}
+        }) {
+            StatsCollector expected = new StatsCollector(range[0], range[1]);
+            new LogsReader(expected).processLocalFiles(glob);
+
+            // the first run builds the indexes, the second one reads them
+            for (int run = 0; run < 2; run++) {
+                StatsCollector actual = new StatsCollector(range[0], range[1]);
+                new LogsReader(actual, indexed).processLocalFiles(glob);
+                assertEquals(
+                        MAPPER.writeValueAsString(expected.getStats()), MAPPER.writeValueAsString(actual.getStats()));
+            }
+        }
+
+        try (var indexes = Files.list(indexDirectory)) {
+            assertEquals(2, indexes.count());
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 4})
+    @DisplayName("Reading a part of a sorted log should produce the same Stats as reading all of it: {0} threads")
+    void sortedStatsTest(int threads, @TempDir Path directory) throws IOException {
+        List<String> lines = Files.readAllLines(tempLogFile.toPath()).stream()
+                .filter(line -> line.contains("[17/May/2015"))
+                .toList();
+        StringBuilder content = new StringBuilder();
+        for (int day = 1; day <= 28; day++) {
+            String date = "[%02d/May/2015".formatted(day);
+            for (int i = 0; i < 20_000; i++) {
+                content.append(lines.get(i % lines.size()).replace("[17/May/2015", date))
+                        .append('\n');
+            }
+        }
+        Path sorted = directory.resolve("access.log");
+        Files.writeString(sorted, content);
+
+        for (LocalDate[] range : new LocalDate[][] {
+            {LocalDate.of(2015, 5, 10), LocalDate.of(2015, 5, 12)},
+            {LocalDate.of(2015, 5, 27), null},
+            {null, LocalDate.of(2015, 5, 1)},
+            {LocalDate.of(2015, 6, 1), null}
+        }) {
+            StatsCollector expected = new StatsCollector(range[0], range[1]);
+            new LogsReader(expected).processLocalFiles(sorted.toString());
+
+            for (ReaderOptions options : List.of(
+                    ReaderOptions.builder().sorted(true).threads(threads).build(),
+                    ReaderOptions.builder()
+                            .parserFactory(NginxLogTokenizer::new)
+                            .sorted(true)
+                            .threads(threads)
+                            .build())) {
+                StatsCollector actual = new StatsCollector(range[0], range[1]);
+                new LogsReader(actual, options).processLocalFiles(sorted.toString());
+                assertEquals(
+                        MAPPER.writeValueAsString(expected.getStats()), MAPPER.writeValueAsString(actual.getStats()));
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3})
+    @DisplayName("Pipelined processing should produce the same Stats as the sequential run: {0} workers")
+    void pipelineStatsTest(int workers) throws IOException {
+        String expected = collect(ReaderOptions.builder().build());
+
+        assertEquals(
+                expected,
+                collect(ReaderOptions.builder().pipelineWorkers(workers).build()));
+        assertEquals(
+                expected,
+                collect(ReaderOptions.builder()
+                        .parserFactory(NginxLogTokenizer::new)
+                        .pipelineWorkers(workers)
+                        .build()));
+    }
+
+    @Test
+    @DisplayName("Gzip-compressed files should produce the same Stats as plain ones")
+    void gzipStatsTest(@TempDir Path directory) throws IOException {
+        Path plain = directory.resolve("access.log");
+        Path compressed = directory.resolve("access.log.1.gz");
+        Files.copy(tempLogFile.toPath(), plain);
+        try (OutputStream output = new GZIPOutputStream(Files.newOutputStream(compressed))) {
+            Files.copy(tempLogFile.toPath(), output);
+        }
+
+        Stats expected = collectStats(
+                ReaderOptions.builder().build(), StatsOptions.builder().build(), plain.toString());
+        expected.setFiles(List.of("access.log.1.gz"));
+
+        for (ReaderOptions options : List.of(
+                ReaderOptions.builder().build(),
+                ReaderOptions.builder()
+                        .parserFactory(NginxLogTokenizer::new)
+                        .readerMode(ReaderMode.MMAP)
+                        .threads(4)
+                        .build(),
+                ReaderOptions.builder().pipelineWorkers(2).build())) {
+            Stats actual = collectStats(options, StatsOptions.builder().build(), compressed.toString());
+            assertEquals(MAPPER.writeValueAsString(expected), MAPPER.writeValueAsString(actual));
+        }
+    }
+
+    @Test
+    @DisplayName("Approximate p95 should stay within 1% of the exact one in parallel runs")
+    void approximatePercentileTest() throws IOException {
+        StatsOptions approximate = StatsOptions.builder()
+                .percentileMode(PercentileMode.APPROXIMATE)
+                .build();
+        double exact = collectStats(
+                        ReaderOptions.builder().build(), StatsOptions.builder().build())
+                .getResponseSizeInBytes()
+                .p95;
+
+        for (int threads : new int[] {1, 4}) {
+            double p95 = collectStats(ReaderOptions.builder().threads(threads).build(), approximate)
+                    .getResponseSizeInBytes()
+                    .p95;
+            assertTrue(Math.abs(p95 - exact) <= exact * 0.01, "exact " + exact + ", approximate " + p95);
+        }
+    }
+
+    @Test
+    @DisplayName("Chunks should cover every line exactly once with a tiny read buffer")
+    void chunkLinesTest() throws IOException {
+        assertEquals(expectedLines, readChunks(new ByteLineReader(16)));
+    }
+
+    @Test
+    @DisplayName("A stream should give the same lines as the file and consume all of its bytes")
+    void streamLinesTest() throws IOException {
+        ByteLineReader lineReader = new ByteLineReader(16);
+        List<String> actual = new ArrayList<>();
+
+        try (InputStream input = Files.newInputStream(tempLogFile.toPath())) {
+            lineReader.readLines(
+                    input,
+                    (buffer, start, end) -> actual.add(new String(buffer, start, end - start, StandardCharsets.UTF_8)));
+        }
+
+        assertEquals(expectedLines, actual);
+        assertEquals(Files.size(tempLogFile.toPath()), lineReader.getConsumedBytes());
+    }
+
+    @Test
+    @DisplayName("Chunks should cover every line exactly once with a tiny mapped window")
+    void mappedChunkLinesTest() throws IOException {
+        assertEquals(expectedLines, readChunks(new MappedLineReader(16)));
+    }
+
+    private List<String> readChunks(ILineReader lineReader) throws IOException {
+        List<String> actual = new ArrayList<>();
+
+        try (FileChannel channel = FileChannel.open(tempLogFile.toPath(), StandardOpenOption.READ)) {
+            for (FileChunk chunk : FileChunk.split(channel, 7)) {
+                lineReader.readLines(
+                        channel,
+                        chunk.start(),
+                        chunk.end(),
+                        (buffer, start, end) ->
+                                actual.add(new String(buffer, start, end - start, StandardCharsets.UTF_8)));
+            }
+        }
+        return actual;
+    }
+
+    private String collect(ReaderOptions options) throws IOException {
+        return collect(options, tempLogFile.getAbsolutePath());
+    }
+
+    private String collect(ReaderOptions options, String path) throws IOException {
+        return new ObjectMapper()
+                .writeValueAsString(collectStats(options, StatsOptions.builder().build(), path));
+    }
+
+    private Stats collectStats(ReaderOptions options, StatsOptions statsOptions) {
+        return collectStats(options, statsOptions, tempLogFile.getAbsolutePath());
+    }
+
+    private Stats collectStats(ReaderOptions options, StatsOptions statsOptions, String path) {
+        StatsCollector collector = new StatsCollector(null, null, statsOptions);
+        new LogsReader(collector, options).processLocalFiles(path);
+        return collector.getStats();
+    }
+}
@@ -13,6 +13,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.NullAndEmptySource;
 import org.junit.jupiter.params.provider.ValueSource;
@@ -182,6 +183,74 @@ class ArgumentValidationTest {
         outputFile.delete();
     }
 
+    @ParameterizedTest
+    @ValueSource(
+            strings = {"https://edge-1.example/access.log,ftp://edge-2.example/access.log", "http://,", "missing.urls"})
+    @DisplayName("Should fail when a URL list or manifest is invalid: {0}")
+    void test12(String path) {
+        String[] args = {"--path", path, "--format", "json", "--output", tempOutputFilePath};
+
+        int exitCode = Application.execute(args);
+        assertEquals(ExitCode.INVALID_ARGUMENTS.getCode(), exitCode);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0", "-2"})
+    @DisplayName("Should fail when --connections is not positive: {0}")
+    void test13(String connections) {
+        String[] args = {
+            "--path",
+            "https://edge-1.example/access.log",
+            "--format",
+            "json",
+            "--output",
+            tempOutputFilePath,
+            "--connections",
+            connections
+        };
+
+        int exitCode = Application.execute(args);
+        assertEquals(ExitCode.INVALID_ARGUMENTS.getCode(), exitCode);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"--top,0", "--resource-count-error,0", "--resource-count-error,1.5", "--resource-counts,sketch"})
+    @DisplayName("Should fail when resource count settings are invalid: {0} {1}")
+    void test14(String option, String value) {
+        String[] args = {
+            "--path",
+            "scripts/data/input/logs/part1.txt",
+            "--format",
+            "json",
+            "--output",
+            tempOutputFilePath,
+            option,
+            value
+        };
+
+        int exitCode = Application.execute(args);
+        assertEquals(ExitCode.INVALID_ARGUMENTS.getCode(), exitCode);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"$remote_addr [$time_local] $status", "[$time_local] \"$request\" $status$body_bytes_sent"})
+    @DisplayName("Should fail when --log-format cannot be compiled: {0}")
+    void test15(String logFormat) {
+        String[] args = {
+            "--path",
+            "scripts/data/input/logs/part1.txt",
+            "--format",
+            "json",
+            "--output",
+            tempOutputFilePath,
+            "--log-format",
+            logFormat
+        };
+
+        int exitCode = Application.execute(args);
+        assertEquals(ExitCode.INVALID_ARGUMENTS.getCode(), exitCode);
+    }
+
     private static Stream<Arguments> test6ArgumentsSource() {
         return Stream.of(
                 Arguments.of("markdown", "./results.txt"),
@@ -84,6 +84,106 @@ class StatsReportTest {
         assertTrue(content.contains("----"));
     }
 
+    @Test
+    @DisplayName("Should export request times of a custom log format in every format")
+    void responseTimesTest() throws IOException {
+        Files.write(
+                tempLogFile.toPath(),
+                List.of(
+                        "::1 [10/Oct/2024:13:55:36 +0000] \"GET /index.html HTTP/1.1\" 200 100 rt=0.120 urt=0.100",
+                        "::1 [10/Oct/2024:13:55:37 +0000] \"GET /api HTTP/1.1\" 200 100 rt=1.500 urt=-"));
+        String logFormat = "$remote_addr [$time_local] \"$request\" $status $body_bytes_sent rt=$request_time "
+                + "urt=$upstream_response_time";
+
+        for (String format : List.of("json", "markdown", "adoc")) {
+            setupReportFile(format.equals("json") ? ".json" : format.equals("markdown") ? ".md" : ".ad");
+            String[] args = {
+                "--path",
+                tempLogFile.getAbsolutePath(),
+                "--format",
+                format,
+                "--output",
+                reportPath,
+                "--log-format",
+                logFormat
+            };
+
+            assertDoesNotThrow(() -> Application.execute(args));
+
+            String content = Files.readString(tempReportFile.toPath());
+            assertAll(
+                    format + " response times",
+                    () -> assertTrue(content.contains("/api") && content.contains("/index.html"), content),
+                    () -> assertTrue(
+                            format.equals("json")
+                                    ? content.contains("\"requestTime\"") && content.contains("\"p99\"")
+                                    : content.contains("Request Time") && content.contains("Upstream Response Time"),
+                            content),
+                    () -> assertTrue(content.contains("Resource Response Times") || format.equals("json"), content));
+            tempReportFile.delete();
+        }
+    }
+
+    @Test
+    @DisplayName("Should export top clients and unique clients in every format")
+    void clientsTest() throws IOException {
+        Files.write(
+                tempLogFile.toPath(),
+                List.of(
+                        "10.0.0.1 - - [10/Oct/2024:13:55:36 +0000] \"GET /index.html HTTP/1.1\" 200 100 \"-\" \"Mozilla\"",
+                        "10.0.0.1 - - [10/Oct/2024:13:55:37 +0000] \"GET /index.html HTTP/1.1\" 200 100 \"-\" \"Mozilla\"",
+                        "10.0.0.2 - - [10/Oct/2024:13:55:38 +0000] \"GET /video HTTP/1.1\" 200 90000 \"-\" \"Mozilla\""));
+
+        for (String format : List.of("json", "markdown", "adoc")) {
+            setupReportFile(format.equals("json") ? ".json" : format.equals("markdown") ? ".md" : ".ad");
+            String[] args = {
+                "--path", tempLogFile.getAbsolutePath(), "--format", format, "--output", reportPath, "--clients"
+            };
+
+            assertDoesNotThrow(() -> Application.execute(args));
+
+            String content = Files.readString(tempReportFile.toPath());
+            assertAll(
+                    format + " clients",
+                    () -> assertTrue(
+                            content.indexOf("10.0.0.1") < content.indexOf("10.0.0.2")
+                                    && content.lastIndexOf("10.0.0.2") < content.lastIndexOf("10.0.0.1"),
+                            content),
+                    () -> assertTrue(
+                            format.equals("json")
+                                    ? content.contains("\"uniqueClients\" : 2")
+                                    : content.contains("Unique Clients (estimate)") && content.contains("Top Clients"),
+                            content));
+            tempReportFile.delete();
+        }
+    }
+
+    @Test
+    @DisplayName("Should export the throughput series as arrays in JSON")
+    void seriesTest() throws IOException {
+        Files.write(
+                tempLogFile.toPath(),
+                List.of(
+                        "10.0.0.1 - - [10/Oct/2024:13:55:36 +0000] \"GET /index.html HTTP/1.1\" 200 100 \"-\" \"Mozilla\"",
+                        "10.0.0.1 - - [10/Oct/2024:15:55:37 +0200] \"GET /index.html HTTP/1.1\" 503 50 \"-\" \"Mozilla\"",
+                        "10.0.0.2 - - [10/Oct/2024:13:58:01 +0000] \"GET /video HTTP/1.1\" 200 900 \"-\" \"Mozilla\""));
+        setupReportFile(".json");
+        String[] args = {
+            "--path", tempLogFile.getAbsolutePath(), "--format", "json", "--output", reportPath, "--series", "minute"
+        };
+
+        assertDoesNotThrow(() -> Application.execute(args));
+
+        String content = Files.readString(tempReportFile.toPath()).replaceAll("\\s", "");
+        assertAll(
+                "throughput series",
+                () -> assertTrue(content.contains("\"start\":\"2024-10-10T13:55:00Z\""), content),
+                () -> assertTrue(content.contains("\"intervalSeconds\":60"), content),
+                () -> assertTrue(content.contains("\"requests\":[2,0,0,1]"), content),
+                () -> assertTrue(content.contains("\"bytes\":[150,0,0,900]"), content),
+                () -> assertTrue(content.contains("\"errors\":[1,0,0,0]"), content));
+    }
+
     private void setupReportFile(String extension) throws IOException {
         tempReportFile = File.createTempFile("report", extension);
         reportPath = tempReportFile.getAbsolutePath();
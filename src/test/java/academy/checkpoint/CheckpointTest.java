@@ -0,0 +1,129 @@
+package academy.checkpoint;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import academy.model.LogFields;
+import academy.model.PercentileMode;
+import academy.stats.StatsCollector;
+import academy.stats.StatsOptions;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class CheckpointTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final LocalDate FROM = LocalDate.of(2024, 10, 3);
+    private static final LocalDate TO = LocalDate.of(2024, 10, 12);
+    private static final String LINE_FORMAT = "regex";
+
+    @TempDir
+    private Path directory;
+
+    @ParameterizedTest
+    @EnumSource(PercentileMode.class)
+    @DisplayName("Saved aggregates should produce the same Stats after loading: {0}")
+    void roundTripTest(PercentileMode mode) throws IOException {
+        StatsOptions options = StatsOptions.builder().percentileMode(mode).build();
+        StatsCollector collector = randomCollector(options, 5000);
+        Path file = directory.resolve("state.checkpoint");
+
+        Checkpoint checkpoint = new Checkpoint(FROM, TO, options, LINE_FORMAT);
+        checkpoint.replaceAll(
+                List.of(new Checkpoint.Entry("/var/log/access.log", "key", 42, 1234, collector.getAggregate())));
+        checkpoint.save(file);
+
+        Checkpoint loaded = Checkpoint.load(file, FROM, TO, options, LINE_FORMAT);
+        Checkpoint.Entry entry = loaded.find("key").orElseThrow();
+        StatsCollector restored = new StatsCollector(FROM, TO, options);
+        restored.getAggregate().merge(entry.aggregate());
+
+        assertEquals("/var/log/access.log", entry.path());
+        assertEquals(1234, entry.offset());
+        assertEquals(42, entry.fingerprint());
+        assertEquals(MAPPER.writeValueAsString(collector.getStats()), MAPPER.writeValueAsString(restored.getStats()));
+    }
+
+    @Test
+    @DisplayName("A checkpoint saved with other settings should be ignored")
+    void otherSettingsTest() throws IOException {
+        StatsOptions options = StatsOptions.builder().build();
+        Path file = directory.resolve("state.checkpoint");
+        Checkpoint checkpoint = new Checkpoint(FROM, TO, options, LINE_FORMAT);
+        checkpoint.replaceAll(List.of(new Checkpoint.Entry(
+                "access.log", "key", 42, 10, randomCollector(options, 10).getAggregate())));
+        checkpoint.save(file);
+
+        assertTrue(Checkpoint.load(file, FROM, null, options, LINE_FORMAT)
+                .getEntries()
+                .isEmpty());
+        assertTrue(Checkpoint.load(
+                        file,
+                        FROM,
+                        TO,
+                        StatsOptions.builder()
+                                .percentileMode(PercentileMode.APPROXIMATE)
+                                .build(),
+                        LINE_FORMAT)
+                .getEntries()
+                .isEmpty());
+        assertTrue(Checkpoint.load(file, FROM, TO, options, "$remote_addr [$time_local] \"$request\" $status")
+                .getEntries()
+                .isEmpty());
+        assertEquals(
+                1,
+                Checkpoint.load(file, FROM, TO, options, LINE_FORMAT)
+                        .getEntries()
+                        .size());
+    }
+
+    @Test
+    @DisplayName("A missing or damaged checkpoint should be ignored")
+    void damagedTest() throws IOException {
+        StatsOptions options = StatsOptions.builder().build();
+        Path file = directory.resolve("state.checkpoint");
+
+        assertTrue(Checkpoint.load(file, FROM, TO, options, LINE_FORMAT)
+                .getEntries()
+                .isEmpty());
+
+        Checkpoint checkpoint = new Checkpoint(FROM, TO, options, LINE_FORMAT);
+        checkpoint.replaceAll(List.of(new Checkpoint.Entry(
+                "access.log", "key", 42, 10, randomCollector(options, 100).getAggregate())));
+        checkpoint.save(file);
+        byte[] saved = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(saved, saved.length / 2));
+
+        assertTrue(Checkpoint.load(file, FROM, TO, options, LINE_FORMAT)
+                .getEntries()
+                .isEmpty());
+    }
+
+    private static StatsCollector randomCollector(StatsOptions options, int size) {
+        Random random = new Random(size);
+        StatsCollector collector = new StatsCollector(FROM, TO, options);
+        collector.addFile("access.log");
+        for (int i = 0; i < size; i++) {
+            collector.collect(new LogFields(
+                    "10.0.0." + random.nextInt(256),
+                    "-",
+                    LocalDate.of(2024, 10, 1 + random.nextInt(14)),
+                    "GET /downloads/product_" + random.nextInt(40) + " HTTP/1." + random.nextInt(2),
+                    random.nextBoolean() ? 200 : 404,
+                    random.nextInt(5) == 0 ? 0 : random.nextInt(1 << random.nextInt(24)),
+                    "-",
+                    "Mozilla"));
+        }
+        return collector;
+    }
+}
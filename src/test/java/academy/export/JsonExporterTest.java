@@ -0,0 +1,76 @@
+package academy.export;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import academy.model.LogFields;
+import academy.model.SeriesInterval;
+import academy.stats.StatsCollector;
+import academy.stats.StatsOptions;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/** Streaming the statistics of a collector should write the same document as serializing its {@code Stats} */
+class JsonExporterTest {
+    private static final int[] STATUSES = {200, 200, 206, 304, 404, 500, 503};
+
+    @TempDir
+    private Path directory;
+
+    @ParameterizedTest(name = "{0} lines, compact {1}")
+    @CsvSource({"0, false", "0, true", "1, false", "5000, false", "5000, true"})
+    @DisplayName("Streamed JSON should equal the serialized Stats")
+    void sameAsStatsTest(int lines, boolean compact) throws IOException {
+        StatsCollector collector = new StatsCollector(
+                null,
+                null,
+                StatsOptions.builder()
+                        .clients(true)
+                        .seriesInterval(SeriesInterval.MINUTE)
+                        .build());
+        collector.addFile("access.log");
+        Random random = new Random(lines);
+        for (int i = 0; i < lines; i++) {
+            collector.collect(randomFields(random));
+        }
+
+        JsonExporter exporter = new JsonExporter(compact);
+        Path expected = directory.resolve("expected.json");
+        Path streamed = directory.resolve("streamed.json");
+        exporter.export(expected.toString(), collector.getStats());
+        exporter.export(streamed.toString(), collector);
+
+        String content = Files.readString(streamed);
+        assertEquals(Files.readString(expected), content);
+        assertEquals(compact, !content.contains("\n"));
+        assertFalse(content.contains("null"), content);
+    }
+
+    private static LogFields randomFields(Random random) {
+        LocalDate date = LocalDate.of(2024, 10, 1 + random.nextInt(3));
+        double requestTime = random.nextInt(4) == 0 ? Double.NaN : random.nextInt(5000) / 1000.0;
+        return new LogFields(
+                "10.0.0." + random.nextInt(256),
+                null,
+                date,
+                null,
+                STATUSES[random.nextInt(STATUSES.length)],
+                random.nextInt(1 << 16),
+                null,
+                null,
+                "/downloads/product_" + random.nextInt(40),
+                "HTTP/1.1",
+                requestTime,
+                Double.NaN,
+                random.nextBoolean() ? null : "host-" + random.nextInt(5),
+                date.atStartOfDay().toEpochSecond(ZoneOffset.UTC) + random.nextInt(86_400));
+    }
+}
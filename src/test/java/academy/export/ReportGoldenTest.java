@@ -0,0 +1,109 @@
+package academy.export;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import academy.model.ClientData;
+import academy.model.ResourceData;
+import academy.model.ResourceResponseTime;
+import academy.model.ResponseCode;
+import academy.model.ResponseTimeInSeconds;
+import academy.stats.Stats;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/** Reports should match the golden files in {@code /golden} byte for byte */
+class ReportGoldenTest {
+    private static final Map<String, ILogsExporter> EXPORTERS =
+            Map.of("md", new MarkdownExporter(), "adoc", new AdocExporter());
+
+    @TempDir
+    private Path directory;
+
+    @ParameterizedTest(name = "{0}.{1}")
+    @CsvSource({"empty, md", "empty, adoc", "plain, md", "plain, adoc", "full, md", "full, adoc"})
+    @DisplayName("Report should equal its golden file")
+    void goldenTest(String fixture, String extension) throws IOException, URISyntaxException {
+        Path output = directory.resolve(fixture + "." + extension);
+        EXPORTERS.get(extension).export(output.toString(), fixture(fixture));
+
+        Path golden = Path.of(ReportGoldenTest.class
+                .getResource("/golden/" + fixture + "." + extension)
+                .toURI());
+        assertEquals(Files.readString(golden), Files.readString(output));
+    }
+
+    @Test
+    @DisplayName("Pipes in Markdown cells should be escaped instead of splitting the row")
+    void pipeTest() throws IOException {
+        Stats stats = new Stats();
+        stats.setResources(List.of(new ResourceData("/a|b", 7)));
+        Path output = directory.resolve("pipe.md");
+
+        new MarkdownExporter().export(output.toString(), stats);
+
+        assertTrue(Files.readString(output).contains("|/a\\|b|7|"));
+    }
+
+    private static Stats fixture(String name) {
+        Stats stats = new Stats();
+        if (name.equals("empty")) {
+            return stats;
+        }
+
+        stats.setFiles(List.of("access.log", "access_2024.log.gz"));
+        stats.setTotalRequestsCount(51_462);
+        stats.getResponseSizeInBytes().average = 659.22;
+        stats.getResponseSizeInBytes().max = 3_276_800;
+        stats.getResponseSizeInBytes().p95 = 1100.5;
+        stats.setResources(List.of(
+                new ResourceData("/downloads/product_1", 30_285),
+                new ResourceData("/downloads/product_2", 21_104),
+                new ResourceData("/search?q=a&sort=*", 60)));
+        stats.setResponseCodes(List.of(
+                new ResponseCode(304, 13_330),
+                new ResponseCode(404, 33_876),
+                new ResponseCode(200, 4_028),
+                new ResponseCode(599, 1)));
+        if (name.equals("plain")) {
+            return stats;
+        }
+
+        stats.setResources(List.of(
+                new ResourceData("/downloads/product_1", 30_285),
+                new ResourceData("/docs/[draft]/index.html?v<2&lang=*", 1_204),
+                new ResourceData("/a\\b`c~d#e!f", 3)));
+        stats.setRequestTime(time(51_462, 0.0125, 0.009, 0.3, 1.2, 12.5));
+        stats.setUpstreamResponseTime(time(20_000, 1.5, 1.25, 2, 3.75, 60));
+        stats.setResourceResponseTimes(List.of(
+                new ResourceResponseTime("/downloads/product_1", time(30_285, 0.01, 0.008, 0.2, 0.9, 4)),
+                new ResourceResponseTime("/docs/[draft]/index.html?v<2&lang=*", time(1_204, 2.5, 2, 3, 4, 5))));
+        stats.setUniqueClients(1_843L);
+        stats.setClientsByRequests(
+                List.of(new ClientData("93.180.71.3", 12_000, 4_200_000), new ClientData("2001:db8::1", 9_000, 900)));
+        stats.setClientsByBytes(
+                List.of(new ClientData("93.180.71.3", 12_000, 4_200_000), new ClientData("10.0.0.1", 1, 1_048_575)));
+        return stats;
+    }
+
+    private static ResponseTimeInSeconds time(
+            int count, double average, double p50, double p90, double p99, double max) {
+        ResponseTimeInSeconds time = new ResponseTimeInSeconds();
+        time.count = count;
+        time.average = average;
+        time.p50 = p50;
+        time.p90 = p90;
+        time.p99 = p99;
+        time.max = max;
+        return time;
+    }
+}
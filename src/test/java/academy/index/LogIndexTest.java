@@ -0,0 +1,142 @@
+package academy.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import academy.model.LogFields;
+import academy.stats.StatsCollector;
+import academy.stats.StatsOptions;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class LogIndexTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 10, 1);
+    private static final String LINE_FORMAT = "regex";
+
+    @TempDir
+    private Path directory;
+
+    static Stream<Arguments> ranges() {
+        return Stream.of(
+                Arguments.of(null, null),
+                Arguments.of(LocalDate.of(2024, 10, 3), LocalDate.of(2024, 10, 5)),
+                Arguments.of(LocalDate.of(2024, 10, 10), null),
+                Arguments.of(null, LocalDate.of(2024, 9, 30)));
+    }
+
+    @ParameterizedTest(name = "from {0} to {1}")
+    @MethodSource("ranges")
+    @DisplayName("Replaying the index should produce the same Stats as collecting the entries")
+    void replayTest(LocalDate from, LocalDate to) throws IOException {
+        List<LogFields> entries = randomEntries(new Random(42), 200_000);
+        Path indexFile = write(entries, 1234, 5678);
+
+        StatsOptions options = StatsOptions.builder().clients(true).build();
+        StatsCollector expected = new StatsCollector(from, to, options);
+        entries.forEach(expected::collect);
+
+        StatsCollector replayed = new StatsCollector(from, to, options);
+        LogIndex index = LogIndex.open(indexFile, 1234, 5678, LINE_FORMAT).orElseThrow();
+        long read = index.replay(replayed);
+
+        assertEquals(MAPPER.writeValueAsString(expected.getStats()), MAPPER.writeValueAsString(replayed.getStats()));
+        assertEquals(
+                entries.stream()
+                        .filter(fields -> fields.timeLocal() != null && replayed.isWithinRange(fields.timeLocal()))
+                        .count(),
+                read);
+    }
+
+    @Test
+    @DisplayName("Blocks should hold a single day and at most a block of entries")
+    void blocksTest() throws IOException {
+        List<LogFields> entries = randomEntries(new Random(7), 300_000);
+        LogIndex index = LogIndex.open(write(entries, 1, 1), 1, 1, LINE_FORMAT).orElseThrow();
+
+        for (LogIndex.Block block : index.getBlocks()) {
+            assertTrue(block.rows() > 0 && block.rows() <= LogIndex.BLOCK_ROWS, block.toString());
+        }
+        assertEquals(
+                entries.stream().filter(fields -> fields.timeLocal() != null).count(),
+                index.getBlocks().stream().mapToLong(LogIndex.Block::rows).sum());
+    }
+
+    @Test
+    @DisplayName("An index of another version of the log should not be opened")
+    void outdatedTest() throws IOException {
+        Path indexFile = write(randomEntries(new Random(1), 100), 100, 200);
+
+        assertTrue(LogIndex.open(indexFile, 100, 200, LINE_FORMAT).isPresent());
+        assertFalse(LogIndex.open(indexFile, 101, 200, LINE_FORMAT).isPresent());
+        assertFalse(LogIndex.open(indexFile, 100, 201, LINE_FORMAT).isPresent());
+        assertFalse(LogIndex.open(indexFile, 100, 200, "tokenizer").isPresent());
+        assertFalse(LogIndex.open(indexFile, 100, 200, "$remote_addr [$time_local] \"$request\" $status")
+                .isPresent());
+        assertFalse(LogIndex.open(directory.resolve("missing.idx"), 100, 200, LINE_FORMAT)
+                .isPresent());
+
+        byte[] bytes = Files.readAllBytes(indexFile);
+        Files.write(indexFile, Arrays.copyOf(bytes, bytes.length - 1));
+        assertFalse(LogIndex.open(indexFile, 100, 200, LINE_FORMAT).isPresent());
+    }
+
+    @Test
+    @DisplayName("An unfinished index should leave no file behind")
+    void unfinishedTest() throws IOException {
+        Path indexFile = directory.resolve("access.idx");
+
+        try (LogIndexWriter writer = new LogIndexWriter(indexFile, 1, 1, LINE_FORMAT)) {
+            randomEntries(new Random(3), 100_000).forEach(writer::add);
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(List.of(), files.toList());
+        }
+    }
+
+    private Path write(List<LogFields> entries, long sourceSize, long sourceModified) throws IOException {
+        Path indexFile = directory.resolve("access.idx");
+        try (LogIndexWriter writer = new LogIndexWriter(indexFile, sourceSize, sourceModified, LINE_FORMAT)) {
+            entries.forEach(writer::add);
+            writer.finish();
+        }
+        return indexFile;
+    }
+
+    /** Mostly ordered days with occasional late entries, like a real log */
+    private static List<LogFields> randomEntries(Random random, int size) {
+        List<LogFields> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            LocalDate day = random.nextInt(1000) == 0
+                    ? null
+                    : FIRST_DAY.plusDays(i * 14L / size - (random.nextInt(50) == 0 ? 1 : 0));
+            String protocol = random.nextInt(10) == 0 ? "" : " HTTP/1." + random.nextInt(2);
+            entries.add(new LogFields(
+                    "10.0.0." + random.nextInt(256),
+                    "-",
+                    day,
+                    "GET /downloads/product_" + random.nextInt(500) + protocol,
+                    random.nextInt(5) == 0 ? 404 : 200,
+                    random.nextInt(5) == 0 ? 0 : random.nextInt(1 << random.nextInt(24)),
+                    "-",
+                    "Mozilla"));
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,135 @@
+package academy.pipeline;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import academy.model.LogFields;
+import academy.service.ILogParser;
+import academy.service.NginxLogParser;
+import academy.stats.StatsCollector;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class LogPipelineTest {
+    private static final String LINE =
+            "93.180.71.3 - - [17/May/2015:08:05:32 +0000] \"GET /downloads/product_%d HTTP/1.1\" 200 %d \"-\" \"-\"";
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 7, 64, 4096})
+    @DisplayName("Every line should be parsed exactly once whatever the block size: {0} bytes")
+    void lineBoundariesTest(int blockSize) throws IOException, InterruptedException {
+        String[] endings = {"\n", "\r\n", "\r", "\n\n", "\r\r\n"};
+        StringBuilder content = new StringBuilder();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            String ending = endings[i % endings.length];
+            content.append("line-").append(i).append(ending);
+            expected.add("line-" + i);
+            if (ending.equals("\n\n") || ending.equals("\r\r\n")) {
+                expected.add("");
+            }
+        }
+        content.append("last-without-terminator");
+        expected.add("last-without-terminator");
+
+        List<String> lines = Collections.synchronizedList(new ArrayList<>());
+        ILogParser recorder = new ILogParser() {
+            @Override
+            public Optional<LogFields> tryProcessLine(String line) {
+                lines.add(line);
+                return Optional.empty();
+            }
+        };
+
+        PipelineMetrics metrics = new LogPipeline(() -> recorder, 3, blockSize)
+                .process(stream(content.toString()), new StatsCollector(null, null));
+
+        Collections.sort(lines);
+        Collections.sort(expected);
+        assertEquals(expected, lines);
+        assertEquals(expected.size(), metrics.getParsers().getItems());
+        assertEquals(content.length(), metrics.getReader().getItems());
+    }
+
+    @Test
+    @DisplayName("Metrics should count every stage")
+    void metricsTest() throws IOException, InterruptedException {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            content.append(LINE.formatted(i % 10, i)).append('\n');
+        }
+        content.append("not a log line\n");
+
+        StatsCollector collector = new StatsCollector(null, null);
+        PipelineMetrics metrics =
+                new LogPipeline(NginxLogParser::new, 2, 16 * 1024).process(stream(content.toString()), collector);
+
+        assertEquals(10_000, collector.getStats().getTotalRequestsCount());
+        assertEquals(10_001, metrics.getParsers().getItems());
+        assertEquals(10_000, metrics.getAggregator().getItems());
+        assertEquals(metrics.getReader().getBatches(), metrics.getParsers().getBatches());
+        assertTrue(metrics.getRawQueue().getMaxDepth() <= metrics.getRawQueue().getCapacity());
+        assertTrue(metrics.getThroughput() > 0);
+    }
+
+    @Test
+    @DisplayName("A parser failure should stop the pipeline and reach the caller")
+    void parserFailureTest() {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            content.append(LINE.formatted(i, i)).append('\n');
+        }
+        content.append("93.180.71.3 - - [17/Mau/2015:08:05:32 +0000] \"GET / HTTP/1.1\" 200 1 \"-\" \"-\"\n");
+
+        assertThrows(IllegalArgumentException.class, () -> new LogPipeline(NginxLogParser::new, 2, 4096)
+                .process(stream(content.toString()), new StatsCollector(null, null)));
+    }
+
+    @Test
+    @DisplayName("A read failure should reach the caller")
+    void readFailureTest() {
+        InputStream failing = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("disk is gone");
+            }
+        };
+
+        IOException exception = assertThrows(IOException.class, () -> new LogPipeline(NginxLogParser::new, 2)
+                .process(failing, new StatsCollector(null, null)));
+        assertEquals("disk is gone", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("An aggregation failure should stop the other stages")
+    void aggregatorFailureTest() {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            content.append(LINE.formatted(i, i)).append('\n');
+        }
+        StatsCollector failing = new StatsCollector(null, null) {
+            @Override
+            public void collect(LogFields logFields) {
+                throw new IllegalStateException("out of space");
+            }
+        };
+
+        assertThrows(IllegalStateException.class, () -> new LogPipeline(NginxLogParser::new, 2, 1024)
+                .process(stream(content.toString()), failing));
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,119 @@
+package academy.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+class BackgroundGzipInputStreamTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should return the original bytes of a multi-member gzip file")
+    void roundTripTest() throws IOException {
+        byte[] first = randomText(new Random(1), 3_000_000);
+        byte[] second = randomText(new Random(2), 100_000);
+        Path file = directory.resolve("access.log.1.gz");
+        try (OutputStream output = Files.newOutputStream(file)) {
+            output.write(gzip(first));
+            output.write(gzip(second));
+        }
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        expected.write(first);
+        expected.write(second);
+
+        try (InputStream input = new BackgroundGzipInputStream(file)) {
+            assertArrayEquals(expected.toByteArray(), input.readAllBytes());
+            assertEquals(-1, input.read());
+        }
+    }
+
+    @Test
+    @DisplayName("Should detect gzip by magic bytes, not by extension")
+    void magicBytesTest() throws IOException {
+        Path compressed = directory.resolve("access.log");
+        Files.write(compressed, gzip("line\n".getBytes()));
+        Path plain = directory.resolve("access.log.gz");
+        Files.writeString(plain, "line\n");
+        Path empty = directory.resolve("empty.gz");
+        Files.write(empty, new byte[0]);
+
+        assertTrue(BackgroundGzipInputStream.isGzip(compressed));
+        assertFalse(BackgroundGzipInputStream.isGzip(plain));
+        assertFalse(BackgroundGzipInputStream.isGzip(empty));
+    }
+
+    @Test
+    @DisplayName("Should report corrupted data to the reader")
+    void corruptedDataTest() throws IOException {
+        byte[] compressed = gzip(randomText(new Random(3), 1_000_000));
+        Path file = directory.resolve("truncated.gz");
+        Files.write(file, Arrays.copyOf(compressed, compressed.length / 2));
+
+        try (InputStream input = new BackgroundGzipInputStream(file)) {
+            assertThrows(IOException.class, input::readAllBytes);
+        }
+    }
+
+    @Test
+    @Timeout(10)
+    @DisplayName("Should report an unchecked failure of the decompressor instead of blocking the reader")
+    void uncheckedFailureTest() throws IOException {
+        InputStream failing = new InputStream() {
+            @Override
+            public int read() {
+                throw new IllegalStateException("broken source");
+            }
+        };
+
+        try (InputStream input = new BackgroundGzipInputStream("broken.gz", () -> failing)) {
+            IOException e = assertThrows(IOException.class, input::readAllBytes);
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+        }
+    }
+
+    @Test
+    @DisplayName("Should stop decompressing when closed early")
+    void closeTest() throws IOException {
+        Path file = directory.resolve("large.gz");
+        Files.write(file, gzip(randomText(new Random(4), 8_000_000)));
+
+        InputStream input = new BackgroundGzipInputStream(file);
+        assertEquals(1024, input.readNBytes(1024).length);
+        input.close();
+    }
+
+    private static byte[] randomText(Random random, int size) {
+        byte[] text = new byte[size];
+        for (int i = 0; i < size; i++) {
+            text[i] = random.nextInt(40) == 0 ? (byte) '\n' : (byte) ('a' + random.nextInt(26));
+        }
+        return text;
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream output = new GZIPOutputStream(bytes)) {
+            output.write(data);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,52 @@
+package academy.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ByteStringDictionaryTest {
+    @Test
+    @DisplayName("A repeated sequence should be decoded into the same instance")
+    void repeatedTest() {
+        ByteStringDictionary dictionary = new ByteStringDictionary();
+        byte[] first = "GET /пример HTTP/1.1".getBytes(StandardCharsets.UTF_8);
+        byte[] second = "/пример".getBytes(StandardCharsets.UTF_8);
+
+        String decoded = dictionary.decode(first, 4, first.length - 9);
+
+        assertEquals("/пример", decoded);
+        assertSame(decoded, dictionary.decode(second, 0, second.length));
+        assertEquals("/other", dictionary.decode("/other".getBytes(StandardCharsets.UTF_8), 0, 6));
+    }
+
+    @Test
+    @DisplayName("The dictionary should keep no more sequences than it has slots")
+    void boundedTest() {
+        ByteStringDictionary dictionary = new ByteStringDictionary(16);
+
+        for (int i = 0; i < 1000; i++) {
+            byte[] bytes = ("/resource/" + i).getBytes(StandardCharsets.UTF_8);
+            assertEquals("/resource/" + i, dictionary.decode(bytes, 0, bytes.length));
+        }
+
+        assertTrue(dictionary.size() <= 16, () -> "size " + dictionary.size());
+    }
+
+    @Test
+    @DisplayName("Long sequences should be decoded without being cached")
+    void longTest() {
+        ByteStringDictionary dictionary = new ByteStringDictionary();
+        byte[] bytes = ("/" + "a".repeat(ByteStringDictionary.MAX_LENGTH)).getBytes(StandardCharsets.UTF_8);
+
+        String decoded = dictionary.decode(bytes, 0, bytes.length);
+
+        assertEquals(new String(bytes, StandardCharsets.UTF_8), decoded);
+        assertNotSame(decoded, dictionary.decode(bytes, 0, bytes.length));
+        assertEquals(0, dictionary.size());
+    }
+}
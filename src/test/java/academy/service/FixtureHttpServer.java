@@ -0,0 +1,150 @@
+package academy.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Local stand-in for a remote log server. Serves one fixture, optionally gzip-encoded and with {@code Range} support,
+ * and can drop connections midway or answer with errors.
+ */
+public class FixtureHttpServer implements AutoCloseable {
+    static final String ETAG = "\"fixture-v1\"";
+
+    private final HttpServer server;
+    private final byte[] content;
+
+    volatile boolean gzipSupported = true;
+    volatile boolean rangesSupported = true;
+    volatile String etag = ETAG;
+
+    /**
+     * ETag of gzip-encoded responses, {@code null} serves {@link #etag}. nginx makes it weak and Apache appends
+     * {@code -gzip}, neither matches an {@code If-Range} for the identity resource.
+     */
+    volatile String gzipEtag;
+
+    /** {@code Last-Modified} of every response, none if {@code null} */
+    volatile String lastModified;
+
+    volatile int status = 200;
+
+    /** Number of upcoming responses to be cut off after {@link #dropAfterBytes} bytes of the body */
+    final AtomicInteger drops = new AtomicInteger();
+
+    volatile int dropAfterBytes;
+
+    /** ETag served after the first dropped response, as if the resource was replaced meanwhile */
+    volatile String etagAfterDrop;
+
+    /** Number of upcoming requests answered with 503 */
+    final AtomicInteger unavailable = new AtomicInteger();
+
+    final List<String> ranges = Collections.synchronizedList(new ArrayList<>());
+    final List<String> acceptEncodings = Collections.synchronizedList(new ArrayList<>());
+    final List<String> ifRanges = Collections.synchronizedList(new ArrayList<>());
+
+    public FixtureHttpServer(byte[] content) throws IOException {
+        this.content = content;
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public String url(String path) {
+        return "http://localhost:" + server.getAddress().getPort() + path;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        String ifRange = exchange.getRequestHeaders().getFirst("If-Range");
+        ranges.add(range);
+        acceptEncodings.add(acceptEncoding);
+        ifRanges.add(ifRange);
+
+        if (unavailable.getAndDecrement() > 0) {
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+            return;
+        }
+        if (status != 200) {
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+            return;
+        }
+
+        byte[] body = content;
+        int code = 200;
+        String responseEtag = etag;
+        if (lastModified != null) {
+            exchange.getResponseHeaders().add("Last-Modified", lastModified);
+        }
+
+        // only a strong validator of the identity resource matches
+        boolean validated = ifRange == null
+                || (etag != null && !etag.startsWith("W/") && ifRange.equals(etag))
+                || ifRange.equals(lastModified);
+        if (range != null && rangesSupported && validated) {
+            int start = Integer.parseInt(range.substring("bytes=".length(), range.length() - 1));
+            if (start >= content.length) {
+                exchange.sendResponseHeaders(416, -1);
+                exchange.close();
+                return;
+            }
+            body = Arrays.copyOfRange(content, start, content.length);
+            code = 206;
+            exchange.getResponseHeaders()
+                    .add("Content-Range", "bytes %d-%d/%d".formatted(start, content.length - 1, content.length));
+        } else if (gzipSupported && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            body = gzip(content);
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            responseEtag = gzipEtag != null ? gzipEtag : etag;
+        }
+        if (responseEtag != null) {
+            exchange.getResponseHeaders().add("ETag", responseEtag);
+        }
+
+        exchange.sendResponseHeaders(code, body.length);
+        OutputStream output = exchange.getResponseBody();
+        if (drops.getAndDecrement() > 0) {
+            output.write(body, 0, Math.min(dropAfterBytes, body.length));
+            output.flush();
+            if (etagAfterDrop != null) {
+                etag = etagAfterDrop;
+            }
+            // closing before the announced length is written makes the server drop the connection
+            try {
+                output.close();
+            } catch (IOException expected) {
+                // insufficient bytes written
+            }
+            return;
+        }
+        output.write(body);
+        output.close();
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream output = new GZIPOutputStream(bytes)) {
+            output.write(data);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
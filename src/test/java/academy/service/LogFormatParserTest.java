@@ -0,0 +1,207 @@
+package academy.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import academy.model.DateRange;
+import academy.model.LogFields;
+import academy.stats.StatsCollector;
+import academy.stats.StatsOptions;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class LogFormatParserTest {
+    private static final String TIMED_FORMAT = "$remote_addr - $remote_user [$time_local] \"$request\" $status "
+            + "$body_bytes_sent \"$http_referer\" \"$http_user_agent\" rt=$request_time uct=\"$upstream_connect_time\" "
+            + "urt=\"$upstream_response_time\" host=${host}";
+
+    /**
+     * Corpus lines the regex parser rejects: an IPv6 client, and a quote inside the request, which nginx would have
+     * escaped, so the request simply ends at the last quote before the status
+     */
+    private static final List<String> EXTRA_ACCEPTED = List.of("/ipv6 ", "/quote\"d ");
+
+    private final NginxLogParser regexParser = new NginxLogParser();
+    private final LogFormatParser combinedParser =
+            new LogFormatParser(LogFormat.compile("combined"), DateRange.ALL, true);
+    private final LogFormatParser timedParser = new LogFormatParser(LogFormat.compile(TIMED_FORMAT));
+
+    @ParameterizedTest
+    @MethodSource("corpusLines")
+    @DisplayName("The combined format should extract the same statistics fields as the regex parser: {0}")
+    void sameFieldsTest(String line) {
+        Optional<LogFields> expected = regexParser.tryProcessLine(line);
+        Optional<LogFields> actual = combinedParser.tryProcessLine(line);
+
+        if (EXTRA_ACCEPTED.stream().anyMatch(line::contains)) {
+            assertTrue(expected.isEmpty() && actual.isPresent(), line);
+        } else {
+            assertEquals(expected.map(LogFormatParserTest::statsFields), actual.map(LogFormatParserTest::statsFields));
+        }
+    }
+
+    @Test
+    @DisplayName("The combined format should produce identical Stats on the test logs")
+    void sameStatsTest() throws IOException {
+        List<String> lines = Stream.of("part1.txt", "part2.txt")
+                .flatMap(name -> readLines(Path.of("scripts/data/input/logs", name)))
+                .toList();
+
+        assertEquals(collect(lines, regexParser, DateRange.ALL), collect(lines, combinedParser, DateRange.ALL));
+    }
+
+    @Test
+    @DisplayName("Timing variables, the host and IPv6 clients should be extracted")
+    void timedFormatTest() {
+        String line = "2001:db8::ff00:42:8329 - - [17/May/2015:08:05:32 +0000] \"GET /api/orders?id=7 HTTP/2.0\" 200 "
+                + "1532 \"-\" \"curl/8.5.0\" rt=0.125 uct=\"0.001, 0.002\" urt=\"0.050, 0.060 : 0.005\" "
+                + "host=shop.example.com";
+
+        LogFields fields = timedParser.tryProcessLine(line).orElseThrow();
+
+        assertEquals(LocalDate.of(2015, 5, 17), fields.timeLocal());
+        assertEquals(200, fields.status());
+        assertEquals(1532, fields.bodyBytesSent());
+        assertEquals("/api/orders?id=7", fields.requestResource());
+        assertEquals("HTTP/2.0", fields.requestProtocol());
+        assertEquals(0.125, fields.requestTime());
+        assertEquals(0.050 + 0.060 + 0.005, fields.upstreamResponseTime(), 1e-9);
+        assertEquals("shop.example.com", fields.host());
+    }
+
+    @Test
+    @DisplayName("Requests without an upstream should have no upstream response time")
+    void noUpstreamTest() {
+        String line = "10.0.0.1 - - [17/May/2015:08:05:32 +0000] \"GET / HTTP/1.1\" 304 0 \"-\" \"-\" rt=0.000 "
+                + "uct=\"-\" urt=\"-\" host=-";
+
+        LogFields fields = timedParser.tryProcessLine(line).orElseThrow();
+
+        assertEquals(0.0, fields.requestTime());
+        assertTrue(Double.isNaN(fields.upstreamResponseTime()));
+        assertEquals(null, fields.host());
+    }
+
+    @ParameterizedTest
+    @ValueSource(
+            strings = {
+                "10.0.0.1 - - [17/May/2015:08:05:32 +0000] \"GET / HTTP/1.1\" 200 0 \"-\" \"-\" rt=fast uct=\"-\" "
+                        + "urt=\"-\" host=a",
+                "10.0.0.1 - - [17/May/2015:08:05:32 +0000] \"GET / HTTP/1.1\" 200 0 \"-\" \"-\" rt=0.1 uct=\"-\" "
+                        + "urt=\"0.1, x\" host=a",
+                "10.0.0.1 - - [17/May/2015:08:05:32 +0000] \"GET / HTTP/1.1\" 20 0 \"-\" \"-\" rt=0.1 uct=\"-\" "
+                        + "urt=\"-\" host=a",
+                "10.0.0.1 - - [17/May/2015:08:05:32 +0000] \"GET / HTTP/1.1\" 200 0 \"-\" \"-\" rt=0.1 uct=\"-\" "
+                        + "urt=\"-\"",
+                "10.0.0 1 - - [17/May/2015:08:05:32 +0000] \"GET / HTTP/1.1\" 200 0 \"-\" \"-\" rt=0.1 uct=\"-\" "
+                        + "urt=\"-\" host=a",
+                "   "
+            })
+    @DisplayName("Lines that do not follow the format should be rejected: {0}")
+    void malformedLineTest(String line) {
+        assertEquals(Optional.empty(), timedParser.tryProcessLine(line));
+    }
+
+    @Test
+    @DisplayName("Lines of other dates should be rejected, invalid dates should fail like in the other parsers")
+    void dateRangeTest() {
+        DateRange range = DateRange.of(LocalDate.of(2015, 5, 10), LocalDate.of(2015, 5, 17));
+        LogFormatParser parser = new LogFormatParser(LogFormat.compile("combined"), range, true);
+        String line = "93.180.71.3 - - [%s:08:05:32 +0000] \"GET /a HTTP/1.1\" 200 1 \"-\" \"-\"";
+
+        assertEquals(Optional.empty(), parser.tryProcessLine(line.formatted("01/May/2015")));
+        assertTrue(parser.tryProcessLine(line.formatted("17/May/2015")).isPresent());
+        assertThrows(IllegalArgumentException.class, () -> parser.tryProcessLine(line.formatted("17/Foo/2015")));
+    }
+
+    @Test
+    @DisplayName("Times should be parsed exactly like Double.parseDouble")
+    void parseDecimalTest() {
+        for (String value : List.of("0", "0.001", "12.345", "0.1", "999.999", "1234567890.123456789")) {
+            byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+            assertEquals(Double.parseDouble(value), LogFormatParser.parseDecimal(bytes, 0, bytes.length), value);
+        }
+        for (String value : List.of("", ".5", "5.", "1.2.3", "-1", "1e3")) {
+            byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+            assertEquals(-1, LogFormatParser.parseDecimal(bytes, 0, bytes.length), value);
+        }
+    }
+
+    @Test
+    @DisplayName("Request times and hosts should appear in Stats only when the format has them")
+    void timedStatsTest() throws IOException {
+        List<String> lines = List.of(
+                "10.0.0.1 - - [17/May/2015:08:05:32 +0000] \"GET /a HTTP/1.1\" 200 10 \"-\" \"-\" rt=0.100 uct=\"-\" "
+                        + "urt=\"0.080\" host=a.example.com",
+                "10.0.0.2 - - [17/May/2015:08:05:33 +0000] \"GET /b HTTP/1.1\" 200 20 \"-\" \"-\" rt=0.300 uct=\"-\" "
+                        + "urt=\"-\" host=b.example.com",
+                "10.0.0.3 - - [17/May/2015:08:05:34 +0000] \"GET /a HTTP/1.1\" 200 30 \"-\" \"-\" rt=0.050 uct=\"-\" "
+                        + "urt=\"0.040\" host=a.example.com");
+
+        String json = collect(lines, timedParser, DateRange.ALL);
+        JsonNode stats = new ObjectMapper().readTree(json);
+
+        assertEquals(3, stats.at("/requestTime/count").asInt());
+        assertEquals(0.15, stats.at("/requestTime/average").asDouble());
+        assertEquals(0.3, stats.at("/requestTime/max").asDouble());
+        assertEquals(2, stats.at("/upstreamResponseTime/count").asInt());
+        assertEquals(0.06, stats.at("/upstreamResponseTime/average").asDouble());
+        assertEquals(0.08, stats.at("/upstreamResponseTime/max").asDouble());
+        assertTrue(
+                json.contains("\"hosts\":[{\"host\":\"a.example.com\",\"totalRequestsCount\":2},"
+                        + "{\"host\":\"b.example.com\",\"totalRequestsCount\":1}]"),
+                json);
+        assertTrue(!collect(lines.subList(0, 0), timedParser, DateRange.ALL).contains("requestTime"));
+    }
+
+    private static String collect(List<String> lines, ILogParser parser, DateRange range) throws IOException {
+        StatsCollector collector = new StatsCollector(
+                range.from(), range.to(), StatsOptions.builder().clients(true).build());
+        lines.forEach(line -> parser.tryProcessLine(line).ifPresent(collector::collect));
+        return new ObjectMapper().writeValueAsString(collector.getStats());
+    }
+
+    private static List<Object> statsFields(LogFields fields) {
+        return Arrays.asList(
+                fields.remoteAddress(),
+                fields.timeLocal(),
+                fields.status(),
+                fields.bodyBytesSent(),
+                fields.requestResource(),
+                fields.requestProtocol());
+    }
+
+    private static Stream<String> corpusLines() {
+        try {
+            return readLines(Path.of(LogFormatParserTest.class
+                    .getResource("/corpus/combined.log")
+                    .toURI()));
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Stream<String> readLines(Path path) {
+        try {
+            return Files.readAllLines(path, StandardCharsets.UTF_8).stream();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
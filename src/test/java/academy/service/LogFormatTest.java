@@ -0,0 +1,58 @@
+package academy.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class LogFormatTest {
+    @Test
+    @DisplayName("A format should be split into the literals around its variables")
+    void compileTest() {
+        LogFormat format = LogFormat.compile("[${time_local}] $host \"$request\" $status;$upstream_addr");
+
+        assertEquals("[", new String(format.prefix(), StandardCharsets.UTF_8));
+        assertArrayEquals(
+                new LogFormat.Variable[] {
+                    LogFormat.Variable.TIME_LOCAL,
+                    LogFormat.Variable.HOST,
+                    LogFormat.Variable.REQUEST,
+                    LogFormat.Variable.STATUS,
+                    LogFormat.Variable.OTHER
+                },
+                format.variables());
+    }
+
+    @Test
+    @DisplayName("combined should stand for the predefined nginx format")
+    void combinedTest() {
+        LogFormat format = LogFormat.compile("combined");
+
+        assertEquals(LogFormat.COMBINED, format.toString());
+        assertEquals(
+                List.of(" - ", " [", "] \"", "\" ", " ", " \"", "\" \"", "\""),
+                Arrays.stream(format.suffixes())
+                        .map(suffix -> new String(suffix, StandardCharsets.UTF_8))
+                        .toList());
+    }
+
+    @ParameterizedTest
+    @ValueSource(
+            strings = {
+                "$remote_addr [$time_local] \"$request\"",
+                "[$time_local] \"$request\" $status$body_bytes_sent",
+                "[$time_local] $request$status",
+                "plain text"
+            })
+    @DisplayName("Formats without required variables or with adjacent variables should be rejected: {0}")
+    void invalidFormatTest(String format) {
+        assertThrows(IllegalArgumentException.class, () -> LogFormat.compile(format));
+    }
+}
@@ -0,0 +1,124 @@
+package academy.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import academy.model.DateRange;
+import academy.model.LogFields;
+import academy.stats.StatsCollector;
+import academy.stats.StatsOptions;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class NginxLogTokenizerTest {
+    private static final Path CORPUS = corpusPath();
+
+    private final NginxLogParser regexParser = new NginxLogParser();
+    private final NginxLogTokenizer tokenizer = new NginxLogTokenizer(DateRange.ALL, true);
+
+    @ParameterizedTest
+    @MethodSource("corpusLines")
+    @DisplayName("Tokenizer should extract the same statistics fields as the regex parser: {0}")
+    void sameFieldsTest(String line) {
+        Optional<LogFields> expected = regexParser.tryProcessLine(line);
+        Optional<LogFields> actual = tokenizer.tryProcessLine(line);
+
+        assertEquals(expected.map(NginxLogTokenizerTest::statsFields), actual.map(NginxLogTokenizerTest::statsFields));
+    }
+
+    @Test
+    @DisplayName("Tokenizer should produce identical Stats on the test corpus")
+    void sameStatsTest() throws IOException {
+        List<String> lines = Stream.concat(
+                        corpusLines(),
+                        Stream.of("part1.txt", "part2.txt")
+                                .flatMap(name -> readLines(Path.of("scripts/data/input/logs", name))))
+                .toList();
+
+        assertEquals(collect(lines, regexParser), collect(lines, tokenizer));
+    }
+
+    @Test
+    @DisplayName("Tokenizer should reject matching lines with an invalid date like the regex parser")
+    void invalidDateTest() {
+        String line = "93.180.71.3 - - [17/Foo/2015:08:05:32 +0000] \"GET /a HTTP/1.1\" 200 1 \"-\" \"-\"";
+
+        assertThrows(IllegalArgumentException.class, () -> regexParser.tryProcessLine(line));
+        assertThrows(IllegalArgumentException.class, () -> tokenizer.tryProcessLine(line));
+    }
+
+    @Test
+    @DisplayName("Parsers of a date range should produce the same Stats as filtering parsed lines")
+    void dateRangeTest() throws IOException {
+        List<String> lines = Stream.of("part1.txt", "part2.txt")
+                .flatMap(name -> readLines(Path.of("scripts/data/input/logs", name)))
+                .toList();
+        DateRange range = DateRange.of(LocalDate.of(2015, 5, 10), LocalDate.of(2015, 5, 17));
+        String otherDate = lines.stream()
+                .filter(line -> line.contains("[1/May/2015"))
+                .findFirst()
+                .orElseThrow();
+
+        String expected = collect(lines, regexParser, range);
+        assertEquals(expected, collect(lines, new NginxLogParser(range), range));
+        assertEquals(expected, collect(lines, new NginxLogTokenizer(range, true), range));
+        assertEquals(Optional.empty(), new NginxLogParser(range).tryProcessLine(otherDate));
+        assertEquals(Optional.empty(), new NginxLogTokenizer(range).tryProcessLine(otherDate));
+    }
+
+    private static String collect(List<String> lines, ILogParser parser) throws IOException {
+        return collect(lines, parser, DateRange.ALL);
+    }
+
+    private static String collect(List<String> lines, ILogParser parser, DateRange range) throws IOException {
+        StatsCollector collector = new StatsCollector(
+                range.from(), range.to(), StatsOptions.builder().clients(true).build());
+        lines.forEach(line -> parser.tryProcessLine(line).ifPresent(collector::collect));
+        return new ObjectMapper().writeValueAsString(collector.getStats());
+    }
+
+    private static List<Object> statsFields(LogFields fields) {
+        return Arrays.asList(
+                fields.remoteAddress(),
+                fields.timeLocal(),
+                fields.status(),
+                fields.bodyBytesSent(),
+                fields.requestResource(),
+                fields.requestProtocol());
+    }
+
+    private static Stream<String> corpusLines() {
+        return readLines(CORPUS);
+    }
+
+    private static Stream<String> readLines(Path path) {
+        try {
+            return Files.readAllLines(path, StandardCharsets.UTF_8).stream();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Path corpusPath() {
+        try {
+            return Path.of(NginxLogTokenizerTest.class
+                    .getResource("/corpus/combined.log")
+                    .toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
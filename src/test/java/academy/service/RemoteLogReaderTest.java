@@ -0,0 +1,168 @@
+package academy.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class RemoteLogReaderTest {
+    private static final Path FIXTURE = Path.of("src/test/resources/corpus/combined.log");
+
+    private FixtureHttpServer server;
+    private RemoteLogReader reader;
+    private List<String> expectedLines;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        byte[] content = Files.readAllBytes(FIXTURE);
+        // repeat the fixture so that the body spans many chunks
+        StringBuilder repeated = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            repeated.append(new String(content, StandardCharsets.UTF_8));
+        }
+        byte[] body = repeated.toString().getBytes(StandardCharsets.UTF_8);
+
+        server = new FixtureHttpServer(body);
+        reader = new RemoteLogReader(HttpClient.newHttpClient(), 3, Duration.ofMillis(10), Duration.ofMillis(500));
+        expectedLines = repeated.toString().lines().toList();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    @DisplayName("Should ask for gzip and decode the body")
+    void gzipTest() throws IOException, InterruptedException {
+        assertEquals(expectedLines, read());
+        assertEquals(List.of("gzip"), server.acceptEncodings);
+    }
+
+    @Test
+    @DisplayName("Should read an identity body")
+    void identityTest() throws IOException, InterruptedException {
+        server.gzipSupported = false;
+
+        assertEquals(expectedLines, read());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    @DisplayName("Should resume with Range after dropped connections, gzip: {0}")
+    void resumeTest(boolean gzip) throws IOException, InterruptedException {
+        server.gzipSupported = gzip;
+        server.drops.set(2);
+        // the repeated fixture compresses to a few kilobytes
+        server.dropAfterBytes = gzip ? 4_000 : 150_000;
+
+        assertEquals(expectedLines, read());
+
+        assertEquals(3, server.ranges.size());
+        assertEquals(null, server.ranges.getFirst());
+        assertTrue(server.ranges.get(1).startsWith("bytes="), server.ranges.toString());
+        long first = Long.parseLong(server.ranges.get(1).replaceAll("\\D", ""));
+        long second = Long.parseLong(server.ranges.get(2).replaceAll("\\D", ""));
+        assertTrue(first > 0 && second > first, server.ranges.toString());
+    }
+
+    @ParameterizedTest(name = "gzip ETag {0}, Last-Modified {1}")
+    @CsvSource(
+            value = {
+                "'W/\"fixture-v1\"', 'Sun, 18 Oct 2026 05:00:00 GMT'",
+                "'W/\"fixture-v1\"', NULL",
+                "'\"fixture-v1-gzip\"', 'Sun, 18 Oct 2026 05:00:00 GMT'",
+                "'\"fixture-v1-gzip\"', NULL"
+            },
+            nullValues = "NULL")
+    @DisplayName("Should resume a gzip download with a validator of the identity resource")
+    void gzipValidatorTest(String gzipEtag, String lastModified) throws IOException, InterruptedException {
+        server.gzipEtag = gzipEtag;
+        server.lastModified = lastModified;
+        server.drops.set(2);
+        server.dropAfterBytes = 4_000;
+
+        assertEquals(expectedLines, read());
+
+        assertEquals(3, server.ifRanges.size());
+        assertEquals(lastModified, server.ifRanges.get(1));
+        // the identity response of the first resume carries the strong ETag
+        assertEquals(lastModified != null ? lastModified : FixtureHttpServer.ETAG, server.ifRanges.get(2));
+        assertTrue(server.ranges.get(2).startsWith("bytes="), server.ranges.toString());
+    }
+
+    @Test
+    @DisplayName("Should skip the consumed part when the server ignores Range")
+    void noRangeSupportTest() throws IOException, InterruptedException {
+        server.gzipSupported = false;
+        server.rangesSupported = false;
+        server.drops.set(1);
+        server.dropAfterBytes = 100_000;
+
+        assertEquals(expectedLines, read());
+    }
+
+    @Test
+    @DisplayName("Should fail when the resource changes between attempts")
+    void changedResourceTest() {
+        server.gzipSupported = false;
+        server.drops.set(1);
+        server.dropAfterBytes = 100_000;
+        server.rangesSupported = false;
+        server.etagAfterDrop = "\"fixture-v2\"";
+
+        assertThrows(IllegalStateException.class, this::read);
+    }
+
+    @Test
+    @DisplayName("Should retry unavailable servers")
+    void unavailableTest() throws IOException, InterruptedException {
+        server.unavailable.set(3);
+
+        assertEquals(expectedLines, read());
+        assertEquals(4, server.ranges.size());
+    }
+
+    @Test
+    @DisplayName("Should give up after too many failures in a row")
+    void tooManyFailuresTest() {
+        server.unavailable.set(10);
+
+        assertThrows(IOException.class, this::read);
+        assertEquals(4, server.ranges.size());
+    }
+
+    @Test
+    @DisplayName("Should not retry client errors")
+    void notFoundTest() {
+        server.status = 404;
+
+        assertThrows(IllegalArgumentException.class, this::read);
+        assertEquals(1, server.ranges.size());
+    }
+
+    private List<String> read() throws IOException, InterruptedException {
+        List<String> lines = new ArrayList<>();
+        reader.readLines(
+                server.url("/access.log"),
+                (buffer, start, end) ->
+                        lines.add(new String(Arrays.copyOfRange(buffer, start, end), StandardCharsets.UTF_8)));
+        return lines;
+    }
+}
@@ -0,0 +1,132 @@
+package academy.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import academy.model.DateRange;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class SortedRangeLocatorTest {
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 10, 1);
+    private static final int DAYS = 30;
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("dd/MMM/yyyy", Locale.ENGLISH);
+
+    @TempDir
+    private Path directory;
+
+    /** Start offset and date of every line */
+    private record Line(long offset, LocalDate date) {}
+
+    static Stream<Arguments> ranges() {
+        return Stream.of(
+                Arguments.of(LocalDate.of(2024, 10, 10), LocalDate.of(2024, 10, 12)),
+                Arguments.of(LocalDate.of(2024, 10, 20), null),
+                Arguments.of(null, LocalDate.of(2024, 10, 3)),
+                Arguments.of(LocalDate.of(2024, 10, 15), LocalDate.of(2024, 10, 15)),
+                Arguments.of(LocalDate.of(2024, 9, 1), LocalDate.of(2024, 9, 30)),
+                Arguments.of(LocalDate.of(2024, 11, 1), null));
+    }
+
+    @ParameterizedTest(name = "from {0} to {1}")
+    @MethodSource("ranges")
+    @DisplayName("The located part should hold every line of the range and skip most other lines")
+    void locateTest(LocalDate from, LocalDate to) throws IOException {
+        Path file = directory.resolve("access.log");
+        List<Line> lines = writeSortedLog(file, new Random(11));
+        DateRange range = DateRange.of(from, to);
+
+        FileChunk part;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            part = SortedRangeLocator.locate(channel, range);
+        }
+
+        long size = Files.size(file);
+        assertTrue(
+                lines.stream().anyMatch(line -> line.offset() == part.start()) || part.start() == size, "line start");
+        assertTrue(lines.stream().anyMatch(line -> line.offset() == part.end()) || part.end() == size, "line end");
+        for (Line line : lines) {
+            if (range.contains(line.date())) {
+                assertTrue(line.offset() >= part.start() && line.offset() < part.end(), line.toString());
+            }
+        }
+
+        long inRange =
+                lines.stream().filter(line -> range.contains(line.date())).count();
+        long maxBytes = inRange * size / lines.size() + 2 * SortedRangeLocator.SLACK + 64 * 1024;
+        assertTrue(part.end() - part.start() <= maxBytes, part.toString());
+    }
+
+    @Test
+    @DisplayName("Lines without a date and long lines should not stop the search")
+    void invalidLinesTest() throws IOException {
+        Path file = directory.resolve("access.log");
+        StringBuilder content = new StringBuilder();
+        for (int day = 0; day < DAYS; day++) {
+            for (int i = 0; i < 2000; i++) {
+                content.append(i % 100 == 0 ? "garbage" : line(FIRST_DAY.plusDays(day), i));
+                content.append(i % 1000 == 1 ? "x".repeat(20_000) : "").append('\n');
+            }
+        }
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        String expected = content.substring(
+                content.indexOf("[" + FORMATTER.format(FIRST_DAY.plusDays(10))),
+                content.indexOf("[" + FORMATTER.format(FIRST_DAY.plusDays(11))));
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            FileChunk part =
+                    SortedRangeLocator.locate(channel, DateRange.of(FIRST_DAY.plusDays(10), FIRST_DAY.plusDays(10)));
+            String located = content.substring((int) part.start(), (int) part.end());
+
+            assertTrue(located.contains(expected));
+            assertTrue(part.start() > 0 && part.end() < Files.size(file), part.toString());
+        }
+    }
+
+    @Test
+    @DisplayName("An empty file should give an empty part")
+    void emptyFileTest() throws IOException {
+        Path file = Files.createFile(directory.resolve("access.log"));
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            assertEquals(new FileChunk(0, 0), SortedRangeLocator.locate(channel, DateRange.of(FIRST_DAY, FIRST_DAY)));
+        }
+    }
+
+    /** Days in order, with some lines of the previous day written after midnight */
+    private static List<Line> writeSortedLog(Path file, Random random) throws IOException {
+        List<Line> lines = new ArrayList<>();
+        StringBuilder content = new StringBuilder();
+        for (int day = 0; day < DAYS; day++) {
+            for (int i = 0; i < 1500; i++) {
+                LocalDate date = FIRST_DAY.plusDays(day > 0 && i < 20 && random.nextBoolean() ? day - 1 : day);
+                lines.add(new Line(content.length(), date));
+                content.append(line(date, random.nextInt(100))).append('\n');
+            }
+        }
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return lines;
+    }
+
+    private static String line(LocalDate date, int product) {
+        return "93.180.71.3 - - [%s:08:05:32 +0000] \"GET /downloads/product_%d HTTP/1.1\" 200 490 \"-\" \"Debian\""
+                .formatted(FORMATTER.format(date), product);
+    }
+}
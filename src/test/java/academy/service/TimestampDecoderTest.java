@@ -0,0 +1,80 @@
+package academy.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class TimestampDecoderTest {
+    private static final DateTimeFormatter FORMATTER =
+            DateTimeFormatter.ofPattern("d/MMM/yyyy:HH:mm:ss Z", Locale.ENGLISH);
+
+    private final TimestampDecoder decoder = new TimestampDecoder();
+
+    @ParameterizedTest
+    @ValueSource(
+            strings = {
+                "18/Oct/2026:13:55:36 +0000",
+                "1/Jun/2015:00:00:00 -0700",
+                "01/Jan/2024:23:59:59 +0300",
+                "29/Feb/2024:12:00:00 +0000",
+                "31/Feb/2023:12:00:00 +0000",
+                "17/May/2015:24:00:00 +0000",
+                "017/May/2015:08:05:32 +0000",
+                "17/May/2015:08:05:32 +1800"
+            })
+    @DisplayName("Should decode the same date and instant as DateTimeFormatter: {0}")
+    void sameAsFormatterTest(String timeLocal) {
+        LocalDate expected = LocalDateTime.parse(timeLocal, FORMATTER).toLocalDate();
+        long expectedEpochSecond = OffsetDateTime.parse(timeLocal, FORMATTER).toEpochSecond();
+
+        assertEquals(expected, decoder.decode(timeLocal));
+        assertEquals(expectedEpochSecond, decoder.getEpochSecond());
+        assertEquals(expected, decodeBytes(timeLocal));
+        assertEquals(expectedEpochSecond, decoder.getEpochSecond());
+    }
+
+    @ParameterizedTest
+    @ValueSource(
+            strings = {
+                "17/may/2015:08:05:32 +0000",
+                "17/May/2015:08:60:32 +0000",
+                "00/May/2015:08:05:32 +0000",
+                "32/May/2015:08:05:32 +0000",
+                "17/May/2015:08:05:32 +1900",
+                "17/May/2015:08:05:32 +18:00",
+                "17/May/2015:08:05:32",
+                "17/May/2015"
+            })
+    @DisplayName("Should reject what DateTimeFormatter rejects: {0}")
+    void invalidTimestampTest(String timeLocal) {
+        decoder.decode("17/May/2015:08:05:32 +0000");
+
+        assertThrows(IllegalArgumentException.class, () -> decoder.decode(timeLocal));
+        assertThrows(IllegalArgumentException.class, () -> decodeBytes(timeLocal));
+    }
+
+    @Test
+    @DisplayName("Should switch the cached day when the prefix changes")
+    void dayChangeTest() {
+        assertEquals(LocalDate.of(2015, 5, 17), decoder.decode("17/May/2015:23:59:59 +0000"));
+        assertEquals(LocalDate.of(2015, 5, 17), decoder.decode("17/May/2015:23:59:58 +0000"));
+        assertEquals(LocalDate.of(2015, 5, 18), decoder.decode("18/May/2015:00:00:00 +0000"));
+        assertEquals(LocalDate.of(2015, 5, 18), decoder.decode("17/May/2015:24:00:00 +0000"));
+        assertEquals(LocalDate.of(2015, 5, 17), decoder.decode("17/May/2015:00:00:01 +0000"));
+    }
+
+    private LocalDate decodeBytes(String timeLocal) {
+        byte[] line = ("[" + timeLocal + "]").getBytes(StandardCharsets.UTF_8);
+        return decoder.decode(line, 1, line.length - 1);
+    }
+}
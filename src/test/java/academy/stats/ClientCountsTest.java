@@ -0,0 +1,98 @@
+package academy.stats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import academy.model.ClientData;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ClientCountsTest {
+    @ParameterizedTest(name = "{0}")
+    @CsvSource({
+        "93.180.71.3, 93.180.71.3",
+        "0.0.0.0, 0.0.0.0",
+        "255.255.255.255, 255.255.255.255",
+        "::ffff:10.0.0.1, 10.0.0.1",
+        "::FFFF:a00:1, 10.0.0.1",
+        "::1, ::1",
+        "::, ::",
+        "2001:DB8:0:0:0:0:0:1, 2001:db8::1",
+        "2001:db8:0:0:1:0:0:1, 2001:db8::1:0:0:1",
+        "2001:db8:0:1:1:1:1:1, 2001:db8:0:1:1:1:1:1",
+        "fe80::1%eth0, fe80::1",
+        "1::, 1::",
+        "64:ff9b::192.0.2.33, 64:ff9b::c000:221"
+    })
+    @DisplayName("Addresses should be counted under their canonical form")
+    void canonicalTest(String address, String canonical) {
+        ClientCounts counts = new ClientCounts();
+        counts.add(address, 10);
+
+        assertEquals(List.of(new ClientData(canonical, 1, 10)), counts.getTop(10, false));
+    }
+
+    @ParameterizedTest(name = "\"{0}\"")
+    @ValueSource(
+            strings = {
+                "",
+                "-",
+                "unix:",
+                "example.com",
+                "1.2.3",
+                "1.2.3.4.5",
+                "256.1.1.1",
+                "1..2.3",
+                "1.2.3.4 ",
+                ":1",
+                "1:",
+                "1:::2",
+                "1::2::3",
+                "1:2:3:4:5:6:7",
+                "1:2:3:4:5:6:7:8:9",
+                "12345::",
+                "::g",
+                "1:2:3:4:5:6:7:1.2.3.4"
+            })
+    @DisplayName("Values that are not IP addresses should not be counted")
+    void invalidTest(String address) {
+        ClientCounts counts = new ClientCounts();
+        counts.add(address, 10);
+
+        assertTrue(counts.isEmpty());
+        assertFalse(counts.parse(address));
+    }
+
+    @Test
+    @DisplayName("Top clients should be ranked by requests or by bytes")
+    void topTest() {
+        ClientCounts counts = new ClientCounts();
+        for (int i = 0; i < 5; i++) {
+            counts.add("10.0.0.1", 100);
+        }
+        for (int i = 0; i < 3; i++) {
+            counts.add("2001:db8::2", 10_000);
+        }
+        counts.add("10.0.0.3", 100);
+        counts.add("10.0.0.2", 100);
+        for (int i = 0; i < 1000; i++) {
+            counts.add("192.168." + i / 256 + "." + i % 256, 1);
+        }
+
+        assertEquals(
+                List.of(
+                        new ClientData("10.0.0.1", 5, 500),
+                        new ClientData("2001:db8::2", 3, 30_000),
+                        new ClientData("10.0.0.2", 1, 100)),
+                counts.getTop(3, false));
+        assertEquals(
+                List.of(new ClientData("2001:db8::2", 3, 30_000), new ClientData("10.0.0.1", 5, 500)),
+                counts.getTop(2, true));
+        assertEquals(1004, counts.getDistinctCount(), 10);
+    }
+}
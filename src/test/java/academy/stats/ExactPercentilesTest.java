@@ -0,0 +1,82 @@
+package academy.stats;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class ExactPercentilesTest {
+    private static final int[] PERCENTILES = {99, 0, 50, 95, 1, 90, 100, 33, 50};
+
+    static Stream<Arguments> inputs() {
+        Random random = new Random(42);
+        return Stream.of(
+                Arguments.of("random", 10_000, (IntToDoubleFunction) i -> random.nextInt(1_000_000)),
+                Arguments.of("few distinct", 10_000, (IntToDoubleFunction) i -> random.nextInt(3)),
+                Arguments.of("ascending", 5_000, (IntToDoubleFunction) i -> i),
+                Arguments.of("descending", 5_000, (IntToDoubleFunction) i -> -i),
+                Arguments.of("organ pipe", 5_000, (IntToDoubleFunction) i -> Math.min(i, 5_000 - i)),
+                Arguments.of("equal", 1_000, (IntToDoubleFunction) i -> 7),
+                Arguments.of("two values", 2, (IntToDoubleFunction) i -> i * 3 + 1),
+                Arguments.of("single value", 1, (IntToDoubleFunction) i -> 5));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("inputs")
+    @DisplayName("Percentiles should be identical to the sorted list calculation")
+    void sameAsSortingTest(String name, int count, IntToDoubleFunction generator) {
+        ExactPercentiles percentiles = new ExactPercentiles();
+        List<Double> values = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            double value = generator.applyAsDouble(i);
+            percentiles.add(value);
+            values.add(value);
+        }
+
+        double[] expected = new double[PERCENTILES.length];
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            expected[i] = MetricsCalculator.calculatePercentile(values, PERCENTILES[i]);
+            assertEquals(expected[i], percentiles.getPercentile(PERCENTILES[i]));
+        }
+        assertArrayEquals(expected, percentiles.getPercentiles(PERCENTILES));
+    }
+
+    @Test
+    @DisplayName("Merged buffers should answer like a single buffer")
+    void mergeTest() {
+        Random random = new Random(7);
+        ExactPercentiles single = new ExactPercentiles();
+        ExactPercentiles merged = new ExactPercentiles();
+
+        for (int part = 0; part < 5; part++) {
+            ExactPercentiles partial = (ExactPercentiles) merged.fork();
+            for (int i = 0; i < 3_000; i++) {
+                double value = random.nextInt(50_000);
+                single.add(value);
+                partial.add(value);
+            }
+            merged.merge(partial);
+        }
+
+        assertArrayEquals(single.getPercentiles(PERCENTILES), merged.getPercentiles(PERCENTILES));
+    }
+
+    @Test
+    @DisplayName("Empty buffer and invalid percentiles")
+    void edgeCasesTest() {
+        ExactPercentiles percentiles = new ExactPercentiles();
+        assertEquals(0, percentiles.getPercentile(95));
+        assertThrows(IllegalArgumentException.class, () -> percentiles.getPercentiles(50, 101));
+        assertThrows(IllegalArgumentException.class, () -> percentiles.getPercentile(-1));
+    }
+}
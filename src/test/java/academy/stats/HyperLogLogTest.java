@@ -0,0 +1,53 @@
+package academy.stats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class HyperLogLogTest {
+    @ParameterizedTest(name = "{0} distinct values")
+    @ValueSource(ints = {1, 10, 1000, 50_000, 1_000_000})
+    @DisplayName("The estimate should be within 3% of the number of distinct values")
+    void accuracyTest(int distinct) {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int repeat = 0; repeat < 3; repeat++) {
+            for (int i = 0; i < distinct; i++) {
+                sketch.add(ClientCounts.hash(0, i));
+            }
+        }
+
+        long estimate = sketch.estimate();
+        assertTrue(Math.abs(estimate - distinct) <= Math.max(1, 0.03 * distinct), () -> "estimate " + estimate);
+    }
+
+    @Test
+    @DisplayName("Merged and restored sketches should estimate the union")
+    void mergeTest() throws IOException {
+        HyperLogLog first = new HyperLogLog();
+        HyperLogLog second = new HyperLogLog();
+        HyperLogLog single = new HyperLogLog();
+        for (int i = 0; i < 200_000; i++) {
+            long hash = ClientCounts.hash(1, i);
+            (i % 3 == 0 ? first : second).add(hash);
+            single.add(hash);
+            if (i % 5 == 0) {
+                first.add(hash);
+            }
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        second.writeTo(new DataOutputStream(bytes));
+        first.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(single.estimate(), first.estimate());
+    }
+}
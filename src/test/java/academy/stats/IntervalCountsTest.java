@@ -0,0 +1,91 @@
+package academy.stats;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import academy.model.ThroughputSeries;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class IntervalCountsTest {
+    private static final long START = 1_728_568_536L;
+
+    @Test
+    @DisplayName("Series should span the first to the last busy interval with zeros in between")
+    void gapsTest() {
+        IntervalCounts counts = new IntervalCounts(60);
+        counts.add(START + 180, 300, 200);
+        counts.add(START, 100, 500);
+        counts.add(START + 1, 50, 404);
+
+        ThroughputSeries series = counts.toSeries();
+
+        assertEquals("2024-10-10T13:55:00Z", series.start);
+        assertEquals(60, series.intervalSeconds);
+        assertArrayEquals(new int[] {2, 0, 0, 1}, series.requests);
+        assertArrayEquals(new long[] {150, 0, 0, 300}, series.bytes);
+        assertArrayEquals(new int[] {1, 0, 0, 0}, series.errors);
+    }
+
+    @Test
+    @DisplayName("Counts without requests should have no series")
+    void emptyTest() {
+        assertNull(new IntervalCounts(3600).toSeries());
+    }
+
+    @Test
+    @DisplayName("Entries stretching the series beyond its limit should be left out and counted")
+    void limitTest() {
+        IntervalCounts counts = new IntervalCounts(1);
+        counts.add(START, 1, 200);
+        counts.add(START + IntervalCounts.MAX_INTERVALS - 1, 1, 200);
+        counts.add(START + IntervalCounts.MAX_INTERVALS, 1, 200);
+        counts.add(START - 1, 1, 200);
+
+        ThroughputSeries series = counts.toSeries();
+
+        assertEquals(IntervalCounts.MAX_INTERVALS, series.requests.length);
+        assertEquals(1, series.requests[0]);
+        assertEquals(1, series.requests[IntervalCounts.MAX_INTERVALS - 1]);
+        assertEquals(2, counts.getDroppedRequests());
+
+        IntervalCounts merged = new IntervalCounts(1);
+        merged.merge(counts);
+        assertEquals(2, merged.getDroppedRequests());
+    }
+
+    @Test
+    @DisplayName("Merged and restored counts should equal a single pass in any order")
+    void mergeTest() throws IOException {
+        Random random = new Random(42);
+        IntervalCounts single = new IntervalCounts(60);
+        IntervalCounts left = new IntervalCounts(60);
+        IntervalCounts right = new IntervalCounts(60);
+        for (int i = 0; i < 10_000; i++) {
+            long epochSecond = START + random.nextInt(7 * 86_400) - 3 * 86_400;
+            int status = random.nextInt(10) == 0 ? 503 : 200;
+            single.add(epochSecond, i, status);
+            (random.nextBoolean() ? left : right).add(epochSecond, i, status);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        right.writeTo(new DataOutputStream(bytes));
+        IntervalCounts restored = new IntervalCounts(60);
+        restored.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        left.merge(restored);
+
+        ThroughputSeries expected = single.toSeries();
+        ThroughputSeries actual = left.toSeries();
+        assertEquals(expected.start, actual.start);
+        assertArrayEquals(expected.requests, actual.requests);
+        assertArrayEquals(expected.bytes, actual.bytes);
+        assertArrayEquals(expected.errors, actual.errors);
+    }
+}
@@ -0,0 +1,102 @@
+package academy.stats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+    @Test
+    @DisplayName("Percentiles of millisecond times should be within 1% of the exact ones, not rounded to 10 ms")
+    void percentilesTest() {
+        Random random = new Random(19);
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Double> times = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            double time = Math.floor(Math.exp(2 + 2 * random.nextGaussian())) / 1000;
+            histogram.add(time);
+            times.add(time);
+        }
+        Collections.sort(times);
+
+        for (int percentile : new int[] {50, 90, 99}) {
+            double exact = times.get((int) Math.round(percentile / 100.0 * (times.size() - 1)));
+            double estimate = histogram.getPercentile(percentile);
+            assertTrue(Math.abs(estimate - exact) <= exact * 0.01 + 1e-3, percentile + ": " + estimate + " " + exact);
+        }
+        assertEquals(times.getLast(), histogram.getMax());
+        assertEquals(
+                times.stream().mapToLong(time -> Math.round(time * 1000)).sum() / 1000.0 / times.size(),
+                histogram.getAverage(),
+                1e-12);
+    }
+
+    @Test
+    @DisplayName("Times outside the buckets should be counted apart and estimated by the exact extremes")
+    void outOfRangeTest() throws IOException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (double time : new double[] {0, 0, 0.0004, 0.2, 90_000, 172_800}) {
+            histogram.add(time);
+        }
+
+        assertEquals(915, LatencyHistogram.BUCKETS);
+        assertEquals(6, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(0));
+        assertEquals(0, histogram.getPercentile(40));
+        assertEquals(172_800, histogram.getPercentile(90));
+        assertEquals(172_800, histogram.getMax());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        histogram.writeTo(new DataOutputStream(bytes));
+        LatencyHistogram restored = new LatencyHistogram();
+        restored.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        for (int percentile = 0; percentile <= 100; percentile += 10) {
+            assertEquals(histogram.getPercentile(percentile), restored.getPercentile(percentile));
+        }
+        assertEquals(histogram.getCount(), restored.getCount());
+    }
+
+    @Test
+    @DisplayName("Counts beyond the range of int should not wrap around")
+    void largeCountTest() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.add(0.2);
+        // every merge with itself doubles the count
+        for (int i = 0; i < 32; i++) {
+            histogram.merge(histogram);
+        }
+
+        assertEquals(1L << 32, histogram.getCount());
+        assertEquals(0.2, histogram.getAverage(), 1e-12);
+        assertEquals(0.2, histogram.getPercentile(50), 0.2 * 0.01);
+    }
+
+    @Test
+    @DisplayName("A restored histogram should answer like the saved one")
+    void roundTripTest() throws IOException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (double time : new double[] {0, 0.001, 0.015, 0.2, 0.2, 3.5}) {
+            histogram.add(time);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        histogram.writeTo(new DataOutputStream(bytes));
+        LatencyHistogram restored = new LatencyHistogram();
+        restored.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(histogram.getCount(), restored.getCount());
+        assertEquals(histogram.getAverage(), restored.getAverage());
+        assertEquals(histogram.getMax(), restored.getMax());
+        assertEquals(histogram.getPercentile(50), restored.getPercentile(50));
+    }
+}
@@ -0,0 +1,110 @@
+package academy.stats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.DoubleSupplier;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class LogHistogramTest {
+    private static final int[] PERCENTILES = {0, 1, 25, 50, 75, 90, 95, 99, 100};
+
+    static Stream<Arguments> distributions() {
+        Random random = new Random(42);
+        return Stream.of(
+                Arguments.of("uniform", (DoubleSupplier) () -> random.nextInt(100_000)),
+                Arguments.of(
+                        "exponential", (DoubleSupplier) () -> Math.floor(-Math.log(1 - random.nextDouble()) * 5000)),
+                Arguments.of("log-normal", (DoubleSupplier) () -> Math.floor(Math.exp(8 + 3 * random.nextGaussian()))),
+                Arguments.of(
+                        "mostly zero", (DoubleSupplier) () -> random.nextInt(10) < 7 ? 0 : random.nextInt(1 << 20)));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("distributions")
+    @DisplayName("Percentiles should be within the relative accuracy of the exact ones")
+    void errorBoundTest(String name, DoubleSupplier distribution) {
+        LogHistogram histogram = new LogHistogram();
+        List<Double> values = new ArrayList<>();
+
+        for (int i = 0; i < 50_000; i++) {
+            double value = distribution.getAsDouble();
+            histogram.add(value);
+            values.add(value);
+        }
+
+        for (int percentile : PERCENTILES) {
+            double exact = MetricsCalculator.calculatePercentile(values, percentile);
+            double approximate = histogram.getPercentile(percentile);
+            // two-decimal rounding of both results adds up to 0.01
+            double bound = exact * LogHistogram.DEFAULT_RELATIVE_ACCURACY + 0.01;
+
+            assertTrue(
+                    Math.abs(approximate - exact) <= bound,
+                    "p%d: exact %s, approximate %s".formatted(percentile, exact, approximate));
+        }
+    }
+
+    @Test
+    @DisplayName("Merged histograms should answer like a single histogram of all values")
+    void mergeTest() {
+        Random random = new Random(7);
+        LogHistogram single = new LogHistogram();
+        LogHistogram merged = new LogHistogram();
+        LogHistogram small = (LogHistogram) merged.fork();
+        LogHistogram large = (LogHistogram) merged.fork();
+
+        for (int i = 0; i < 10_000; i++) {
+            double value = random.nextInt(100);
+            single.add(value);
+            small.add(value);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            double value = 1e6 + random.nextInt(1_000_000_000);
+            single.add(value);
+            large.add(value);
+        }
+
+        merged.merge(large);
+        merged.merge(new LogHistogram());
+        merged.merge(small);
+
+        assertEquals(single.getTotalCount(), merged.getTotalCount());
+        for (int percentile : PERCENTILES) {
+            assertEquals(single.getPercentile(percentile), merged.getPercentile(percentile));
+        }
+    }
+
+    @Test
+    @DisplayName("Edge cases should match the exact percentiles")
+    void edgeCasesTest() {
+        LogHistogram histogram = new LogHistogram();
+        assertEquals(0, histogram.getPercentile(95));
+
+        histogram.add(1234);
+        assertEquals(1234, histogram.getPercentile(0));
+        assertEquals(1234, histogram.getPercentile(100));
+
+        histogram.add(0);
+        assertEquals(0, histogram.getPercentile(0));
+        assertEquals(1234, histogram.getPercentile(100));
+    }
+
+    @Test
+    @DisplayName("Invalid arguments should be rejected")
+    void invalidArgumentsTest() {
+        assertThrows(IllegalArgumentException.class, () -> new LogHistogram(0));
+        assertThrows(IllegalArgumentException.class, () -> new LogHistogram(1));
+        assertThrows(IllegalArgumentException.class, () -> new LogHistogram().getPercentile(101));
+        assertThrows(IllegalArgumentException.class, () -> new LogHistogram(0.01).merge(new LogHistogram(0.02)));
+    }
+}
@@ -0,0 +1,143 @@
+package academy.stats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import academy.model.ResourceData;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class SpaceSavingCounterTest {
+    private static final int REQUESTS = 200_000;
+
+    @Test
+    @DisplayName("Counts should be exact while the resources fit into the counters")
+    void exactBelowCapacityTest() {
+        Random random = new Random(1);
+        SpaceSavingCounter sketch = new SpaceSavingCounter(500);
+        ExactResourceCounts exact = new ExactResourceCounts();
+
+        for (int i = 0; i < 50_000; i++) {
+            String resource = "/downloads/product_" + random.nextInt(500);
+            sketch.add(resource);
+            exact.add(resource);
+        }
+
+        assertEquals(exact.getTop(500), sketch.getTop(500));
+    }
+
+    @ParameterizedTest(name = "{0} counters")
+    @ValueSource(ints = {100, 1000})
+    @DisplayName("Counts should overestimate by at most requests / counters and keep every heavy hitter")
+    void errorBoundTest(int capacity) {
+        List<String> requests = skewedRequests(new Random(capacity));
+        SpaceSavingCounter sketch = new SpaceSavingCounter(capacity);
+        requests.forEach(sketch::add);
+
+        assertBounds(sketch, trueCounts(requests), capacity, requests.size());
+    }
+
+    @Test
+    @DisplayName("The top of a skewed distribution should be the same as the exact one")
+    void sameTopTest() {
+        List<String> requests = skewedRequests(new Random(3));
+        SpaceSavingCounter sketch = new SpaceSavingCounter(1000);
+        ExactResourceCounts exact = new ExactResourceCounts();
+        requests.forEach(sketch::add);
+        requests.forEach(exact::add);
+
+        List<ResourceData> expected = exact.getTop(10);
+        List<ResourceData> actual = sketch.getTop(10);
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).resource(), actual.get(i).resource());
+        }
+    }
+
+    @Test
+    @DisplayName("Merged sketches should keep the error bound of all requests")
+    void mergeTest() {
+        List<String> requests = skewedRequests(new Random(5));
+        int capacity = 500;
+
+        SpaceSavingCounter merged = new SpaceSavingCounter(capacity);
+        for (int part = 0; part < 8; part++) {
+            IResourceCounter partial = merged.fork();
+            requests.subList(part * requests.size() / 8, (part + 1) * requests.size() / 8)
+                    .forEach(partial::add);
+            merged.merge(partial);
+        }
+
+        assertBounds(merged, trueCounts(requests), capacity, requests.size());
+    }
+
+    @Test
+    @DisplayName("A restored sketch should answer like the saved one")
+    void roundTripTest() throws IOException {
+        List<String> requests = skewedRequests(new Random(7));
+        SpaceSavingCounter sketch = new SpaceSavingCounter(300);
+        requests.forEach(sketch::add);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        sketch.writeTo(new DataOutputStream(bytes));
+        IResourceCounter restored = sketch.fork();
+        restored.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(sketch.getTop(300), restored.getTop(300));
+    }
+
+    @Test
+    @DisplayName("The number of counters should follow the error bound")
+    void capacityTest() {
+        assertEquals(10_000, SpaceSavingCounter.capacityFor(SpaceSavingCounter.DEFAULT_ERROR));
+        assertEquals(4, SpaceSavingCounter.capacityFor(0.25));
+        assertThrows(IllegalArgumentException.class, () -> SpaceSavingCounter.capacityFor(0));
+        assertThrows(IllegalArgumentException.class, () -> SpaceSavingCounter.capacityFor(1));
+        assertThrows(IllegalArgumentException.class, () -> new SpaceSavingCounter(0));
+    }
+
+    private static void assertBounds(SpaceSavingCounter sketch, Map<String, Integer> trueCounts, int capacity, int n) {
+        int maxError = n / capacity;
+        List<ResourceData> kept = sketch.getTop(capacity);
+
+        for (ResourceData data : kept) {
+            int actual = trueCounts.getOrDefault(data.resource(), 0);
+            assertTrue(data.totalRequestsCount() >= actual, data.toString());
+            assertTrue(data.totalRequestsCount() - actual <= maxError, data + " true " + actual);
+            assertTrue(sketch.getError(data.resource()) <= maxError, data.toString());
+        }
+        trueCounts.forEach((resource, count) -> {
+            if (count > maxError) {
+                assertTrue(kept.stream().anyMatch(data -> data.resource().equals(resource)), resource);
+            }
+        });
+    }
+
+    /** A few popular resources and a long tail of cache-busting URLs requested once or twice */
+    private static List<String> skewedRequests(Random random) {
+        List<String> requests = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            int rank = (int) Math.floor(Math.pow(1 - random.nextDouble(), -1.5));
+            requests.add(rank < 200 ? "/downloads/product_" + rank : "/static/app.js?v=" + random.nextInt(REQUESTS));
+        }
+        return requests;
+    }
+
+    private static Map<String, Integer> trueCounts(List<String> requests) {
+        Map<String, Integer> counts = new HashMap<>();
+        requests.forEach(resource -> counts.merge(resource, 1, Integer::sum));
+        return counts;
+    }
+}
@@ -0,0 +1,186 @@
+package academy.stats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import academy.model.LogFields;
+import academy.model.PercentileMode;
+import academy.model.ResourceCountMode;
+import academy.model.SeriesInterval;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/** Merging any split of the input, grouped in any way, should give the same Stats as a single pass */
+class StatsAggregateTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String[] METHODS = {"GET", "POST", "HEAD"};
+    private static final String[] PROTOCOLS = {"HTTP/1.0", "HTTP/1.1", "HTTP/2.0"};
+    private static final int[] STATUSES = {200, 200, 200, 206, 301, 304, 404, 500};
+
+    static Stream<Arguments> seeds() {
+        return LongStream.range(0, 40).boxed().flatMap(seed -> Stream.of(PercentileMode.values())
+                .flatMap(mode -> Stream.of(ResourceCountMode.values())
+                        .map(resourceMode -> Arguments.of(seed, mode, resourceMode))));
+    }
+
+    @ParameterizedTest(name = "seed {0}, {1}, {2} resource counts")
+    @MethodSource("seeds")
+    @DisplayName("Merging any split of the input should equal a single pass")
+    void mergeEqualsSinglePassTest(long seed, PercentileMode mode, ResourceCountMode resourceMode)
+            throws JsonProcessingException {
+        Random random = new Random(seed);
+        List<LogFields> input = randomInput(random, random.nextInt(2000));
+        List<Integer> boundaries = randomBoundaries(random, input.size());
+
+        StatsCollector prototype = new StatsCollector(
+                LocalDate.of(2024, 10, 3),
+                LocalDate.of(2024, 10, 12),
+                StatsOptions.builder()
+                        .percentileMode(mode)
+                        .resourceCountMode(resourceMode)
+                        .clients(true)
+                        .seriesInterval(SeriesInterval.MINUTE)
+                        .build());
+
+        StatsCollector single = prototype.fork();
+        for (int part = 0; part + 1 < boundaries.size(); part++) {
+            single.addFile("part-" + part);
+            input.subList(boundaries.get(part), boundaries.get(part + 1)).forEach(single::collect);
+        }
+
+        StatsCollector merged = mergeParts(random, prototype, input, boundaries, 0, boundaries.size() - 1);
+
+        assertEquals(MAPPER.writeValueAsString(single.getStats()), MAPPER.writeValueAsString(merged.getStats()));
+    }
+
+    @Test
+    @DisplayName("Request times should be kept for a bounded set of resources, also with exact resource counts")
+    void boundedResourceTimesTest() {
+        StatsOptions options = StatsOptions.builder()
+                .resourceCountMode(ResourceCountMode.EXACT)
+                .build();
+        StatsAggregate aggregate = new StatsAggregate(options);
+        StatsAggregate other = aggregate.fork();
+        for (int i = 0; i < 200_000; i++) {
+            aggregate.add(timedEntry(i % 10 == 0 ? "/hot" : "/cache-busted?v=" + i, 0.25));
+            other.add(timedEntry("/other?v=" + i, 0.5));
+        }
+
+        int capacity = StatsOptions.MIN_TIMED_RESOURCES;
+        assertEquals(capacity, aggregate.getTimedResourceCount());
+        assertEquals(20_000, aggregate.getRequestTimes("/hot").getCount());
+
+        aggregate.merge(other);
+        assertTrue(aggregate.getTimedResourceCount() <= capacity, aggregate.getTimedResourceCount() + " resources");
+        assertEquals(20_000, aggregate.getRequestTimes("/hot").getCount());
+        assertEquals(380_001, aggregate.getTopResources(1_000_000).size());
+    }
+
+    private static LogFields timedEntry(String resource, double requestTime) {
+        return new LogFields(
+                "10.0.0.1",
+                "-",
+                LocalDate.of(2024, 10, 5),
+                "GET " + resource + " HTTP/1.1",
+                200,
+                100,
+                "-",
+                "Mozilla",
+                resource,
+                "HTTP/1.1",
+                requestTime,
+                Double.NaN,
+                null,
+                LogFields.NO_EPOCH_SECOND);
+    }
+
+    /** Aggregates parts {@code [fromPart, toPart)} as a random binary tree of merges */
+    private static StatsCollector mergeParts(
+            Random random,
+            StatsCollector prototype,
+            List<LogFields> input,
+            List<Integer> boundaries,
+            int fromPart,
+            int toPart) {
+        if (toPart - fromPart == 1) {
+            StatsCollector leaf = prototype.fork();
+            leaf.addFile("part-" + fromPart);
+            input.subList(boundaries.get(fromPart), boundaries.get(toPart)).forEach(leaf::collect);
+            return leaf;
+        }
+
+        int middle = fromPart + 1 + random.nextInt(toPart - fromPart - 1);
+        StatsCollector left = mergeParts(random, prototype, input, boundaries, fromPart, middle);
+        StatsCollector right = mergeParts(random, prototype, input, boundaries, middle, toPart);
+        left.merge(right);
+        return left;
+    }
+
+    /** @return sorted part boundaries from {@code 0} to {@code size}, parts may be empty */
+    private static List<Integer> randomBoundaries(Random random, int size) {
+        int parts = 1 + random.nextInt(12);
+        List<Integer> boundaries = new ArrayList<>();
+        boundaries.add(0);
+        random.ints(parts - 1, 0, size + 1).sorted().forEach(boundaries::add);
+        boundaries.add(size);
+        return boundaries;
+    }
+
+    private static List<LogFields> randomInput(Random random, int size) {
+        List<LogFields> input = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String method = METHODS[random.nextInt(METHODS.length)];
+            String resource = "/downloads/product_" + random.nextInt(40);
+            String request =
+                    switch (random.nextInt(10)) {
+                        case 0 -> "";
+                        case 1 -> method + " " + resource;
+                        default -> method + " " + resource + " " + PROTOCOLS[random.nextInt(PROTOCOLS.length)];
+                    };
+            double responseSize = random.nextInt(5) == 0 ? 0 : random.nextInt(1 << random.nextInt(24));
+
+            LogFields fields = new LogFields(
+                    random.nextInt(4) == 0
+                            ? "2001:db8::" + Integer.toHexString(random.nextInt(64))
+                            : "10.0.0." + random.nextInt(256),
+                    "-",
+                    LocalDate.of(2024, 10, 1 + random.nextInt(14)),
+                    request,
+                    STATUSES[random.nextInt(STATUSES.length)],
+                    responseSize,
+                    "-",
+                    "Mozilla");
+            double requestTime = random.nextInt(4) == 0 ? Double.NaN : random.nextInt(1 << random.nextInt(16)) / 1000.0;
+            double upstreamTime = random.nextBoolean() ? Double.NaN : requestTime * random.nextDouble();
+
+            input.add(new LogFields(
+                    fields.remoteAddress(),
+                    fields.remoteUser(),
+                    fields.timeLocal(),
+                    fields.request(),
+                    fields.status(),
+                    fields.bodyBytesSent(),
+                    fields.httpReferer(),
+                    fields.httpUserAgent(),
+                    fields.requestResource(),
+                    fields.requestProtocol(),
+                    requestTime,
+                    upstreamTime,
+                    random.nextInt(3) == 0 ? null : "host-" + random.nextInt(5),
+                    fields.timeLocal().atStartOfDay().toEpochSecond(ZoneOffset.UTC) + random.nextInt(86_400)));
+        }
+        return input;
+    }
+}
@@ -0,0 +1,72 @@
+package academy.stats;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import academy.model.LogFields;
+import academy.model.PercentileMode;
+import academy.model.ResourceCountMode;
+import academy.service.NginxLogTokenizer;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/** Counting lines whose resources, statuses, dates and protocols have been seen before should not allocate */
+class StatsCollectorAllocationTest {
+    private static final int LINES = 20_000;
+    private static final int ROUNDS = 20;
+
+    @ParameterizedTest
+    @EnumSource(ResourceCountMode.class)
+    @DisplayName("Steady-state collection should allocate no memory per line")
+    void steadyStateTest(ResourceCountMode resourceMode) {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        List<LogFields> lines = lines(new Random(20));
+        StatsCollector collector = new StatsCollector(
+                null,
+                null,
+                StatsOptions.builder()
+                        .percentileMode(PercentileMode.APPROXIMATE)
+                        .resourceCountMode(resourceMode)
+                        .build());
+        for (int round = 0; round < ROUNDS; round++) {
+            lines.forEach(collector::collect);
+        }
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int round = 0; round < ROUNDS; round++) {
+            for (LogFields fields : lines) {
+                collector.collect(fields);
+            }
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertTrue(allocated < (long) LINES * ROUNDS / 100, allocated + " bytes for " + LINES * ROUNDS + " lines");
+    }
+
+    private static List<LogFields> lines(Random random) {
+        NginxLogTokenizer tokenizer = new NginxLogTokenizer();
+        String[] protocols = {"HTTP/1.0", "HTTP/1.1", "HTTP/2.0"};
+        int[] statuses = {200, 200, 206, 304, 404, 500};
+
+        List<LogFields> lines = new ArrayList<>(LINES);
+        for (int i = 0; i < LINES; i++) {
+            String line =
+                    "10.0.0.1 - - [%02d/May/2015:08:05:32 +0000] \"GET /downloads/product_%d %s\" %d %d \"-\" \"-\""
+                            .formatted(
+                                    1 + random.nextInt(28),
+                                    random.nextInt(500),
+                                    protocols[random.nextInt(protocols.length)],
+                                    statuses[random.nextInt(statuses.length)],
+                                    random.nextInt(100_000));
+            lines.add(tokenizer.tryProcessLine(line).orElseThrow());
+        }
+        return lines;
+    }
+}